@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.benchmark;
+
+import io.dipcoin.sui.amm.utils.MathUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/11 10:20
+ * @Description : swap quoting throughput, BigInteger API against the long fast path
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MathUtilBenchmark {
+
+    private long feeRate = 30L;
+    private long amount = 1_500_000_000L;
+    private long reserveIn = 84_000_000_000_000L;
+    private long reserveOut = 1_250_000_000_000_000L;
+    private long slippage = 100L;
+
+    private BigInteger feeRateBig = BigInteger.valueOf(feeRate);
+    private BigInteger amountBig = BigInteger.valueOf(amount);
+    private BigInteger reserveInBig = BigInteger.valueOf(reserveIn);
+    private BigInteger reserveOutBig = BigInteger.valueOf(reserveOut);
+    private BigInteger slippageBig = BigInteger.valueOf(slippage);
+
+    @Benchmark
+    public BigInteger getAmountOutBigInteger() {
+        return MathUtil.getAmountOut(feeRateBig, amountBig, reserveInBig, reserveOutBig);
+    }
+
+    @Benchmark
+    public long getAmountOutLong() {
+        return MathUtil.getAmountOut(feeRate, amount, reserveIn, reserveOut);
+    }
+
+    @Benchmark
+    public BigInteger getAmountInBigInteger() {
+        return MathUtil.getAmountIn(feeRateBig, amountBig, reserveInBig, reserveOutBig);
+    }
+
+    @Benchmark
+    public long getAmountInLong() {
+        return MathUtil.getAmountIn(feeRate, amount, reserveIn, reserveOut);
+    }
+
+    @Benchmark
+    public BigInteger mulDivBigInteger() {
+        return MathUtil.mulDiv(reserveInBig, amountBig, reserveOutBig);
+    }
+
+    @Benchmark
+    public long mulDivLong() {
+        return MathUtil.mulDiv(reserveIn, amount, reserveOut);
+    }
+
+    @Benchmark
+    public BigInteger getSlippageAmountBigInteger() {
+        return MathUtil.getSlippageAmount(amountBig, slippageBig);
+    }
+
+    @Benchmark
+    public long getSlippageAmountLong() {
+        return MathUtil.getSlippageAmount(amount, slippage);
+    }
+
+}
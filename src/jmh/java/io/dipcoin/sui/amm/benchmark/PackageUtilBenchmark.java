@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.benchmark;
+
+import io.dipcoin.sui.amm.model.CoinPair;
+import io.dipcoin.sui.amm.utils.PackageUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/11 10:42
+ * @Description : coin type ordering and LP naming cost
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackageUtilBenchmark {
+
+    private String packageId = StubSuiService.PACKAGE_ID;
+    private String typeX = StubSuiService.COIN_TYPE_USDC;
+    private String typeY = StubSuiService.COIN_TYPE_SUI;
+
+    @Benchmark
+    public String[] orderType() {
+        return PackageUtil.orderType(typeX, typeY);
+    }
+
+    @Benchmark
+    public CoinPair getCoinPair() {
+        return PackageUtil.getCoinPair(typeX, typeY);
+    }
+
+    @Benchmark
+    public boolean isSortedTypes() {
+        return PackageUtil.isSortedTypes(typeX, typeY);
+    }
+
+    @Benchmark
+    public String getLpName() {
+        return PackageUtil.getLpName(typeX, typeY);
+    }
+
+    @Benchmark
+    public String[] getLpType() {
+        return PackageUtil.getLpType(packageId, typeX, typeY);
+    }
+
+}
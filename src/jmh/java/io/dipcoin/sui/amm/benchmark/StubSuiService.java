@@ -0,0 +1,181 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.benchmark;
+
+import io.dipcoin.sui.amm.config.AmmConfigs;
+import io.dipcoin.sui.protocol.http.HttpService;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/11 11:05
+ * @Description : offline json-rpc transport answering with canned fullnode responses, so transaction assembly can be measured without a network.
+ * Executed transactions report the coins they used as mutated, the gas coin included, so the client keeps building from cached coins.
+ */
+public class StubSuiService extends HttpService {
+
+    public static final String PACKAGE_ID = AmmConfigs.TESTNET_CONFIG.packageId();
+
+    public static final String GLOBAL_ID = AmmConfigs.TESTNET_CONFIG.globalId();
+
+    public static final String POOL_ID = "0xf2cddb6036ffc128430fefab738a34d0ecb147ac28f25c64cfd9039a945e904e";
+
+    public static final String COIN_TYPE_USDC = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::USDC";
+
+    public static final String COIN_TYPE_SUI = "0x0000000000000000000000000000000000000000000000000000000000000002::sui::SUI";
+
+    private static final String DIGEST = "4foJEuozTbtezmYgpBo6YEUmNHidRhWJFRqdAdJspj43";
+
+    private static final Pattern METHOD = Pattern.compile("\"method\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private static final Pattern TX_BYTES = Pattern.compile("\"params\"\\s*:\\s*\\[\\s*\"([^\"]+)\"");
+
+    private static final List<String> USDC_COINS = List.of(
+            "0x1111111111111111111111111111111111111111111111111111111111111111",
+            "0x2222222222222222222222222222222222222222222222222222222222222222");
+
+    private static final List<String> SUI_COINS = List.of(
+            "0x3333333333333333333333333333333333333333333333333333333333333333",
+            "0x4444444444444444444444444444444444444444444444444444444444444444");
+
+    private static final String POOL_OBJECT = """
+            {"objectId":"%s","version":"1024","digest":"%s",
+             "type":"%s::amm_swap::Pool<%s, %s>",
+             "owner":{"Shared":{"initial_shared_version":512}},
+             "content":{"dataType":"moveObject","type":"%s::amm_swap::Pool<%s, %s>","hasPublicTransfer":false,
+              "fields":{"bal_x":"84000000000000","bal_y":"1250000000000000","fee_bal_x":"0","fee_bal_y":"0",
+               "fee_rate":"30","id":{"id":"%s"},
+               "lp_supply":{"type":"0x2::balance::Supply","fields":{"value":"10000000000000"}},
+               "min_add_liquidity_lp_amount":"1000","min_liquidity":"1000"}}}
+            """.formatted(POOL_ID, DIGEST, PACKAGE_ID, COIN_TYPE_USDC, COIN_TYPE_SUI, PACKAGE_ID, COIN_TYPE_USDC, COIN_TYPE_SUI, POOL_ID);
+
+    private static final String GLOBAL_OBJECT = """
+            {"objectId":"%s","version":"2048","digest":"%s",
+             "type":"%s::amm_swap::Global",
+             "owner":{"Shared":{"initial_shared_version":256}},
+             "content":{"dataType":"moveObject","type":"%s::amm_swap::Global","hasPublicTransfer":false,
+              "fields":{"has_paused":false,"is_open_protocol_fee":false,"id":{"id":"%s"}}}}
+            """.formatted(GLOBAL_ID, DIGEST, PACKAGE_ID, PACKAGE_ID, GLOBAL_ID);
+
+    private static final String COINS = """
+            {"data":[
+              {"coinType":"%1$s","coinObjectId":"%3$s","version":"%4$d","digest":"%2$s","balance":"900000000000","previousTransaction":"%2$s"},
+              {"coinType":"%1$s","coinObjectId":"%5$s","version":"%6$d","digest":"%2$s","balance":"100000000000","previousTransaction":"%2$s"}
+             ],"nextCursor":null,"hasNextPage":false}
+            """;
+
+    private static final String EFFECTS = """
+            {"messageVersion":"v1","status":{"status":"success"},"executedEpoch":"1",
+             "gasUsed":{"computationCost":"1000000","storageCost":"2000000","storageRebate":"1500000","nonRefundableStorageFee":"15000"},
+             "transactionDigest":"%s"%%s}
+            """.formatted(DIGEST);
+
+    private static final String OWNED_REF = """
+            {"owner":{"AddressOwner":"0x0000000000000000000000000000000000000000000000000000000000000000"},
+             "reference":{"objectId":"%s","version":%d,"digest":"%s"}}""";
+
+    /** Current version of every stub coin, moved forward by each executed transaction that uses it */
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    private final AtomicLong lamport = new AtomicLong(100L);
+
+    public StubSuiService() {
+        super("http://localhost");
+    }
+
+    @Override
+    protected InputStream performIO(String request) {
+        String id = find(ID, request, "1");
+        String method = find(METHOD, request, "");
+        String result = switch (method) {
+            case "sui_getObject" -> "{\"data\":" + (request.contains(GLOBAL_ID) ? GLOBAL_OBJECT : POOL_OBJECT) + "}";
+            case "sui_multiGetObjects" -> "[{\"data\":" + POOL_OBJECT + "}]";
+            case "suix_getCoins" -> coins(request.contains(COIN_TYPE_USDC) ? COIN_TYPE_USDC : COIN_TYPE_SUI);
+            case "suix_getReferenceGasPrice" -> "\"1000\"";
+            case "sui_dryRunTransactionBlock" -> "{\"effects\":" + EFFECTS.formatted("") + ",\"events\":[],\"objectChanges\":[],\"balanceChanges\":[]}";
+            case "sui_executeTransactionBlock" -> "{\"digest\":\"" + DIGEST + "\",\"effects\":" + EFFECTS.formatted(execute(request)) + "}";
+            default -> null;
+        };
+        String body = result == null
+                ? "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"error\":{\"code\":-32601,\"message\":\"Method not found: " + method + "\"}}"
+                : "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"result\":" + result + "}";
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String coins(String type) {
+        List<String> ids = COIN_TYPE_USDC.equals(type) ? USDC_COINS : SUI_COINS;
+        return COINS.formatted(type, DIGEST, ids.get(0), version(ids.get(0)), ids.get(1), version(ids.get(1)));
+    }
+
+    private long version(String coinId) {
+        return versions.getOrDefault(coinId, 77L);
+    }
+
+    /**
+     * Move every stub coin the transaction references to a new version. SUI coins only appear as gas payment,
+     * the first of them is the gas coin.
+     * @returns mutated and gasObject fields of the effects
+     */
+    private String execute(String request) {
+        byte[] txBytes = Base64.getDecoder().decode(find(TX_BYTES, request, ""));
+        long version = lamport.incrementAndGet();
+        List<String> mutated = new ArrayList<>();
+        String gasObject = null;
+        for (List<String> ids : List.of(USDC_COINS, SUI_COINS)) {
+            for (String id : ids) {
+                if (contains(txBytes, HexFormat.of().parseHex(id.substring(2)))) {
+                    versions.put(id, version);
+                    String ref = OWNED_REF.formatted(id, version, DIGEST);
+                    mutated.add(ref);
+                    if (gasObject == null && SUI_COINS.contains(id)) {
+                        gasObject = ref;
+                    }
+                }
+            }
+        }
+        return ",\"mutated\":[" + String.join(",", mutated) + "]" + (gasObject == null ? "" : ",\"gasObject\":" + gasObject);
+    }
+
+    private static boolean contains(byte[] data, byte[] part) {
+        outer:
+        for (int i = 0; i + part.length <= data.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (data[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static String find(Pattern pattern, String request, String defaultValue) {
+        Matcher matcher = pattern.matcher(request);
+        return matcher.find() ? matcher.group(1) : defaultValue;
+    }
+
+}
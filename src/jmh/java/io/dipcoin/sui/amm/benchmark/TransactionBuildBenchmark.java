@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.benchmark;
+
+import io.dipcoin.sui.amm.client.AmmClient;
+import io.dipcoin.sui.amm.constant.AmmNetwork;
+import io.dipcoin.sui.amm.model.request.SwapParams;
+import io.dipcoin.sui.crypto.Ed25519KeyPair;
+import io.dipcoin.sui.crypto.SuiKeyPair;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.protocol.SuiClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/11 14:16
+ * @Description : end-to-end swap assembly (pool read, coin split, ptb, gas data, signing) against the offline stub node
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBuildBenchmark {
+
+    private static final long GAS_PRICE = 1000L;
+
+    private static final BigInteger GAS_BUDGET = BigInteger.TEN.pow(8);
+
+    private AmmClient ammClient;
+
+    private SuiKeyPair suiKeyPair;
+
+    private SwapParams coinToSui;
+
+    private SwapParams suiToCoin;
+
+    @Setup
+    public void setUp() {
+        this.ammClient = new AmmClient(AmmNetwork.TESTNET, SuiClient.build(new StubSuiService()));
+        // throwaway key, the stub node never checks the sender
+        byte[] privateKey = new byte[32];
+        new SecureRandom().nextBytes(privateKey);
+        this.suiKeyPair = Ed25519KeyPair.decodeHex(HexFormat.of().formatHex(privateKey));
+
+        this.coinToSui = new SwapParams();
+        coinToSui.setPoolId(StubSuiService.POOL_ID);
+        coinToSui.setTypeX(StubSuiService.COIN_TYPE_USDC);
+        coinToSui.setTypeY(StubSuiService.COIN_TYPE_SUI);
+        coinToSui.setAmountIn(BigInteger.valueOf(1_500_000L));
+
+        this.suiToCoin = new SwapParams();
+        suiToCoin.setPoolId(StubSuiService.POOL_ID);
+        suiToCoin.setTypeX(StubSuiService.COIN_TYPE_SUI);
+        suiToCoin.setTypeY(StubSuiService.COIN_TYPE_USDC);
+        suiToCoin.setAmountIn(BigInteger.valueOf(1_500_000L));
+    }
+
+    @Benchmark
+    public SuiTransactionBlockResponse swapExactXToYCoinInput() {
+        return ammClient.swapExactXToY(coinToSui, suiKeyPair, GAS_PRICE, GAS_BUDGET);
+    }
+
+    @Benchmark
+    public SuiTransactionBlockResponse swapExactXToYSuiInput() {
+        return ammClient.swapExactXToY(suiToCoin, suiKeyPair, GAS_PRICE, GAS_BUDGET);
+    }
+
+}
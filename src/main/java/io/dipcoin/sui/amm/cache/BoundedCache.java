@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/13 09:40
+ * @Description : size-bounded concurrent cache, evicts an arbitrary entry once full
+ */
+public class BoundedCache<K, V> {
+
+    private final Map<K, V> values = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    public BoundedCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the cached value or compute it. The loader runs outside any lock and may run more than once
+     * for the same key under contention, so it must be side-effect free.
+     * @param key cache key
+     * @param loader computes the value on a miss
+     * @returns cached or computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = values.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (values.size() >= maxSize) {
+            evictOne();
+        }
+        V previous = values.putIfAbsent(key, value);
+        return previous != null ? previous : value;
+    }
+
+    /**
+     * Get the cached value without computing it
+     * @param key cache key
+     * @returns cached value, or null on a miss
+     */
+    public V getIfPresent(K key) {
+        return values.get(key);
+    }
+
+    /**
+     * Store a value, replacing the cached one
+     * @param key cache key
+     * @param value value to store
+     */
+    public void put(K key, V value) {
+        if (!values.containsKey(key) && values.size() >= maxSize) {
+            evictOne();
+        }
+        values.put(key, value);
+    }
+
+    /**
+     * Store a value or combine it with the cached one
+     * @param key cache key
+     * @param value value to store when the key is absent
+     * @param remapping combines the cached value with the new one, runs under the entry lock
+     * @returns value now cached
+     */
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+        if (!values.containsKey(key) && values.size() >= maxSize) {
+            evictOne();
+        }
+        return values.merge(key, value, remapping);
+    }
+
+    public void remove(K key) {
+        values.remove(key);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void clear() {
+        values.clear();
+    }
+
+    private void evictOne() {
+        Iterator<K> iterator = values.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+}
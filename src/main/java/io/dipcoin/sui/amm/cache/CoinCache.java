@@ -0,0 +1,353 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.cache;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.ObjectRef;
+import io.dipcoin.sui.amm.model.OwnedCoin;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 10:12
+ * @Description : owned coin cache keyed by owner and coin type. Coins selected for a transaction are leased
+ * until its effects are known, so concurrent transactions of one owner never pick the same coin version.
+ * After execution the coins are put back at the versions the effects report. A type the owner received coins
+ * of is marked stale: its known coins stay usable and it is listed again only when they fall short.
+ */
+public class CoinCache {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /** (owner, coin type) -> every coin of the owner */
+    private final BiFunction<String, String, List<OwnedCoin>> loader;
+
+    public CoinCache(BiFunction<String, String, List<OwnedCoin>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Coins selected for one transaction. The first coin is the merge destination and the split source.
+     */
+    public record Lease(String owner, String type, List<OwnedCoin> coins, BigInteger amount) {
+
+        public OwnedCoin primary() {
+            return coins.getFirst();
+        }
+
+        public BigInteger balance() {
+            BigInteger balance = BigInteger.ZERO;
+            for (OwnedCoin coin : coins) {
+                balance = balance.add(coin.balance());
+            }
+            return balance;
+        }
+    }
+
+    /**
+     * Load the coins of a type unless they are cached
+     * @param owner coin owner
+     * @param type coin type
+     */
+    public void warm(String owner, String type) {
+        Entry entry = entry(owner, type);
+        entry.lock.lock();
+        try {
+            if (entry.available == null) {
+                load(entry, owner, type);
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Select coins covering an amount and take them out of the cache until the lease is settled or released
+     * @param owner coin owner
+     * @param type coin type
+     * @param amount amount the transaction needs
+     * @returns lease of the selected coins
+     * @throws AmmException if the free coins of the owner do not cover the amount
+     */
+    public Lease lease(String owner, String type, BigInteger amount) {
+        Entry entry = entry(owner, type);
+        entry.lock.lock();
+        try {
+            List<OwnedCoin> selected = select(entry, owner, type, amount);
+            entry.available.removeAll(selected);
+            for (OwnedCoin coin : selected) {
+                entry.leased.add(coin.objectId());
+            }
+            return new Lease(owner, type, selected, amount);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Select coins covering an amount without leasing them
+     * @param owner coin owner
+     * @param type coin type
+     * @param amount amount to split
+     * @returns selected coins, the first one is the merge destination
+     */
+    public List<OwnedCoin> peek(String owner, String type, BigInteger amount) {
+        Entry entry = entry(owner, type);
+        entry.lock.lock();
+        try {
+            return select(entry, owner, type, amount);
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Return leased coins that were never sent
+     * @param lease lease to release
+     */
+    public void release(Lease lease) {
+        Entry entry = entry(lease.owner(), lease.type());
+        entry.lock.lock();
+        try {
+            for (OwnedCoin coin : lease.coins()) {
+                entry.leased.remove(coin.objectId());
+            }
+            if (entry.available != null) {
+                entry.available.addAll(lease.coins());
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Settle a lease whose coins were merged into the primary coin and spent from. The merged coins are gone
+     * and the primary coin is put back at its new version with what is left.
+     * @param lease lease to settle
+     * @param primary new reference of the primary coin, null if unknown
+     * @param spent amount that left the merged coin
+     */
+    public void settle(Lease lease, ObjectRef primary, BigInteger spent) {
+        Entry entry = entry(lease.owner(), lease.type());
+        entry.lock.lock();
+        try {
+            for (OwnedCoin coin : lease.coins()) {
+                entry.leased.remove(coin.objectId());
+            }
+            if (primary == null) {
+                entry.stale = true;
+                return;
+            }
+            BigInteger remaining = lease.balance().subtract(spent);
+            if (entry.available != null && remaining.signum() > 0) {
+                entry.available.add(new OwnedCoin(primary.objectId(), primary.version(), primary.digest(), remaining));
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Settle a lease whose transaction failed in execution. Nothing was merged or spent, every coin is put
+     * back at its new version with its balance.
+     * @param lease lease to settle
+     * @param refs latest known reference by object ID
+     */
+    public void restore(Lease lease, Function<String, ObjectRef> refs) {
+        Entry entry = entry(lease.owner(), lease.type());
+        entry.lock.lock();
+        try {
+            for (OwnedCoin coin : lease.coins()) {
+                entry.leased.remove(coin.objectId());
+                ObjectRef ref = refs.apply(coin.objectId());
+                if (ref == null) {
+                    entry.stale = true;
+                } else if (entry.available != null) {
+                    entry.available.add(new OwnedCoin(ref.objectId(), ref.version(), ref.digest(), coin.balance()));
+                }
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Mark a type stale after the owner may have received coins of it. Known coins stay usable, the type is
+     * listed again once they do not cover an amount.
+     * @param owner coin owner
+     * @param type coin type
+     */
+    public void markStale(String owner, String type) {
+        Entry entry = entries.get(new Key(owner, type));
+        if (entry == null) {
+            return;
+        }
+        entry.lock.lock();
+        try {
+            entry.stale = true;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Drop the cached coins of a type, they are listed again on next use
+     * @param owner coin owner
+     * @param type coin type
+     */
+    public void invalidate(String owner, String type) {
+        Entry entry = entries.get(new Key(owner, type));
+        if (entry == null) {
+            return;
+        }
+        entry.lock.lock();
+        try {
+            entry.available = null;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * Drop the cached coins of every type of an owner, e.g. after coins were spent outside this client
+     * @param owner coin owner
+     */
+    public void invalidate(String owner) {
+        for (Key key : entries.keySet()) {
+            if (key.owner().equals(owner)) {
+                invalidate(owner, key.type());
+            }
+        }
+    }
+
+    /**
+     * Drop every cached coin, leases in flight stay excluded from reloads
+     */
+    public void clear() {
+        for (Key key : entries.keySet()) {
+            invalidate(key.owner(), key.type());
+        }
+    }
+
+    /**
+     * Pick the coins to spend: the smallest coin covering the amount on its own, otherwise the largest coins
+     * until the amount is covered, the last pick being the smallest coin that still completes it.
+     * Both keep the number of inputs minimal and leave large coins for later transactions where possible.
+     * @param coins candidate coins
+     * @param type coin type, for the error message
+     * @param amount amount to cover
+     * @returns selected coins, largest first
+     * @throws AmmException if the coins do not cover the amount
+     */
+    public static List<OwnedCoin> select(List<OwnedCoin> coins, String type, BigInteger amount) {
+        if (coins.isEmpty()) {
+            throw new AmmException("No " + type + " coins available");
+        }
+
+        OwnedCoin single = null;
+        BigInteger total = BigInteger.ZERO;
+        for (OwnedCoin coin : coins) {
+            total = total.add(coin.balance());
+            if (coin.balance().compareTo(amount) >= 0 && (single == null || coin.balance().compareTo(single.balance()) < 0)) {
+                single = coin;
+            }
+        }
+        if (single != null) {
+            return List.of(single);
+        }
+        if (total.compareTo(amount) < 0) {
+            throw new AmmException(type + " balance is not enough, current total balance: " + total);
+        }
+
+        List<OwnedCoin> sorted = new ArrayList<>(coins);
+        sorted.sort(Comparator.comparing(OwnedCoin::balance).reversed());
+        List<OwnedCoin> selected = new ArrayList<>();
+        BigInteger sum = BigInteger.ZERO;
+        for (int i = 0; ; i++) {
+            BigInteger missing = amount.subtract(sum);
+            if (sorted.get(i).balance().compareTo(missing) >= 0) {
+                // smallest remaining coin that completes the amount
+                int last = sorted.size() - 1;
+                while (sorted.get(last).balance().compareTo(missing) < 0) {
+                    last--;
+                }
+                selected.add(sorted.get(last));
+                return selected;
+            }
+            selected.add(sorted.get(i));
+            sum = sum.add(sorted.get(i).balance());
+        }
+    }
+
+    private Entry entry(String owner, String type) {
+        return entries.computeIfAbsent(new Key(owner, type), k -> new Entry());
+    }
+
+    private List<OwnedCoin> select(Entry entry, String owner, String type, BigInteger amount) {
+        if (entry.available == null) {
+            load(entry, owner, type);
+            return select(entry.available, type, amount);
+        }
+        try {
+            return select(entry.available, type, amount);
+        } catch (AmmException e) {
+            if (!entry.stale) {
+                throw e;
+            }
+        }
+        // known coins fall short, coins received since the last listing may cover it
+        load(entry, owner, type);
+        return select(entry.available, type, amount);
+    }
+
+    private void load(Entry entry, String owner, String type) {
+        List<OwnedCoin> available = new ArrayList<>();
+        for (OwnedCoin coin : loader.apply(owner, type)) {
+            // a coin in flight is still listed at its old version
+            if (!entry.leased.contains(coin.objectId())) {
+                available.add(coin);
+            }
+        }
+        entry.available = available;
+        entry.stale = false;
+    }
+
+    private record Key(String owner, String type) {}
+
+    /** Guarded by lock; a ReentrantLock so loads do not pin virtual threads */
+    private static final class Entry {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /** Free coins, null until loaded or after invalidation */
+        private List<OwnedCoin> available;
+
+        /** Object IDs of leased coins, kept across invalidation */
+        private final Set<String> leased = new HashSet<>();
+
+        /** The owner may hold coins that are not in available */
+        private boolean stale;
+    }
+
+}
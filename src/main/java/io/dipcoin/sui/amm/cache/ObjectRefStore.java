@@ -0,0 +1,73 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.cache;
+
+import io.dipcoin.sui.amm.model.ObjectRef;
+
+import java.util.Collection;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/18 09:30
+ * @Description : latest known reference of the objects our own transactions created or mutated, shared pools
+ * included, fed from transaction effects. A reference never goes back to an older version, deleted objects are removed.
+ */
+public class ObjectRefStore {
+
+    private final BoundedCache<String, ObjectRef> refs;
+
+    public ObjectRefStore(int maxSize) {
+        this.refs = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * @param objectId object ID
+     * @returns latest known reference, or null if the object is unknown
+     */
+    public ObjectRef get(String objectId) {
+        return refs.getIfPresent(objectId);
+    }
+
+    /**
+     * Record references read from effects, older versions than the known ones are ignored
+     * @param changed created and mutated objects
+     * @param deleted IDs of deleted objects
+     */
+    public void apply(Collection<ObjectRef> changed, Collection<String> deleted) {
+        for (ObjectRef ref : changed) {
+            refs.merge(ref.objectId(), ref, (old, next) -> next.version() > old.version() ? next : old);
+        }
+        for (String objectId : deleted) {
+            refs.remove(objectId);
+        }
+    }
+
+    /**
+     * Whether a reference read from chain is older than one our own effects reported, e.g. from a lagging node
+     * @param ref reference read from chain
+     * @returns true if a newer version is known
+     */
+    public boolean isStale(ObjectRef ref) {
+        ObjectRef known = refs.getIfPresent(ref.objectId());
+        return known != null && known.version() > ref.version();
+    }
+
+    public int size() {
+        return refs.size();
+    }
+
+    public void clear() {
+        refs.clear();
+    }
+
+}
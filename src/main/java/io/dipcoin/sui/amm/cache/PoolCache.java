@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.cache;
+
+import io.dipcoin.sui.amm.model.response.Pool;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/12 10:08
+ * @Description : pool state cache keyed by pool ID and object version, entries expire after the max staleness
+ */
+public class PoolCache {
+
+    private final Map<String, Entry> pools = new ConcurrentHashMap<>();
+
+    private final long maxStalenessNanos;
+
+    public PoolCache(Duration maxStaleness) {
+        if (maxStaleness == null || maxStaleness.isNegative()) {
+            throw new IllegalArgumentException("maxStaleness must not be negative");
+        }
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    /**
+     * Get a cached pool that is still within the max staleness
+     * @param poolId pool ID
+     * @returns cached pool, or null if missing, expired or invalidated
+     */
+    public Pool get(String poolId) {
+        Entry entry = pools.get(poolId);
+        if (entry == null || !entry.valid() || System.nanoTime() - entry.loadedAt() > maxStalenessNanos) {
+            return null;
+        }
+        return entry.pool();
+    }
+
+    /**
+     * Store a pool read from chain. A read never replaces a newer object version or goes below the version our
+     * own last transaction left, and a read that was requested before the last invalidation is ignored.
+     * @param pool pool read from chain, version must be set
+     * @param requestedAt System.nanoTime() taken before the read was issued
+     */
+    public void put(Pool pool, long requestedAt) {
+        long version = pool.getVersion() == null ? 0L : pool.getVersion();
+        pools.compute(pool.getId(), (id, old) -> {
+            if (old == null) {
+                return new Entry(pool, version, System.nanoTime(), true, 0L);
+            }
+            if (version < old.minVersion()
+                    || (old.pool() != null && version < old.version())
+                    // loadedAt of an invalidated entry is the time of the invalidation
+                    || ((!old.valid() || version == old.version()) && requestedAt - old.loadedAt() < 0)) {
+                return old;
+            }
+            return new Entry(pool, version, System.nanoTime(), true, old.minVersion());
+        });
+    }
+
+    /**
+     * Mark a pool as stale
+     * @param poolId pool ID
+     */
+    public void invalidate(String poolId) {
+        invalidate(poolId, 0L);
+    }
+
+    /**
+     * Mark a pool as stale after one of our own transactions mutated it, reads of older versions are never
+     * stored again
+     * @param poolId pool ID
+     * @param minVersion version the transaction left the pool at, from its effects, 0 if unknown
+     */
+    public void invalidate(String poolId, long minVersion) {
+        // a pool that is not cached yet gets a tombstone, so a read already in flight is not stored as valid
+        pools.compute(poolId, (id, old) -> old == null
+                ? new Entry(null, 0L, System.nanoTime(), false, minVersion)
+                : new Entry(old.pool(), old.version(), System.nanoTime(), false, Math.max(minVersion, old.minVersion())));
+    }
+
+    /**
+     * Drop every cached pool
+     */
+    public void clear() {
+        pools.clear();
+    }
+
+    private record Entry(Pool pool, long version, long loadedAt, boolean valid, long minVersion) {}
+
+}
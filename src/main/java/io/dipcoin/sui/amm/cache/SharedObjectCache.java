@@ -0,0 +1,100 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.cache;
+
+import io.dipcoin.sui.amm.constant.AmmNetwork;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.arg.object.ObjectArgSharedObject;
+
+import java.util.function.Function;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/22 16:00
+ * @Description : shared object arguments keyed by network, object ID and mutability. The initial shared version
+ * of an object never changes, so once it is known (e.g. from a bulk preload) the argument for either mutability
+ * is built locally; objects without a known version are resolved once per key.
+ */
+public class SharedObjectCache {
+
+    /**
+     * @param network network the object lives on
+     * @param objectId shared object ID
+     * @param mutable whether the object is used by mutable reference
+     */
+    public record Key(AmmNetwork network, String objectId, boolean mutable) {}
+
+    private record VersionKey(AmmNetwork network, String objectId) {}
+
+    private final BoundedCache<Key, CallArgObjectArg> args;
+
+    private final BoundedCache<VersionKey, Long> initialVersions;
+
+    /**
+     * @param maxSize maximum number of arguments, and of initial versions, kept
+     */
+    public SharedObjectCache(int maxSize) {
+        this.args = new BoundedCache<>(maxSize);
+        this.initialVersions = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Get the shared object argument, built from the initial shared version when known, otherwise resolved.
+     * The resolver runs outside any lock and may run more than once for the same key under contention.
+     * @param network network the object lives on
+     * @param objectId shared object ID
+     * @param mutable whether the object is used by mutable reference
+     * @param resolver reads the argument from chain on a miss, e.g. TransactionBuilder.buildSharedObject
+     * @returns shared object argument
+     */
+    public CallArgObjectArg get(AmmNetwork network, String objectId, boolean mutable, Function<String, CallArgObjectArg> resolver) {
+        return args.get(new Key(network, objectId, mutable), key -> {
+            Long version = initialVersions.getIfPresent(new VersionKey(network, objectId));
+            return version != null
+                    ? new CallArgObjectArg(new ObjectArgSharedObject(objectId, version, mutable))
+                    : resolver.apply(objectId);
+        });
+    }
+
+    /**
+     * Record the initial shared version of an object, arguments are then built without reading the chain
+     * @param network network the object lives on
+     * @param objectId shared object ID
+     * @param initialSharedVersion version at which the object became shared
+     */
+    public void putInitialVersion(AmmNetwork network, String objectId, long initialSharedVersion) {
+        initialVersions.put(new VersionKey(network, objectId), initialSharedVersion);
+    }
+
+    /**
+     * @param network network the object lives on
+     * @param objectId shared object ID
+     * @returns initial shared version, or null if unknown
+     */
+    public Long getInitialVersion(AmmNetwork network, String objectId) {
+        return initialVersions.getIfPresent(new VersionKey(network, objectId));
+    }
+
+    /**
+     * @returns number of cached arguments
+     */
+    public int size() {
+        return args.size();
+    }
+
+    public void clear() {
+        args.clear();
+        initialVersions.clear();
+    }
+
+}
@@ -13,44 +13,106 @@
 
 package io.dipcoin.sui.amm.client;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dipcoin.sui.amm.cache.BoundedCache;
+import io.dipcoin.sui.amm.cache.CoinCache;
+import io.dipcoin.sui.amm.cache.ObjectRefStore;
+import io.dipcoin.sui.amm.cache.PoolCache;
+import io.dipcoin.sui.amm.cache.SharedObjectCache;
+import io.dipcoin.sui.amm.constant.AmmNetwork;
+import io.dipcoin.sui.amm.constant.SwapConstant;
 import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.gas.GasEstimator;
+import io.dipcoin.sui.amm.gas.GasPool;
+import io.dipcoin.sui.amm.gas.GasPriceProvider;
 import io.dipcoin.sui.amm.model.AmmConfig;
+import io.dipcoin.sui.amm.model.CoinPair;
+import io.dipcoin.sui.amm.model.ObjectRef;
+import io.dipcoin.sui.amm.model.OwnedCoin;
+import io.dipcoin.sui.amm.model.PoolDelta;
+import io.dipcoin.sui.amm.model.Quote;
+import io.dipcoin.sui.amm.model.Route;
+import io.dipcoin.sui.amm.model.RouteHop;
+import io.dipcoin.sui.amm.model.request.AddLiquidityParams;
+import io.dipcoin.sui.amm.model.request.BatchIntent;
+import io.dipcoin.sui.amm.model.request.RemoveLiquidityParams;
+import io.dipcoin.sui.amm.model.request.SwapParams;
 import io.dipcoin.sui.amm.model.response.Global;
 import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.router.CycleDetector;
+import io.dipcoin.sui.amm.router.Quoter;
+import io.dipcoin.sui.amm.router.Router;
+import io.dipcoin.sui.amm.sync.CheckpointSynchronizer;
+import io.dipcoin.sui.amm.sync.CursorStore;
+import io.dipcoin.sui.amm.sync.PoolEventFollower;
+import io.dipcoin.sui.amm.utils.EffectsUtil;
+import io.dipcoin.sui.amm.utils.MathUtil;
 import io.dipcoin.sui.amm.utils.PackageUtil;
 import io.dipcoin.sui.bcs.PureBcs;
 import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
 import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
 import io.dipcoin.sui.bcs.types.arg.object.ObjectArgImmOrOwnedObject;
+import io.dipcoin.sui.bcs.types.gas.GasData;
 import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
 import io.dipcoin.sui.bcs.types.transaction.Argument;
 import io.dipcoin.sui.bcs.types.transaction.Command;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableMoveCall;
 import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
 import io.dipcoin.sui.client.CommandBuilder;
 import io.dipcoin.sui.client.QueryBuilder;
 import io.dipcoin.sui.client.TransactionBuilder;
 import io.dipcoin.sui.model.Request;
 import io.dipcoin.sui.model.coin.Coin;
+import io.dipcoin.sui.model.coin.CoinPage;
+import io.dipcoin.sui.model.event.EventId;
+import io.dipcoin.sui.model.event.EventPage;
+import io.dipcoin.sui.model.event.SuiEvent;
+import io.dipcoin.sui.model.event.filter.MoveEventModuleFilter;
+import io.dipcoin.sui.model.extended.DynamicFieldInfo;
 import io.dipcoin.sui.model.extended.DynamicFieldName;
+import io.dipcoin.sui.model.extended.DynamicFieldPage;
 import io.dipcoin.sui.model.move.kind.MoveValue;
 import io.dipcoin.sui.model.move.kind.data.MoveObject;
 import io.dipcoin.sui.model.move.kind.struct.MoveStructMap;
 import io.dipcoin.sui.model.move.kind.struct.MoveStructObject;
+import io.dipcoin.sui.model.object.GetPastObjectRequest;
 import io.dipcoin.sui.model.object.ObjectData;
 import io.dipcoin.sui.model.object.ObjectDataOptions;
 import io.dipcoin.sui.model.object.SuiObjectResponse;
+import io.dipcoin.sui.model.object.SuiPastObjectResponse;
+import io.dipcoin.sui.model.system.SuiSystemStateSummary;
+import io.dipcoin.sui.model.transaction.DryRunTransactionBlockResponse;
+import io.dipcoin.sui.model.transaction.ObjectChange;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.model.transaction.TransactionBlockEffects;
+import io.dipcoin.sui.model.transaction.TransactionBlockResponseOptions;
 import io.dipcoin.sui.protocol.SuiClient;
+import io.dipcoin.sui.protocol.http.request.GetCoins;
 import io.dipcoin.sui.protocol.http.request.GetDynamicFieldObject;
+import io.dipcoin.sui.protocol.http.request.GetDynamicFields;
+import io.dipcoin.sui.protocol.http.request.QueryEvents;
 import io.dipcoin.sui.protocol.http.response.SuiObjectResponseWrapper;
 import io.dipcoin.sui.pyth.exception.PythException;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 /**
  * @author : Same
@@ -59,14 +121,139 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public abstract class AbstractOnChainClient {
 
-    private final static Map<String, CallArgObjectArg> AMM_SHARED = new ConcurrentHashMap<>();
+    private final static Executor VIRTUAL_THREADS = Executors.newVirtualThreadPerTaskExecutor();
 
     protected final static String MODULE = "router";
 
+    // sui_multiGetObjects accepts at most 50 object IDs per request
+    protected final static int MULTI_GET_LIMIT = 50;
+
+    private final static String VERSION_FOUND = "VersionFound";
+
+    protected final static int OBJECT_REF_STORE_SIZE = 65536;
+
+    protected final static int GAS_SHAPE_CACHE_SIZE = 4096;
+
+    protected final static int SHARED_OBJECT_CACHE_SIZE = 4096;
+
+    protected final static int SWAP_TEMPLATE_CACHE_SIZE = 4096;
+
+    private final static ObjectMapper MAPPER = new ObjectMapper();
+
     protected SuiClient suiClient;
 
+    protected AmmNetwork ammNetwork;
+
     protected AmmConfig ammConfig;
 
+    protected volatile PoolCache poolCache;
+
+    protected volatile Executor executor = VIRTUAL_THREADS;
+
+    // latest object references seen in the effects of our own transactions
+    protected final ObjectRefStore objectRefs = new ObjectRefStore(OBJECT_REF_STORE_SIZE);
+
+    // shared object arguments per network, object ID and mutability
+    protected final SharedObjectCache sharedObjects = new SharedObjectCache(SHARED_OBJECT_CACHE_SIZE);
+
+    // swap call skeletons per pool, direction and exact side
+    private final BoundedCache<SwapTemplate.Key, SwapTemplate> swapTemplates = new BoundedCache<>(SWAP_TEMPLATE_CACHE_SIZE);
+
+    // owned coins per (owner, coin type), updated from the effects of our own transactions
+    protected final CoinCache coinCache = new CoinCache(this::loadCoins);
+
+    // gas coins per sender for parallel submissions, see prepareGasPool
+    protected final GasPool gasPool = new GasPool(SwapConstant.DEFAULT_GAS_LEASE_TIMEOUT);
+
+    // reference gas price per epoch, for the write overloads without a gas price; refreshes run on the client
+    // executor, read when they start so setExecutor applies
+    protected final GasPriceProvider gasPriceProvider = new GasPriceProvider(this::loadEpochGasPrice, task -> executor.execute(task));
+
+    protected volatile GasEstimator gasEstimator;
+
+    // LP name -> pool ID, registered pairs never change
+    private final Map<String, String> poolIds = new ConcurrentHashMap<>();
+
+    // ------------------------- pool cache -------------------------
+
+    /**
+     * Enable the pool state cache used by the write API, disabled by default
+     * @param maxStaleness how long a pool read may be reused before it is fetched again
+     */
+    public void enablePoolCache(Duration maxStaleness) {
+        this.poolCache = new PoolCache(maxStaleness);
+    }
+
+    /**
+     * Disable the pool state cache, every write reads the pool from chain again
+     */
+    public void disablePoolCache() {
+        this.poolCache = null;
+    }
+
+    /**
+     * Read the pool from chain and replace the cached state
+     * @param poolId The ID of the pool to refresh
+     * @returns Pool information response
+     */
+    public Pool refreshPool(String poolId) {
+        PoolCache cache = this.poolCache;
+        if (cache != null) {
+            cache.invalidate(poolId);
+        }
+        return getPool(poolId);
+    }
+
+    /**
+     * Get pool state from the cache when enabled and still fresh, otherwise from chain
+     * @param poolId The ID of the pool to query
+     * @returns Pool information response
+     */
+    protected Pool getCachedPool(String poolId) {
+        PoolCache cache = this.poolCache;
+        if (cache != null) {
+            Pool pool = cache.get(poolId);
+            if (pool != null) {
+                return pool;
+            }
+        }
+        return getPool(poolId);
+    }
+
+    /**
+     * Get the state of many pools, fresh cached pools are reused and the rest are read in bulk
+     * @param poolIds The IDs of the pools to query
+     * @returns Pool information keyed by pool ID, pools that do not exist are left out
+     */
+    protected Map<String, Pool> getCachedPools(Collection<String> poolIds) {
+        Map<String, Pool> pools = new HashMap<>(poolIds.size() * 2);
+        List<String> missing = new ArrayList<>();
+        PoolCache cache = this.poolCache;
+        for (String poolId : poolIds) {
+            Pool pool = cache == null ? null : cache.get(poolId);
+            if (pool != null) {
+                pools.put(poolId, pool);
+            } else {
+                missing.add(poolId);
+            }
+        }
+        pools.putAll(getPools(missing));
+        return pools;
+    }
+
+    /**
+     * Mark the cached pool stale after a transaction of ours touched it. Call after the effects are recorded,
+     * reads older than the pool version they report are not cached again.
+     * @param poolId pool ID
+     */
+    protected void invalidatePool(String poolId) {
+        PoolCache cache = this.poolCache;
+        if (cache != null) {
+            ObjectRef ref = objectRefs.get(poolId);
+            cache.invalidate(poolId, ref == null ? 0L : ref.version());
+        }
+    }
+
     // ------------------------- split coin -------------------------
 
     /**
@@ -77,57 +264,43 @@ public abstract class AbstractOnChainClient {
      * @returns ProgrammableTransaction index
      */
     public int splitCoin(ProgrammableTransaction programmableTx, String owner, String type, BigInteger amount) {
-        // Query available coins of specified type
-        List<Coin> coinList = QueryBuilder.getCoins(suiClient, owner, type);
-        if (coinList == null || coinList.isEmpty()) {
-            throw new AmmException("No " + type + " coins available");
-        }
-
-        // Select and accumulate coins until target amount is reached
-        AtomicReference<BigInteger> balanceOf = new AtomicReference<>(BigInteger.ZERO);
-        List<Coin> selected = new ArrayList<>(coinList.size());
-        for (Coin coin : coinList) {
-            BigInteger balance = coin.getBalance();
-            BigInteger tmpAmount = balanceOf.get().multiply(balance);
-            balanceOf.set(tmpAmount);
-            selected.add(coin);
-            if (tmpAmount.compareTo(amount) >= 0) {
-                break;
-            }
-        }
+        List<OwnedCoin> selected = coinCache.peek(owner, type, amount);
+        // the caller sends this transaction, so its effects never reach the cache
+        coinCache.invalidate(owner, type);
+        return splitCoin(programmableTx, amount, selected);
+    }
 
-        int size = selected.size();
-        BigInteger totalAmount = balanceOf.get();
-        if (balanceOf.get().compareTo(totalAmount) < 0) {
-            throw new AmmException(type + " balance is not enough, current total balance: " + totalAmount);
-        }
+    /**
+     * Merge the selected coins into the first one and split a specified amount from it
+     * @param programmableTx
+     * @param amount The amount to split
+     * @param selected selected coins, see CoinCache.select
+     * @returns ProgrammableTransaction index
+     */
+    protected int splitCoin(ProgrammableTransaction programmableTx, BigInteger amount, List<OwnedCoin> selected) {
+        Argument primary = ownedInput(programmableTx, selected.getFirst());
 
         // Merge multiple coins if necessary
-        Coin first = coinList.getFirst();
-        String objectId = first.getCoinObjectId();
-        long version = first.getVersion();
-        String digest = first.getDigest();
-        if (size > 1) {
-            List<Argument> sources = new ArrayList<>(size - 1);
-            coinList.removeFirst();
-            for (Coin coin : coinList) {
-                String dataObjectId = coin.getCoinObjectId();
-                sources.add(Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(new SuiObjectRef(
-                        dataObjectId, coin.getVersion(), coin.getDigest()))))));
-            }
-            Command.MergeCoins mergeCoins = new Command.MergeCoins(Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(new SuiObjectRef(
-                    objectId, version, digest))))), sources);
-            programmableTx.addCommand(mergeCoins);
+        if (selected.size() > 1) {
+            List<Argument> sources = new ArrayList<>(selected.size() - 1);
+            for (OwnedCoin coin : selected.subList(1, selected.size())) {
+                sources.add(ownedInput(programmableTx, coin));
+            }
+            programmableTx.addCommand(new Command.MergeCoins(primary, sources));
         }
         programmableTx.addCommand(
                 CommandBuilder.splitCoins(
-                        Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(new SuiObjectRef(
-                                objectId, version, digest))))),
+                        primary,
                         List.of(Argument.ofInput(programmableTx.addInput(
                                 new CallArgPure(amount.longValue(), PureBcs.BasePureType.U64))))));
         return programmableTx.getCommandsSize() - 1;
     }
 
+    private static Argument ownedInput(ProgrammableTransaction programmableTx, OwnedCoin coin) {
+        return Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(new SuiObjectRef(
+                coin.objectId(), coin.version(), coin.digest())))));
+    }
+
     /**
      * Split a specified amount of coins from the owner's balance
      * @param programmableTx
@@ -142,6 +315,713 @@ public abstract class AbstractOnChainClient {
         return programmableTx.getCommandsSize() - 1;
     }
 
+    /**
+     * Drop the cached coins of an owner, e.g. after they were spent outside this client
+     * @param owner coin owner
+     */
+    public void invalidateCoins(String owner) {
+        coinCache.invalidate(owner);
+    }
+
+    /**
+     * Latest reference of an object as reported by the effects of this client's own transactions
+     * @param objectId object ID
+     * @returns object reference, or null if no transaction of this client created or mutated it
+     */
+    public ObjectRef getObjectRef(String objectId) {
+        return objectRefs.get(objectId);
+    }
+
+    /**
+     * Read every coin of a type the owner has, page by page. Coins listed at an older version than our own
+     * effects reported are left out, their balance at the newer version is unknown.
+     * @param owner coin owner
+     * @param type coin type
+     * @returns owned coins
+     */
+    protected List<OwnedCoin> loadCoins(String owner, String type) {
+        List<OwnedCoin> coins = new ArrayList<>();
+        String cursor = null;
+        do {
+            GetCoins data = new GetCoins();
+            data.setOwner(owner);
+            data.setCoinType(type);
+            data.setCursor(cursor);
+            data.setLimit(MULTI_GET_LIMIT);
+            CoinPage page;
+            try {
+                page = suiClient.getCoins(data).send().getResult();
+            } catch (IOException e) {
+                throw new AmmException("getCoins failed!", e);
+            }
+            for (Coin coin : page.getData()) {
+                if (!objectRefs.isStale(new ObjectRef(coin.getCoinObjectId(), coin.getVersion(), coin.getDigest()))) {
+                    coins.add(new OwnedCoin(coin.getCoinObjectId(), coin.getVersion(), coin.getDigest(), coin.getBalance()));
+                }
+            }
+            cursor = page.isHasNextPage() ? page.getNextCursor() : null;
+        } while (cursor != null);
+        return coins;
+    }
+
+    // ------------------------- gas pool -------------------------
+
+    /**
+     * Add SUI coins of a sender to its gas pool. Once a sender has a pool, every transaction of the sender
+     * pays gas with a leased pool coin, so up to one transaction per coin can be in flight.
+     * @param sender gas owner
+     * @param coins SUI coins of the sender not used by anything else
+     */
+    public void addGasCoins(String sender, Collection<OwnedCoin> coins) {
+        gasPool.add(sender, coins);
+    }
+
+    /**
+     * Stop pooling the gas coins of a sender, gas coins are selected by the node again
+     * @param sender gas owner
+     */
+    public void removeGasPool(String sender) {
+        gasPool.remove(sender);
+    }
+
+    /**
+     * @param sender gas owner
+     * @returns number of pooled gas coins of the sender not in flight
+     */
+    public int getIdleGasCoins(String sender) {
+        return gasPool.idleCount(sender);
+    }
+
+    /**
+     * How long a transaction waits for a gas coin while every pooled coin of its sender is in flight
+     * @param leaseTimeout wait limit, see SwapConstant.DEFAULT_GAS_LEASE_TIMEOUT
+     */
+    public void setGasLeaseTimeout(Duration leaseTimeout) {
+        gasPool.setLeaseTimeout(leaseTimeout);
+    }
+
+    /**
+     * Provider of the gas price used by the write overloads without a gas price, e.g. to set a multiplier
+     * @returns gas price provider
+     */
+    public GasPriceProvider getGasPriceProvider() {
+        return gasPriceProvider;
+    }
+
+    /**
+     * Read the reference gas price and the timing of the current epoch
+     * @returns epoch gas price
+     */
+    protected GasPriceProvider.EpochGasPrice loadEpochGasPrice() {
+        SuiSystemStateSummary state;
+        try {
+            state = suiClient.getLatestSuiSystemState().send().getResult();
+        } catch (IOException e) {
+            throw new AmmException("getLatestSuiSystemState failed!", e);
+        }
+        return new GasPriceProvider.EpochGasPrice(state.getEpoch(), state.getReferenceGasPrice(),
+                state.getEpochStartTimestampMs() + state.getEpochDurationMs());
+    }
+
+    protected static void validateGasPool(int count, BigInteger amount) {
+        if (count < 1) {
+            throw new AmmException("count must be at least 1");
+        }
+        MathUtil.validateAmount(amount);
+    }
+
+    /**
+     * Add the coins created by a prepareGasPool transaction to the sender's gas pool
+     * @param sender gas owner
+     * @param response response of the split transaction
+     * @param amount balance of each created coin
+     * @returns pooled coins
+     */
+    protected List<OwnedCoin> registerGasCoins(String sender, SuiTransactionBlockResponse response, BigInteger amount) {
+        if (!EffectsUtil.isSuccess(response)) {
+            throw new AmmException("Failed to split gas coins for " + sender);
+        }
+        List<OwnedCoin> coins = new ArrayList<>();
+        for (ObjectRef ref : EffectsUtil.createdRefs(response).values()) {
+            coins.add(new OwnedCoin(ref.objectId(), ref.version(), ref.digest(), amount));
+        }
+        gasPool.add(sender, coins);
+        return coins;
+    }
+
+    // ------------------------- gas estimation -------------------------
+
+    /**
+     * Enable gas budget estimation for the write API, disabled by default. The gasBudget passed to a write
+     * method becomes the upper bound, the transaction is budgeted at its dry-run cost times the margin.
+     * One dry run is made per transaction shape, see GasEstimator.
+     * @param margin safety margin on the dry-run cost, at least 1.0
+     */
+    public void enableGasEstimation(double margin) {
+        this.gasEstimator = new GasEstimator(margin, GAS_SHAPE_CACHE_SIZE);
+    }
+
+    /**
+     * Enable gas budget estimation with the default margin
+     */
+    public void enableGasEstimation() {
+        enableGasEstimation(SwapConstant.DEFAULT_GAS_BUDGET_MARGIN);
+    }
+
+    /**
+     * Disable gas budget estimation, every transaction is budgeted at the gasBudget passed in
+     */
+    public void disableGasEstimation() {
+        this.gasEstimator = null;
+    }
+
+    /**
+     * @returns gas estimator, null if estimation is disabled
+     */
+    public GasEstimator getGasEstimator() {
+        return gasEstimator;
+    }
+
+    /**
+     * Dry-run a programmable transaction and derive its gas budget, without the shape cache
+     * @param programmableTx transaction to estimate
+     * @param sender transaction sender
+     * @param gasPrice gas price
+     * @param maxBudget gas budget of the dry run
+     * @param margin safety margin on the dry-run cost, at least 1.0
+     * @returns gas budget
+     */
+    public BigInteger estimateGasBudget(ProgrammableTransaction programmableTx, String sender, long gasPrice, BigInteger maxBudget, double margin) {
+        return GasEstimator.budget(dryRun(programmableTx, sender, gasPrice, maxBudget), margin);
+    }
+
+    /**
+     * Gas budget of a built transaction: the estimate capped at gasBudget if estimation is enabled,
+     * gasBudget otherwise
+     * @param context finished transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns gas budget to pay
+     */
+    BigInteger gasBudget(TransactionContext context, long gasPrice, BigInteger gasBudget) {
+        GasEstimator estimator = this.gasEstimator;
+        if (estimator == null) {
+            return gasBudget;
+        }
+        return estimator.estimate(context.getShape(), gasPrice,
+                () -> dryRun(context.finish(), context.getSender(), gasPrice, gasBudget)).min(gasBudget);
+    }
+
+    /**
+     * Dry-run a transaction. No gas coin is given, the node pays the dry run with a mock gas coin, so nothing
+     * has to be leased before the budget is known.
+     * @param programmableTx transaction to dry-run
+     * @param sender transaction sender
+     * @param gasPrice gas price
+     * @param gasBudget gas budget of the dry run
+     * @returns gross gas cost
+     * @throws AmmException if the dry run fails, e.g. a slippage check aborts
+     */
+    protected GasEstimator.GasCost dryRun(ProgrammableTransaction programmableTx, String sender, long gasPrice, BigInteger gasBudget) {
+        DryRunTransactionBlockResponse response;
+        try {
+            String txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender,
+                    new GasData(List.of(), sender, gasPrice, gasBudget.longValue()));
+            response = suiClient.dryRunTransactionBlock(txBytes).send().getResult();
+        } catch (IOException e) {
+            throw new AmmException("dryRunTransactionBlock failed!", e);
+        }
+        TransactionBlockEffects effects = response == null ? null : response.getEffects();
+        if (!EffectsUtil.isSuccess(effects)) {
+            throw new AmmException("Dry run failed: " + EffectsUtil.error(effects));
+        }
+        return EffectsUtil.gasCost(effects);
+    }
+
+    // ------------------------- transaction build -------------------------
+
+    /**
+     * Build a single-operation transaction, coins leased while appending are released if building fails
+     * @param sender owner of the coins
+     * @param appender appends the commands
+     * @returns finished context
+     */
+    TransactionContext build(String sender, Consumer<TransactionContext> appender) {
+        TransactionContext context = TransactionContext.direct(this, sender);
+        try {
+            appender.accept(context);
+            context.finish();
+        } catch (RuntimeException e) {
+            context.release();
+            throw e;
+        }
+        return context;
+    }
+
+    /**
+     * Append the coin splits and the router add_liquidity call to a transaction
+     * @param context transaction under construction
+     * @param params Parameters for adding liquidity
+     * @param pool current pool state
+     * @returns command index of the move call
+     */
+    int appendAddLiquidity(TransactionContext context, AddLiquidityParams params, Pool pool) {
+        BigInteger slippage = params.getSlippage();
+
+        // Sort token types and determine swap direction
+        CoinPair pair = PackageUtil.getCoinPair(params.getTypeX(), params.getTypeY());
+        String typeX = pair.typeX();
+        String typeY = pair.typeY();
+        boolean isSwap = pair.reversed();
+        BigInteger amountX = isSwap ? params.getAmountY() : params.getAmountX();
+        BigInteger amountY = isSwap ? params.getAmountX() : params.getAmountY();
+        BigInteger balX = pool.getBalX();
+        BigInteger balY = pool.getBalY();
+
+        BigInteger[] calcOptimalCoinValues = MathUtil.calcOptimalCoinValues(amountX, amountY, balX, balY);
+        BigInteger coinXDesired = calcOptimalCoinValues[0];
+        BigInteger coinYDesired = calcOptimalCoinValues[1];
+        BigInteger expectedLp = MathUtil.getExpectedLiquidityAmount(coinXDesired, coinYDesired, balX, balY, pool.getLpSupply());
+
+        BigInteger minAddLiquidityLpAmount = pool.getMinAddLiquidityLpAmount();
+        if (expectedLp.compareTo(minAddLiquidityLpAmount) < 0) {
+            throw new AmmException("add liquidity too little, expectedLp: " + expectedLp + " is less than min_add_liquidity_lp_amount: " + minAddLiquidityLpAmount);
+        }
+
+        BigInteger coinXMin = MathUtil.getSlippageAmount(coinXDesired, slippage);
+        BigInteger coinYMin = MathUtil.getSlippageAmount(coinYDesired, slippage);
+
+        // Split coins
+        Argument coinX = context.coin(typeX, amountX);
+        Argument coinY = context.coin(typeY, amountY);
+        // the unused part of either coin is refunded
+        context.receive(typeX);
+        context.receive(typeY);
+        context.receive(pair.lpType(ammConfig.packageId()));
+
+        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
+                ammConfig.packageId(),
+                MODULE,
+                SwapConstant.ADD_LIQUIDITY,
+                PackageUtil.getTypeTags(pair),
+                Arrays.asList(
+                        context.shared(this.ammConfig.globalId(), false),
+                        context.shared(params.getPoolId(), true),
+                        coinX,
+                        context.pure(coinXMin),
+                        coinY,
+                        context.pure(coinYMin)
+                )
+        );
+        return context.call(SwapConstant.ADD_LIQUIDITY, pair, moveCall);
+    }
+
+    /**
+     * Append the LP coin split and the router remove_liquidity call to a transaction
+     * @param context transaction under construction
+     * @param params Parameters for removing liquidity
+     * @param pool current pool state
+     * @returns command index of the move call
+     */
+    int appendRemoveLiquidity(TransactionContext context, RemoveLiquidityParams params, Pool pool) {
+        BigInteger removeLpAmount = params.getRemoveLpAmount();
+        BigInteger slippage = params.getSlippage();
+
+        // Get LP token type based on sorted token types
+        CoinPair pair = PackageUtil.getCoinPair(params.getTypeX(), params.getTypeY());
+
+        BigInteger minRemoveLiquidityLpAmount = pool.getMinAddLiquidityLpAmount().divide(BigInteger.TEN);
+        if (removeLpAmount.compareTo(minRemoveLiquidityLpAmount) < 0) {
+            throw new AmmException("removeLpAmount: " + removeLpAmount + " is less than min_remove_liquidity_lp_amount: " + minRemoveLiquidityLpAmount);
+        }
+
+        Argument lpCoin = context.coin(pair.lpType(ammConfig.packageId()), removeLpAmount);
+        context.receive(pair.typeX());
+        context.receive(pair.typeY());
+        BigInteger balX = pool.getBalX();
+        BigInteger balY = pool.getBalY();
+        BigInteger lpSupply = pool.getLpSupply();
+        BigInteger coinXOut = MathUtil.mulDiv(balX, removeLpAmount, lpSupply);
+        BigInteger coinYOut = MathUtil.mulDiv(balY, removeLpAmount, lpSupply);
+        BigInteger coinXMin = MathUtil.getSlippageAmount(coinXOut, slippage);
+        BigInteger coinYMin = MathUtil.getSlippageAmount(coinYOut, slippage);
+
+        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
+                ammConfig.packageId(),
+                MODULE,
+                SwapConstant.REMOVE_LIQUIDITY,
+                PackageUtil.getTypeTags(pair),
+                Arrays.asList(
+                        context.shared(this.ammConfig.globalId(), false),
+                        context.shared(params.getPoolId(), true),
+                        lpCoin,
+                        context.pure(removeLpAmount),
+                        context.pure(coinXMin),
+                        context.pure(coinYMin)
+                )
+        );
+        return context.call(SwapConstant.REMOVE_LIQUIDITY, pair, moveCall);
+    }
+
+    /**
+     * Append the input coin split and the router swap_exact_x_to_y / swap_exact_y_to_x call to a transaction
+     * @param context transaction under construction
+     * @param params Swap parameters including amountIn and optional slippage
+     * @param pool current pool state
+     * @returns command index of the move call
+     */
+    int appendSwapExactXToY(TransactionContext context, SwapParams params, Pool pool) {
+        BigInteger amountIn = params.getAmountIn();
+
+        // Ordered pair, function name and type tags come from the pool's template
+        SwapTemplate template = getSwapTemplate(params.getPoolId(), params.getTypeX(), params.getTypeY(), true);
+        boolean isSwap = template.reversed();
+        BigInteger balanceX = isSwap ? pool.getBalY() : pool.getBalX();
+        BigInteger balanceY = isSwap ? pool.getBalX() : pool.getBalY();
+        BigInteger amountOut = MathUtil.getAmountOut(pool.getFeeRate(), amountIn, balanceX, balanceY);
+
+        BigInteger amountOutMin = MathUtil.getSlippageAmount(amountOut, params.getSlippage());
+        return template.append(context, amountIn, amountOutMin);
+    }
+
+    /**
+     * Append the input coin split and the router swap_x_to_exact_y / swap_y_to_exact_x call to a transaction
+     * @param context transaction under construction
+     * @param params Swap parameters including amountOut and optional slippage
+     * @param pool current pool state
+     * @returns command index of the move call
+     */
+    int appendSwapXToExactY(TransactionContext context, SwapParams params, Pool pool) {
+        BigInteger slippage = params.getSlippage();
+
+        // Ordered pair, function name and type tags come from the pool's template
+        SwapTemplate template = getSwapTemplate(params.getPoolId(), params.getTypeX(), params.getTypeY(), false);
+        boolean isSwap = template.reversed();
+        BigInteger balanceX = isSwap ? pool.getBalY() : pool.getBalX();
+        BigInteger balanceY = isSwap ? pool.getBalX() : pool.getBalY();
+        BigInteger amountIn = MathUtil.getAmountIn(pool.getFeeRate(), params.getAmountOut(), balanceX, balanceY);
+
+        BigInteger amountInMax = MathUtil.getMaxAmountIn(amountIn, slippage);
+        return template.append(context, amountInMax, params.getAmountOut());
+    }
+
+    /**
+     * Constant part of a swap call on a pool, built on first use without I/O
+     * @param poolId pool ID
+     * @param typeIn coin type paid in
+     * @param typeOut coin type received
+     * @param exactIn exact input when true, exact output otherwise
+     * @returns swap template
+     */
+    SwapTemplate getSwapTemplate(String poolId, String typeIn, String typeOut, boolean exactIn) {
+        return swapTemplates.get(new SwapTemplate.Key(poolId, typeIn, typeOut, exactIn),
+                key -> new SwapTemplate(ammConfig.packageId(), ammConfig.globalId(), key));
+    }
+
+    /**
+     * Append every hop of a route to a transaction, hops execute in order within the one transaction.
+     * Router calls transfer their output to the sender instead of returning it, and the package has no swap
+     * entry that returns the output coin, so a hop cannot consume the coin of the previous hop. Each later hop
+     * is funded from the sender's balance of its input coin instead, sized to what the previous hop is
+     * guaranteed to return, and that return replaces it. The sender therefore needs a balance of every
+     * intermediate coin, which is checked before anything is appended; SUI is taken from the gas coin.
+     * @param context transaction under construction
+     * @param route route found by Router
+     * @param slippage slippage tolerance applied to every hop
+     * @throws AmmException if the sender's coins do not cover an intermediate hop
+     */
+    void appendRoute(TransactionContext context, Route route, BigInteger slippage) {
+        List<RouteHop> hops = route.hops();
+        // what each hop pays in: exact for an exact-in route, the most it may take for an exact-out route
+        BigInteger[] amountIns = new BigInteger[hops.size()];
+        BigInteger[] amountOuts = new BigInteger[hops.size()];
+        if (route.exactIn()) {
+            BigInteger amountIn = route.amountIn();
+            for (int i = 0; i < hops.size(); i++) {
+                amountIns[i] = amountIn;
+                // the next hop pays in the least this hop may return
+                amountIn = MathUtil.getSlippageAmount(quoteOut(hops.get(i), amountIn), slippage);
+            }
+        } else {
+            // Walk back from the fixed output, each hop must return the most the next hop may take
+            BigInteger amountOut = route.amountOut();
+            for (int i = hops.size() - 1; i >= 0; i--) {
+                amountOuts[i] = amountOut;
+                BigInteger amountIn = quoteIn(hops.get(i), amountOut);
+                amountOut = MathUtil.getMaxAmountIn(amountIn, slippage);
+                amountIns[i] = amountOut;
+            }
+        }
+        checkIntermediateBalances(context.getSender(), hops, amountIns);
+
+        for (int i = 0; i < hops.size(); i++) {
+            RouteHop hop = hops.get(i);
+            SwapParams params = hopParams(hop, slippage);
+            if (route.exactIn()) {
+                params.setAmountIn(amountIns[i]);
+                appendSwapExactXToY(context, params, hop.pool());
+            } else {
+                params.setAmountOut(amountOuts[i]);
+                appendSwapXToExactY(context, params, hop.pool());
+            }
+        }
+    }
+
+    /**
+     * Fail before building when the sender cannot fund a later hop of a route from its own coins
+     * @param sender owner of the coins
+     * @param hops route hops
+     * @param amountIns amount each hop pays in
+     */
+    private void checkIntermediateBalances(String sender, List<RouteHop> hops, BigInteger[] amountIns) {
+        // hops paying in the same coin type draw on the same coins
+        Map<String, BigInteger> totals = new HashMap<>();
+        for (int i = 0; i < hops.size(); i++) {
+            totals.merge(hops.get(i).typeIn(), amountIns[i], BigInteger::add);
+        }
+        for (int i = 1; i < hops.size(); i++) {
+            String type = hops.get(i).typeIn();
+            if (SwapConstant.COIN_TYPE_SUI.equals(type)) {
+                continue;
+            }
+            try {
+                coinCache.peek(sender, type, totals.get(type));
+            } catch (AmmException e) {
+                throw new AmmException("Route hop " + (i + 1) + " pays up to " + amountIns[i] + " of " + type
+                        + " from the sender's own coins, hops do not pass coins to each other: " + e.getMessage());
+            }
+        }
+    }
+
+    protected static List<String> routePoolIds(Route route) {
+        return route.hops().stream().map(hop -> hop.pool().getId()).toList();
+    }
+
+    private static SwapParams hopParams(RouteHop hop, BigInteger slippage) {
+        SwapParams params = new SwapParams();
+        params.setPoolId(hop.pool().getId());
+        params.setTypeX(hop.typeIn());
+        params.setTypeY(hop.typeOut());
+        params.setSlippage(slippage);
+        return params;
+    }
+
+    private static BigInteger quoteOut(RouteHop hop, BigInteger amountIn) {
+        Pool pool = hop.pool();
+        boolean isSwap = PackageUtil.getCoinPair(hop.typeIn(), hop.typeOut()).reversed();
+        return MathUtil.getAmountOut(pool.getFeeRate(), amountIn, isSwap ? pool.getBalY() : pool.getBalX(), isSwap ? pool.getBalX() : pool.getBalY());
+    }
+
+    private static BigInteger quoteIn(RouteHop hop, BigInteger amountOut) {
+        Pool pool = hop.pool();
+        boolean isSwap = PackageUtil.getCoinPair(hop.typeIn(), hop.typeOut()).reversed();
+        return MathUtil.getAmountIn(pool.getFeeRate(), amountOut, isSwap ? pool.getBalY() : pool.getBalX(), isSwap ? pool.getBalX() : pool.getBalY());
+    }
+
+    /**
+     * Compose many intents of one sender into one transaction. The global object and every pool become inputs
+     * once, the coins of each type are merged once and all splits of a type share one SplitCoins command.
+     * Each intent is quoted against the pool state left by the earlier intents of the batch.
+     * @param intents operations in execution order
+     * @param sender owner of the coins
+     * @param pools pool state keyed by pool ID
+     * @returns finished context, call indexes follow the intent order
+     */
+    TransactionContext appendBatch(List<BatchIntent> intents, String sender, Map<String, Pool> pools) {
+        // A first pass sums the splits per coin type, coins covering the totals are leased for the second
+        TransactionContext plan = TransactionContext.plan(this, sender);
+        appendIntents(plan, intents, pools);
+        TransactionContext context = TransactionContext.batch(this, sender, plan.getSplitTotals());
+        try {
+            appendIntents(context, intents, pools);
+            context.finish();
+        } catch (RuntimeException e) {
+            context.release();
+            throw e;
+        }
+        return context;
+    }
+
+    private void appendIntents(TransactionContext context, List<BatchIntent> intents, Map<String, Pool> pools) {
+        // per-batch pool states, each intent moves its pool by its quoted amounts before the next one is quoted
+        Map<String, Pool> states = new HashMap<>(pools);
+        for (BatchIntent intent : intents) {
+            Pool pool = states.get(intent.poolId());
+            if (pool == null) {
+                throw new AmmException("Pool not found: " + intent.poolId());
+            }
+            switch (intent) {
+                case BatchIntent.AddLiquidity add -> appendAddLiquidity(context, add.params(), pool);
+                case BatchIntent.RemoveLiquidity remove -> appendRemoveLiquidity(context, remove.params(), pool);
+                case BatchIntent.SwapExactIn swap -> appendSwapExactXToY(context, swap.params(), pool);
+                case BatchIntent.SwapExactOut swap -> appendSwapXToExactY(context, swap.params(), pool);
+            }
+            states.put(intent.poolId(), intentDelta(intent, pool).applyTo(pool));
+        }
+    }
+
+    /**
+     * Expected change of a pool's reserves and LP supply from one intent, quoted the same way the intent's call is
+     * @param intent batch operation
+     * @param pool pool state the intent is quoted against
+     * @returns delta in the pool's BCS-sorted coin order
+     */
+    static PoolDelta intentDelta(BatchIntent intent, Pool pool) {
+        return switch (intent) {
+            case BatchIntent.AddLiquidity add -> {
+                AddLiquidityParams params = add.params();
+                boolean isSwap = PackageUtil.getCoinPair(params.getTypeX(), params.getTypeY()).reversed();
+                BigInteger[] optimal = MathUtil.calcOptimalCoinValues(isSwap ? params.getAmountY() : params.getAmountX(),
+                        isSwap ? params.getAmountX() : params.getAmountY(), pool.getBalX(), pool.getBalY());
+                BigInteger lp = MathUtil.getExpectedLiquidityAmount(optimal[0], optimal[1], pool.getBalX(), pool.getBalY(), pool.getLpSupply());
+                yield new PoolDelta(pool.getId(), optimal[0], optimal[1], lp);
+            }
+            case BatchIntent.RemoveLiquidity remove -> {
+                BigInteger lp = remove.params().getRemoveLpAmount();
+                yield new PoolDelta(pool.getId(),
+                        MathUtil.mulDiv(pool.getBalX(), lp, pool.getLpSupply()).negate(),
+                        MathUtil.mulDiv(pool.getBalY(), lp, pool.getLpSupply()).negate(),
+                        lp.negate());
+            }
+            case BatchIntent.SwapExactIn swap -> {
+                SwapParams params = swap.params();
+                boolean isSwap = PackageUtil.getCoinPair(params.getTypeX(), params.getTypeY()).reversed();
+                BigInteger amountOut = MathUtil.getAmountOut(pool.getFeeRate(), params.getAmountIn(),
+                        isSwap ? pool.getBalY() : pool.getBalX(), isSwap ? pool.getBalX() : pool.getBalY());
+                yield swapDelta(pool.getId(), isSwap, params.getAmountIn(), amountOut);
+            }
+            case BatchIntent.SwapExactOut swap -> {
+                SwapParams params = swap.params();
+                boolean isSwap = PackageUtil.getCoinPair(params.getTypeX(), params.getTypeY()).reversed();
+                BigInteger amountIn = MathUtil.getAmountIn(pool.getFeeRate(), params.getAmountOut(),
+                        isSwap ? pool.getBalY() : pool.getBalX(), isSwap ? pool.getBalX() : pool.getBalY());
+                yield swapDelta(pool.getId(), isSwap, amountIn, params.getAmountOut());
+            }
+        };
+    }
+
+    private static PoolDelta swapDelta(String poolId, boolean isSwap, BigInteger amountIn, BigInteger amountOut) {
+        // the whole input stays in the pool, as in the swap event deltas
+        return isSwap
+                ? new PoolDelta(poolId, amountOut.negate(), amountIn, BigInteger.ZERO)
+                : new PoolDelta(poolId, amountIn, amountOut.negate(), BigInteger.ZERO);
+    }
+
+    /**
+     * Coin types a batch splits, in first-use order
+     * @param intents batch operations
+     * @returns coin types, SUI included
+     */
+    protected Set<String> batchCoinTypes(List<BatchIntent> intents) {
+        Set<String> types = new LinkedHashSet<>();
+        for (BatchIntent intent : intents) {
+            switch (intent) {
+                case BatchIntent.AddLiquidity add -> {
+                    // split in pool order, see appendAddLiquidity
+                    CoinPair pair = PackageUtil.getCoinPair(add.params().getTypeX(), add.params().getTypeY());
+                    types.add(pair.typeX());
+                    types.add(pair.typeY());
+                }
+                case BatchIntent.RemoveLiquidity remove -> types.add(
+                        PackageUtil.getCoinPair(remove.params().getTypeX(), remove.params().getTypeY()).lpType(ammConfig.packageId()));
+                case BatchIntent.SwapExactIn swap -> types.add(swap.params().getTypeX());
+                case BatchIntent.SwapExactOut swap -> types.add(swap.params().getTypeX());
+            }
+        }
+        return types;
+    }
+
+    protected static List<String> batchPoolIds(List<BatchIntent> intents) {
+        return intents.stream().map(BatchIntent::poolId).distinct().toList();
+    }
+
+    // ------------------------- validation -------------------------
+
+    protected static void validate(AddLiquidityParams params) {
+        MathUtil.validateAmount(params.getAmountX());
+        MathUtil.validateAmount(params.getAmountY());
+        MathUtil.validateSlippage(params.getSlippage());
+    }
+
+    protected static void validate(RemoveLiquidityParams params) {
+        MathUtil.validateAmount(params.getRemoveLpAmount());
+        MathUtil.validateSlippage(params.getSlippage());
+    }
+
+    protected static void validateExactIn(SwapParams params) {
+        MathUtil.validateAmount(params.getAmountIn());
+        MathUtil.validateSlippage(params.getSlippage());
+    }
+
+    protected static void validateExactOut(SwapParams params) {
+        MathUtil.validateAmount(params.getAmountOut());
+        MathUtil.validateSlippage(params.getSlippage());
+    }
+
+    protected static void validate(List<BatchIntent> intents) {
+        if (intents == null || intents.isEmpty()) {
+            throw new AmmException("Batch must have at least one intent");
+        }
+        for (BatchIntent intent : intents) {
+            switch (intent) {
+                case BatchIntent.AddLiquidity add -> validate(add.params());
+                case BatchIntent.RemoveLiquidity remove -> validate(remove.params());
+                case BatchIntent.SwapExactIn swap -> validateExactIn(swap.params());
+                case BatchIntent.SwapExactOut swap -> validateExactOut(swap.params());
+            }
+        }
+    }
+
+    protected static void validate(Route route, BigInteger slippage) {
+        if (route == null || route.hops().isEmpty()) {
+            throw new AmmException("Route must have at least one hop");
+        }
+        MathUtil.validateSlippage(slippage);
+    }
+
+    // ------------------------- async -------------------------
+
+    /**
+     * Executor running the async API, virtual threads by default
+     * @param executor executor for blocking RPC and signing work
+     */
+    public void setExecutor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Read the pool state on the client executor
+     * @param poolId pool ID
+     * @returns future pool state, from the cache when enabled and fresh
+     */
+    protected CompletableFuture<Pool> getCachedPoolAsync(String poolId) {
+        return CompletableFuture.supplyAsync(() -> getCachedPool(poolId), executor);
+    }
+
+    /**
+     * Load the owner's coins of several types into the coin cache concurrently on the client executor,
+     * SUI is skipped because it is split from the gas coin
+     * @param owner coin owner
+     * @param types coin types
+     * @returns future completing once every type is cached
+     */
+    protected CompletableFuture<Void> warmCoinsAsync(String owner, String... types) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(types.length);
+        for (String type : new LinkedHashSet<>(Arrays.asList(types))) {
+            if (!SwapConstant.COIN_TYPE_SUI.equals(type)) {
+                futures.add(CompletableFuture.runAsync(() -> coinCache.warm(owner, type), executor));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
     // ------------------------- read API -------------------------
 
     /**
@@ -150,7 +1030,50 @@ public abstract class AbstractOnChainClient {
      * @returns Pool information response
      */
     public Pool getPool(String poolId) {
+        long requestedAt = System.nanoTime();
         ObjectData objectData = QueryBuilder.getObjectData(suiClient, poolId, ObjectDataOptions.contentAndTypeTrue());
+        Pool pool = decodePool(objectData);
+
+        PoolCache cache = this.poolCache;
+        if (cache != null) {
+            cache.put(pool, requestedAt);
+        }
+        return pool;
+    }
+
+    /**
+     * Get information of many pools with sui_multiGetObjects, chunks are requested concurrently
+     * @param poolIds The IDs of the pools to query
+     * @returns Pool information keyed by pool ID in request order, pools that do not exist are left out
+     */
+    public Map<String, Pool> getPools(Collection<String> poolIds) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(poolIds));
+        if (ids.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        long requestedAt = System.nanoTime();
+        Map<String, Pool> pools = new LinkedHashMap<>(ids.size() * 2);
+        PoolCache cache = this.poolCache;
+        for (SuiObjectResponse response : multiGetObjects(ids)) {
+            if (response == null || response.getData() == null) {
+                continue;
+            }
+            Pool pool = decodePool(response.getData());
+            pools.put(pool.getId(), pool);
+            if (cache != null) {
+                cache.put(pool, requestedAt);
+            }
+        }
+        return pools;
+    }
+
+    /**
+     * Map the fields of an on-chain pool object
+     * @param objectData pool object read with content
+     * @returns Pool information response
+     */
+    protected Pool decodePool(ObjectData objectData) {
         MoveObject content = (MoveObject) objectData.getContent();
         MoveStructMap fields = (MoveStructMap) content.getFields();
         Map<String, MoveValue> values = fields.getValues();
@@ -167,9 +1090,65 @@ public abstract class AbstractOnChainClient {
         pool.setLpSupply(new BigInteger(lpSupplyMap.get("value").getValue().toString()));
         pool.setMinAddLiquidityLpAmount(new BigInteger(values.get("min_add_liquidity_lp_amount").getValue().toString()));
         pool.setMinLiquidity(new BigInteger(values.get("min_liquidity").getValue().toString()));
+        pool.setVersion(objectData.getVersion());
         return pool;
     }
 
+    /**
+     * Read objects with content, in chunks of MULTI_GET_LIMIT requested concurrently
+     * @param objectIds object IDs
+     * @returns object responses in request order
+     */
+    protected List<SuiObjectResponse> multiGetObjects(List<String> objectIds) {
+        return multiGetObjects(objectIds, ObjectDataOptions.contentAndTypeTrue());
+    }
+
+    /**
+     * Read objects, in chunks of MULTI_GET_LIMIT requested concurrently on the client executor
+     * @param objectIds object IDs
+     * @param options fields to read
+     * @returns object responses in request order
+     */
+    protected List<SuiObjectResponse> multiGetObjects(List<String> objectIds, ObjectDataOptions options) {
+        if (objectIds.size() <= MULTI_GET_LIMIT) {
+            return multiGetChunk(objectIds, options);
+        }
+
+        List<CompletableFuture<List<SuiObjectResponse>>> futures = new ArrayList<>();
+        for (int from = 0; from < objectIds.size(); from += MULTI_GET_LIMIT) {
+            List<String> chunk = objectIds.subList(from, Math.min(from + MULTI_GET_LIMIT, objectIds.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> multiGetChunk(chunk, options), this.executor));
+        }
+
+        List<SuiObjectResponse> responses = new ArrayList<>(objectIds.size());
+        for (CompletableFuture<List<SuiObjectResponse>> future : futures) {
+            responses.addAll(join(future));
+        }
+        return responses;
+    }
+
+    private List<SuiObjectResponse> multiGetChunk(List<String> objectIds, ObjectDataOptions options) {
+        try {
+            return suiClient.multiGetObjects(objectIds, options).send().getResult();
+        } catch (IOException e) {
+            throw new AmmException("multiGetObjects failed!", e);
+        }
+    }
+
+    /**
+     * Wait for a future, failures surface as AmmException
+     */
+    protected static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AmmException ammException) {
+                throw ammException;
+            }
+            throw new AmmException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
     /**
      * Get global configuration information
      * @returns Global configuration response
@@ -187,13 +1166,18 @@ public abstract class AbstractOnChainClient {
     }
 
     /**
-     * Get pool ID for a given token pair
+     * Get pool ID for a given token pair, resolved pairs are served from the client index
      * @param typeX First token type
      * @param typeY Second token type
      * @returns String Pool ID if found
      */
     public String getPoolId(String typeX, String typeY) {
-        String lpName = PackageUtil.getLpName(typeX, typeY);
+        String lpName = PackageUtil.getCoinPair(typeX, typeY).lpName();
+        String poolId = poolIds.get(lpName);
+        if (poolId != null) {
+            return poolId;
+        }
+
         GetDynamicFieldObject data = new GetDynamicFieldObject();
         data.setParentObjectId(this.ammConfig.registeredPoolsId());
         data.setName(new DynamicFieldName("0x1::string::String",
@@ -209,7 +1193,461 @@ public abstract class AbstractOnChainClient {
         MoveObject content = (MoveObject) result.getData().getContent();
         MoveStructMap fields = (MoveStructMap) content.getFields();
         MoveValue value = fields.getValues().get("value");
-        return value.getValue().toString();
+        poolId = value.getValue().toString();
+        // a pair never moves to another pool once registered
+        poolIds.put(lpName, poolId);
+        return poolId;
+    }
+
+    /**
+     * Load every registered pool into the pool ID index. Dynamic field pages are walked one after another
+     * in cursor order, and the field objects of each page are read with a single multiGetObjects call.
+     * Pairs created later are still resolved on demand by getPoolId.
+     * @returns number of pools in the index
+     */
+    public int preloadPoolIds() {
+        String cursor = null;
+        do {
+            GetDynamicFields data = new GetDynamicFields();
+            data.setParentObjectId(this.ammConfig.registeredPoolsId());
+            data.setCursor(cursor);
+            data.setLimit(MULTI_GET_LIMIT);
+            DynamicFieldPage page;
+            try {
+                page = suiClient.getDynamicFields(data).send().getResult();
+            } catch (IOException e) {
+                throw new AmmException("getDynamicFields failed!", e);
+            }
+
+            List<String> fieldIds = new ArrayList<>(page.getData().size());
+            for (DynamicFieldInfo info : page.getData()) {
+                fieldIds.add(info.getObjectId());
+            }
+            for (SuiObjectResponse response : multiGetObjects(fieldIds)) {
+                if (response == null || response.getData() == null) {
+                    continue;
+                }
+                MoveObject content = (MoveObject) response.getData().getContent();
+                Map<String, MoveValue> values = ((MoveStructMap) content.getFields()).getValues();
+                poolIds.put(values.get("name").getValue().toString(), values.get("value").getValue().toString());
+            }
+            cursor = page.isHasNextPage() ? page.getNextCursor() : null;
+        } while (cursor != null);
+        return poolIds.size();
+    }
+
+    /**
+     * Resolve the shared object reference of the global object and of every registered pool in one bulk read of
+     * their owners, so no transaction pays for a shared object lookup. The pool ID index is preloaded when empty.
+     * @returns number of shared objects whose initial shared version is known
+     */
+    public int preloadSharedObjects() {
+        if (poolIds.isEmpty()) {
+            preloadPoolIds();
+        }
+        List<String> objectIds = new ArrayList<>(poolIds.size() + 1);
+        objectIds.add(ammConfig.globalId());
+        objectIds.addAll(new LinkedHashSet<>(poolIds.values()));
+
+        ObjectDataOptions options = new ObjectDataOptions();
+        options.setShowOwner(true);
+        int resolved = 0;
+        for (SuiObjectResponse response : multiGetObjects(objectIds, options)) {
+            if (response == null || response.getData() == null) {
+                continue;
+            }
+            ObjectData data = response.getData();
+            Long version = initialSharedVersion(data.getOwner());
+            if (version != null) {
+                sharedObjects.putInitialVersion(ammNetwork, data.getObjectId(), version);
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Initial shared version of an owner of the form {"Shared": {"initial_shared_version": n}}
+     * @returns version, or null if the object is not shared
+     */
+    private static Long initialSharedVersion(Object owner) {
+        if (owner == null) {
+            return null;
+        }
+        JsonNode shared = MAPPER.valueToTree(owner).path("Shared");
+        JsonNode version = shared.has("initial_shared_version") ? shared.get("initial_shared_version") : shared.get("initialSharedVersion");
+        return version == null || version.isNull() ? null : version.asLong();
+    }
+
+    /**
+     * Snapshot of the pool ID index
+     * @returns pool ID keyed by LP name (see PackageUtil.getLpName)
+     */
+    public Map<String, String> getIndexedPoolIds() {
+        return Map.copyOf(poolIds);
+    }
+
+    // ------------------------- routing -------------------------
+
+    /** Receives a registered pool with the coin types of its LP name */
+    @FunctionalInterface
+    private interface PoolVisitor {
+
+        void visit(String typeA, String typeB, Pool pool);
+    }
+
+    /**
+     * Visit every registered pool. The pool ID index is preloaded when empty, fresh pools in the pool cache are
+     * reused and the rest are read in bulk.
+     * @param visitor receives each pool that exists, with its coin types
+     */
+    private void forEachRegisteredPool(PoolVisitor visitor) {
+        if (poolIds.isEmpty()) {
+            preloadPoolIds();
+        }
+        Map<String, String> index = Map.copyOf(poolIds);
+        Map<String, Pool> pools = getCachedPools(index.values());
+
+        index.forEach((lpName, poolId) -> {
+            String[] types = PackageUtil.parseLpName(lpName);
+            Pool pool = pools.get(poolId);
+            if (types != null && pool != null) {
+                visitor.visit(types[0], types[1], pool);
+            }
+        });
+    }
+
+    /**
+     * Build a router over every registered pool. The pool ID index is preloaded when empty, fresh pools
+     * in the pool cache are reused and the rest are read in bulk.
+     * @returns router over a snapshot of pool reserves
+     */
+    public Router buildRouter() {
+        Router router = new Router();
+        forEachRegisteredPool(router::addPool);
+        return router;
+    }
+
+    /**
+     * Build an arbitrage cycle detector over every registered pool, pools are gathered as in buildRouter
+     * @param maxLength maximum number of pools on a cycle, at least 2
+     * @returns cycle detector over a snapshot of pool reserves, update it with newer pool states
+     */
+    public CycleDetector buildCycleDetector(int maxLength) {
+        CycleDetector detector = new CycleDetector(maxLength);
+        forEachRegisteredPool(detector::addPool);
+        return detector;
+    }
+
+    /**
+     * Same as buildCycleDetector with triangular and shorter cycles
+     */
+    public CycleDetector buildCycleDetector() {
+        return buildCycleDetector(SwapConstant.DEFAULT_MAX_HOPS);
+    }
+
+    // ------------------------- quote -------------------------
+
+    /**
+     * Quote an exact-in swap with the math of swapExactXToY, without sending anything
+     * @param params typeX is paid, typeY received; poolId is resolved from the pair when null
+     * @returns amount out, fee, price impact and the minimum output after slippage
+     */
+    public Quote quoteExactIn(SwapParams params) {
+        validateExactIn(params);
+        return Quoter.quoteExactIn(getCachedPool(quotePoolId(params)), params.getTypeX(), params.getTypeY(),
+                params.getAmountIn(), params.getSlippage());
+    }
+
+    /**
+     * Quote an exact-in swap on the pool of a pair, with the default slippage
+     * @param typeIn coin type paid
+     * @param typeOut coin type received
+     * @param amountIn input amount
+     * @returns quote
+     */
+    public Quote quoteExactIn(String typeIn, String typeOut, BigInteger amountIn) {
+        SwapParams params = quoteParams(typeIn, typeOut);
+        params.setAmountIn(amountIn);
+        return quoteExactIn(params);
+    }
+
+    /**
+     * Quote an exact-out swap with the math of swapXToExactY, without sending anything
+     * @param params typeX is paid, typeY received; poolId is resolved from the pair when null
+     * @returns amount in, fee, price impact and the maximum input after slippage
+     */
+    public Quote quoteExactOut(SwapParams params) {
+        validateExactOut(params);
+        return Quoter.quoteExactOut(getCachedPool(quotePoolId(params)), params.getTypeX(), params.getTypeY(),
+                params.getAmountOut(), params.getSlippage());
+    }
+
+    /**
+     * Quote an exact-out swap on the pool of a pair, with the default slippage
+     * @param typeIn coin type paid
+     * @param typeOut coin type received
+     * @param amountOut output amount
+     * @returns quote
+     */
+    public Quote quoteExactOut(String typeIn, String typeOut, BigInteger amountOut) {
+        SwapParams params = quoteParams(typeIn, typeOut);
+        params.setAmountOut(amountOut);
+        return quoteExactOut(params);
+    }
+
+    /**
+     * Snapshot many swap directions for batch quoting. The pools are read in one bulk call, fresh pools in the
+     * pool cache are reused; the quoter then works without network calls.
+     * @param legs typeX is paid and typeY received on each leg; poolId is resolved from the pair when null,
+     *             amounts are ignored
+     * @returns quoter with one row per leg, in leg order
+     */
+    public Quoter buildQuoter(List<SwapParams> legs) {
+        List<String> ids = new ArrayList<>(legs.size());
+        for (SwapParams leg : legs) {
+            ids.add(quotePoolId(leg));
+        }
+        Map<String, Pool> pools = getCachedPools(ids);
+
+        Quoter quoter = new Quoter();
+        for (int i = 0; i < legs.size(); i++) {
+            Pool pool = pools.get(ids.get(i));
+            if (pool == null) {
+                throw new AmmException("Pool not found: " + ids.get(i));
+            }
+            quoter.add(legs.get(i).getTypeX(), legs.get(i).getTypeY(), pool);
+        }
+        return quoter;
+    }
+
+    private String quotePoolId(SwapParams params) {
+        return params.getPoolId() != null ? params.getPoolId() : getPoolId(params.getTypeX(), params.getTypeY());
+    }
+
+    private static SwapParams quoteParams(String typeIn, String typeOut) {
+        SwapParams params = new SwapParams();
+        params.setTypeX(typeIn);
+        params.setTypeY(typeOut);
+        return params;
+    }
+
+    // ------------------------- pool events -------------------------
+
+    /**
+     * Follow the swap and liquidity events of the AMM to keep many pools current from one event stream.
+     * Without a saved cursor the stream is followed from its head. The pools are read before this returns;
+     * call poll on the follower periodically, e.g. from a scheduled executor.
+     * @param poolIds pools to track
+     * @param cursorStore saved stream position, see CursorStore.inMemory
+     * @param reconcileInterval how long event deltas are trusted before the pools are read again
+     * @returns follower, polled once
+     */
+    public PoolEventFollower followPoolEvents(Collection<String> poolIds, CursorStore cursorStore, Duration reconcileInterval) {
+        if (cursorStore.load() == null) {
+            String head = latestPoolEventCursor();
+            if (head != null) {
+                cursorStore.save(head);
+            }
+        }
+        PoolEventFollower follower = new PoolEventFollower(poolIds, this::queryPoolEvents, this::getPools, cursorStore, reconcileInterval);
+        follower.poll();
+        return follower;
+    }
+
+    /**
+     * Read one page of the pool module's events in ascending order
+     * @param cursor cursor from a previous page, null for the start of the stream
+     * @param limit maximum events per page
+     * @returns decoded page
+     */
+    protected PoolEventFollower.EventPage queryPoolEvents(String cursor, int limit) {
+        EventPage page = queryEvents(decodeCursor(cursor), limit, false);
+        List<PoolDelta> deltas = new ArrayList<>(page.getData().size());
+        for (SuiEvent event : page.getData()) {
+            PoolDelta delta = decodePoolEvent(event);
+            if (delta != null) {
+                deltas.add(delta);
+            }
+        }
+        return new PoolEventFollower.EventPage(deltas, encodeCursor(page.getNextCursor()), page.isHasNextPage());
+    }
+
+    /**
+     * @returns cursor of the newest pool module event, null if there is none
+     */
+    protected String latestPoolEventCursor() {
+        List<SuiEvent> latest = queryEvents(null, 1, true).getData();
+        return latest.isEmpty() ? null : encodeCursor(latest.getFirst().getId());
+    }
+
+    private EventPage queryEvents(EventId cursor, int limit, boolean descending) {
+        QueryEvents data = new QueryEvents();
+        data.setQuery(new MoveEventModuleFilter(ammConfig.packageId(), SwapConstant.POOL_MODULE));
+        data.setCursor(cursor);
+        data.setLimit(limit);
+        data.setDescendingOrder(descending);
+        try {
+            return suiClient.queryEvents(data).send().getResult();
+        } catch (IOException e) {
+            throw new AmmException("queryEvents failed!", e);
+        }
+    }
+
+    /**
+     * Map a swap or liquidity event to the change of its pool. Swaps report the amounts in and out of each
+     * side, liquidity events the coin amounts and the LP amount minted or burned.
+     * @param event event of the pool module
+     * @returns pool delta, null for other events
+     */
+    protected PoolDelta decodePoolEvent(SuiEvent event) {
+        String type = event.getType();
+        Map<String, Object> json = event.getParsedJson();
+        if (type == null || json == null || json.get("pool_id") == null) {
+            return null;
+        }
+        String poolId = json.get("pool_id").toString();
+        String name = type.substring(type.lastIndexOf("::") + 2);
+        return switch (name) {
+            case SwapConstant.SWAP_EVENT -> new PoolDelta(poolId,
+                    eventAmount(json, "amount_x_in").subtract(eventAmount(json, "amount_x_out")),
+                    eventAmount(json, "amount_y_in").subtract(eventAmount(json, "amount_y_out")),
+                    BigInteger.ZERO);
+            case SwapConstant.ADD_LIQUIDITY_EVENT -> new PoolDelta(poolId,
+                    eventAmount(json, "amount_x"), eventAmount(json, "amount_y"), eventAmount(json, "lp_amount"));
+            case SwapConstant.REMOVE_LIQUIDITY_EVENT -> new PoolDelta(poolId,
+                    eventAmount(json, "amount_x").negate(), eventAmount(json, "amount_y").negate(), eventAmount(json, "lp_amount").negate());
+            default -> null;
+        };
+    }
+
+    private static BigInteger eventAmount(Map<String, Object> json, String field) {
+        Object value = json.get(field);
+        return value == null ? BigInteger.ZERO : new BigInteger(value.toString());
+    }
+
+    private static String encodeCursor(EventId id) {
+        return id == null ? null : id.getTxDigest() + ":" + id.getEventSeq();
+    }
+
+    private static EventId decodeCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        int split = cursor.lastIndexOf(':');
+        EventId id = new EventId();
+        id.setTxDigest(cursor.substring(0, split));
+        id.setEventSeq(cursor.substring(split + 1));
+        return id;
+    }
+
+    // ------------------------- pool checkpoints -------------------------
+
+    /**
+     * Keep every registered pool in step with the chain checkpoint by checkpoint, including pools created
+     * later. Every pool is read before this returns; call poll on the synchronizer periodically, e.g. from a
+     * scheduled executor.
+     * @returns synchronizer, polled once
+     */
+    public CheckpointSynchronizer syncPoolsByCheckpoint() {
+        String poolType = ammConfig.packageId() + "::" + SwapConstant.POOL_MODULE + "::" + SwapConstant.POOL_STRUCT;
+        CheckpointSynchronizer.CheckpointSource source = new CheckpointSynchronizer.CheckpointSource() {
+
+            @Override
+            public long latest() {
+                return latestCheckpoint();
+            }
+
+            @Override
+            public CheckpointSynchronizer.Checkpoint get(long sequenceNumber) {
+                return readCheckpoint(sequenceNumber);
+            }
+        };
+        CheckpointSynchronizer synchronizer = new CheckpointSynchronizer(poolType, source, this::getPoolVersions, () -> {
+            preloadPoolIds();
+            return getPools(poolIds.values()).values();
+        }, executor);
+        synchronizer.poll();
+        return synchronizer;
+    }
+
+    /**
+     * @returns sequence number of the latest executed checkpoint
+     */
+    protected long latestCheckpoint() {
+        try {
+            return Long.parseLong(suiClient.getLatestCheckpointSequenceNumber().send().getResult());
+        } catch (IOException e) {
+            throw new AmmException("getLatestCheckpointSequenceNumber failed!", e);
+        }
+    }
+
+    /**
+     * Read the object changes of every transaction in a checkpoint, in chunks of MULTI_GET_LIMIT transactions
+     * @param sequenceNumber checkpoint sequence number
+     * @returns created and mutated objects of the checkpoint
+     */
+    protected CheckpointSynchronizer.Checkpoint readCheckpoint(long sequenceNumber) {
+        List<String> digests;
+        try {
+            digests = suiClient.getCheckpoint(String.valueOf(sequenceNumber)).send().getResult().getTransactions();
+        } catch (IOException e) {
+            throw new AmmException("getCheckpoint failed!", e);
+        }
+
+        TransactionBlockResponseOptions options = new TransactionBlockResponseOptions();
+        options.setShowObjectChanges(true);
+        List<CheckpointSynchronizer.ObjectChange> changes = new ArrayList<>();
+        for (int from = 0; from < digests.size(); from += MULTI_GET_LIMIT) {
+            List<String> chunk = digests.subList(from, Math.min(from + MULTI_GET_LIMIT, digests.size()));
+            List<SuiTransactionBlockResponse> responses;
+            try {
+                responses = suiClient.multiGetTransactionBlocks(chunk, options).send().getResult();
+            } catch (IOException e) {
+                throw new AmmException("multiGetTransactionBlocks failed!", e);
+            }
+            for (SuiTransactionBlockResponse response : responses) {
+                if (response.getObjectChanges() == null) {
+                    continue;
+                }
+                for (ObjectChange change : response.getObjectChanges()) {
+                    // published packages carry no object, deleted and wrapped objects no type
+                    if (change.getObjectId() != null && change.getObjectType() != null && change.getVersion() != null) {
+                        changes.add(new CheckpointSynchronizer.ObjectChange(change.getObjectId(), change.getObjectType(), change.getVersion()));
+                    }
+                }
+            }
+        }
+        return new CheckpointSynchronizer.Checkpoint(sequenceNumber, changes);
+    }
+
+    /**
+     * Read pools at given versions with sui_tryMultiGetPastObjects
+     * @param versions version to read keyed by pool ID
+     * @returns pools at exactly the versions, pools whose version the node has pruned are left out
+     */
+    protected Collection<Pool> getPoolVersions(Map<String, Long> versions) {
+        List<String> ids = new ArrayList<>(versions.keySet());
+        List<Pool> pools = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MULTI_GET_LIMIT) {
+            List<String> chunk = ids.subList(from, Math.min(from + MULTI_GET_LIMIT, ids.size()));
+            List<GetPastObjectRequest> requests = new ArrayList<>(chunk.size());
+            for (String id : chunk) {
+                requests.add(new GetPastObjectRequest(id, versions.get(id)));
+            }
+            List<SuiPastObjectResponse> responses;
+            try {
+                responses = suiClient.tryMultiGetPastObjects(requests, ObjectDataOptions.contentAndTypeTrue()).send().getResult();
+            } catch (IOException e) {
+                throw new AmmException("tryMultiGetPastObjects failed!", e);
+            }
+            for (SuiPastObjectResponse response : responses) {
+                if (response != null && VERSION_FOUND.equals(response.getStatus()) && response.getDetails() != null) {
+                    pools.add(decodePool(response.getDetails()));
+                }
+            }
+        }
+        return pools;
     }
 
     /**
@@ -222,14 +1660,7 @@ public abstract class AbstractOnChainClient {
         if (null == objectId || objectId.isEmpty()) {
             throw new PythException("objectId is null or empty!");
         }
-        CallArgObjectArg objectArg = AMM_SHARED.get(objectId);
-        if (objectArg != null) {
-            return objectArg;
-        }
-
-        CallArgObjectArg sharedObject = TransactionBuilder.buildSharedObject(suiClient, objectId, mutable);
-        AMM_SHARED.put(objectId, sharedObject);
-        return sharedObject;
+        return sharedObjects.get(ammNetwork, objectId, mutable, id -> TransactionBuilder.buildSharedObject(suiClient, id, mutable));
     }
 
 }
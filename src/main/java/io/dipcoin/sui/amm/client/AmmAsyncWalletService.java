@@ -0,0 +1,72 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 17:30
+ * @Description : non-blocking wallet manager service interface, the signature completes a future instead of
+ * holding the caller thread for the signing round-trip
+ */
+public interface AmmAsyncWalletService {
+
+    /**
+     * transaction signature
+     * @param address sender
+     * @param txData transaction bytes of bcs type
+     * @return future signature
+     */
+    CompletableFuture<String> signAsync(String address, byte[] txData);
+
+    /**
+     * sign many transactions of one sender, override when the backend signs several payloads per request
+     * @param address sender
+     * @param txData transaction bytes of bcs type, in order
+     * @return future signatures in the order of txData
+     */
+    default CompletableFuture<List<String>> signBatchAsync(String address, List<byte[]> txData) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(txData.size());
+        for (byte[] data : txData) {
+            futures.add(signAsync(address, data));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(done -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Adapt a blocking wallet service, each signature runs on the executor
+     * @param walletService blocking wallet service
+     * @param executor executor for the blocking sign calls, e.g. virtual threads
+     * @returns async wallet service
+     */
+    static AmmAsyncWalletService of(AmmWalletService walletService, Executor executor) {
+        return new AmmAsyncWalletService() {
+
+            @Override
+            public CompletableFuture<String> signAsync(String address, byte[] txData) {
+                return CompletableFuture.supplyAsync(() -> walletService.sign(address, txData), executor);
+            }
+
+            @Override
+            public CompletableFuture<List<String>> signBatchAsync(String address, List<byte[]> txData) {
+                return CompletableFuture.supplyAsync(() -> walletService.signBatch(address, txData), executor);
+            }
+        };
+    }
+
+}
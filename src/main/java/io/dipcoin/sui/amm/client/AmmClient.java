@@ -14,22 +14,19 @@
 package io.dipcoin.sui.amm.client;
 
 import io.dipcoin.sui.amm.constant.AmmNetwork;
-import io.dipcoin.sui.amm.constant.SwapConstant;
 import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.CoinPair;
+import io.dipcoin.sui.amm.model.OwnedCoin;
+import io.dipcoin.sui.amm.model.Route;
+import io.dipcoin.sui.amm.model.RouteHop;
 import io.dipcoin.sui.amm.model.request.AddLiquidityParams;
+import io.dipcoin.sui.amm.model.request.BatchIntent;
 import io.dipcoin.sui.amm.model.request.RemoveLiquidityParams;
 import io.dipcoin.sui.amm.model.request.SwapParams;
+import io.dipcoin.sui.amm.model.response.BatchResult;
 import io.dipcoin.sui.amm.model.response.Pool;
-import io.dipcoin.sui.amm.utils.MathUtil;
 import io.dipcoin.sui.amm.utils.PackageUtil;
-import io.dipcoin.sui.bcs.PureBcs;
-import io.dipcoin.sui.bcs.TypeTagSerializer;
-import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
-import io.dipcoin.sui.bcs.types.tag.TypeTag;
-import io.dipcoin.sui.bcs.types.transaction.Argument;
-import io.dipcoin.sui.bcs.types.transaction.Command;
-import io.dipcoin.sui.bcs.types.transaction.ProgrammableMoveCall;
-import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.bcs.types.gas.GasData;
 import io.dipcoin.sui.client.TransactionBuilder;
 import io.dipcoin.sui.crypto.SuiKeyPair;
 import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
@@ -38,10 +35,9 @@ import io.dipcoin.sui.protocol.http.HttpService;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author : Same
@@ -51,11 +47,13 @@ import java.util.concurrent.atomic.AtomicReference;
 public class AmmClient extends AbstractOnChainClient {
 
     public AmmClient(AmmNetwork ammNetwork) {
+        super.ammNetwork = ammNetwork;
         super.ammConfig = ammNetwork.getConfig();
         super.suiClient = SuiClient.build(new HttpService(ammConfig.suiRpc()));
     }
 
     public AmmClient(AmmNetwork ammNetwork, SuiClient suiClient) {
+        super.ammNetwork = ammNetwork;
         super.ammConfig = ammNetwork.getConfig();
         super.suiClient = suiClient;
     }
@@ -71,94 +69,15 @@ public class AmmClient extends AbstractOnChainClient {
      * @returns SuiTransactionBlockResponse
      */
     public SuiTransactionBlockResponse addLiquidity(AddLiquidityParams params, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
-        String address = suiKeyPair.address();
-
         // Validate input parameters
-        MathUtil.validateAmount(params.getAmountX());
-        MathUtil.validateAmount(params.getAmountY());
-        BigInteger slippage = params.getSlippage();
-        MathUtil.validateSlippage(slippage);
-
-        // Fetch current pool and global state
-        String poolId = params.getPoolId();
-        Pool pool = super.getPool(poolId);
-
-        // Sort token types and determine swap direction
-        String[] orderType = PackageUtil.orderType(params.getTypeX(), params.getTypeY());
-        String typeX = orderType[0];
-        String typeY = orderType[1];
-        boolean isSwap = !typeX.equals(params.getTypeX());
-        BigInteger amountX = isSwap ? params.getAmountY() : params.getAmountX();
-        BigInteger amountY = isSwap ? params.getAmountX() : params.getAmountY();
-        BigInteger balX = pool.getBalX();
-        BigInteger balY = pool.getBalY();
-
-        BigInteger[] calcOptimalCoinValues = MathUtil.calcOptimalCoinValues(amountX, amountY, balX, balY);
-        BigInteger coinXDesired = calcOptimalCoinValues[0];
-        BigInteger coinYDesired = calcOptimalCoinValues[1];
-        BigInteger expectedLp = MathUtil.getExpectedLiquidityAmount(coinXDesired, coinYDesired, balX, balY, pool.getLpSupply());
-
-        BigInteger minAddLiquidityLpAmount = pool.getMinAddLiquidityLpAmount();
-        if (expectedLp.compareTo(minAddLiquidityLpAmount) < 0) {
-            throw new AmmException("add liquidity too little, expectedLp: " + expectedLp + " is less than min_add_liquidity_lp_amount: " + minAddLiquidityLpAmount);
-        }
+        validate(params);
 
-        BigInteger coinXMin = MathUtil.getSlippageAmount(coinXDesired, slippage);
-        BigInteger coinYMin = MathUtil.getSlippageAmount(coinYDesired, slippage);
+        // Fetch current pool state
+        Pool pool = super.getCachedPool(params.getPoolId());
 
         // Build transaction to split coins and add liquidity
-        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-
-        AtomicReference<BigInteger> suiUse = new AtomicReference<>(BigInteger.ZERO);
-        int splitIndexX = 0;
-        if (typeX.equals(SwapConstant.COIN_TYPE_SUI)) {
-            splitIndexX = super.splitSui(programmableTx, amountX);
-            suiUse.set(amountX);
-        } else {
-            splitIndexX = super.splitCoin(programmableTx, address, typeX, amountX);
-        }
-        int splitIndexY = 0;
-        if (typeY.equals(SwapConstant.COIN_TYPE_SUI)) {
-            splitIndexY = super.splitSui(programmableTx, amountY);
-            suiUse.set(amountY);
-        } else {
-            splitIndexY = super.splitCoin(programmableTx, address, typeY, amountY);
-        }
-
-        // Type tags
-        List<TypeTag> typeTags = new ArrayList<>(2);
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[0], true));
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[1], true));
-
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                ammConfig.packageId(),
-                MODULE,
-                SwapConstant.ADD_LIQUIDITY,
-                typeTags,
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(this.ammConfig.globalId(), false))),
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(poolId, true))),
-                        new Argument.NestedResult(splitIndexX, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(coinXMin.longValue(), PureBcs.BasePureType.U64))),
-                        new Argument.NestedResult(splitIndexY, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(coinYMin.longValue(), PureBcs.BasePureType.U64)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
-
-        try {
-            return TransactionBuilder.sendTransaction(suiClient, programmableTx, suiKeyPair, TransactionBuilder.buildGasData(suiClient, address, gasPrice, gasBudget, suiUse.get()));
-        } catch (IOException e) {
-            throw new AmmException(e.getMessage());
-        }
+        TransactionContext context = super.build(suiKeyPair.address(), c -> super.appendAddLiquidity(c, params, pool));
+        return execute(context, List.of(params.getPoolId()), suiKeyPair, gasPrice, gasBudget);
     }
 
 
@@ -171,75 +90,15 @@ public class AmmClient extends AbstractOnChainClient {
      * @returns SuiTransactionBlockResponse
      */
     public SuiTransactionBlockResponse removeLiquidity(RemoveLiquidityParams params, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
-        String address = suiKeyPair.address();
-
         // Validate input parameters
-        BigInteger removeLpAmount = params.getRemoveLpAmount();
-        MathUtil.validateAmount(removeLpAmount);
-        BigInteger slippage = params.getSlippage();
-        // Calculate minimum acceptable amounts with slippage protection
-        MathUtil.validateSlippage(slippage);
-
-        // Get LP token type based on sorted token types
-        String[] lpType = PackageUtil.getLpType(this.ammConfig.packageId(), params.getTypeX(), params.getTypeY());
-        String typeX = lpType[0];
-        String typeY = lpType[1];
-
-        // Fetch current pool and global state
-        String poolId = params.getPoolId();
-        Pool pool = super.getPool(poolId);
-
-        BigInteger minRemoveLiquidityLpAmount = pool.getMinAddLiquidityLpAmount().divide(BigInteger.TEN);
-        if (removeLpAmount.compareTo(minRemoveLiquidityLpAmount) < 0) {
-            throw new AmmException("removeLpAmount: " + removeLpAmount + " is less than min_remove_liquidity_lp_amount: " + minRemoveLiquidityLpAmount);
-        }
+        validate(params);
 
-        // Build transaction to split coins and remove liquidity
-        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-        int index = super.splitCoin(programmableTx, address, lpType[2], removeLpAmount);
-        BigInteger balX = pool.getBalX();
-        BigInteger balY = pool.getBalY();
-        BigInteger lpSupply = pool.getLpSupply();
-        BigInteger coinXOut = MathUtil.mulDiv(balX, removeLpAmount, lpSupply);
-        BigInteger coinYOut = MathUtil.mulDiv(balY, removeLpAmount, lpSupply);
-        BigInteger coinXMin = MathUtil.getSlippageAmount(coinXOut, slippage);
-        BigInteger coinYMin = MathUtil.getSlippageAmount(coinYOut, slippage);
-
-        // Type tags
-        List<TypeTag> typeTags = new ArrayList<>(2);
-        typeTags.add(TypeTagSerializer.parseFromStr(typeX, true));
-        typeTags.add(TypeTagSerializer.parseFromStr(typeY, true));
-
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                ammConfig.packageId(),
-                MODULE,
-                SwapConstant.REMOVE_LIQUIDITY,
-                typeTags,
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(this.ammConfig.globalId(), false))),
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(poolId, true))),
-                        new Argument.NestedResult(index, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(removeLpAmount.longValue(), PureBcs.BasePureType.U64))),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(coinXMin.longValue(), PureBcs.BasePureType.U64))),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(coinYMin.longValue(), PureBcs.BasePureType.U64)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
+        // Fetch current pool state
+        Pool pool = super.getCachedPool(params.getPoolId());
 
-        try {
-            return TransactionBuilder.sendTransaction(suiClient, programmableTx, suiKeyPair, TransactionBuilder.buildGasData(suiClient, address, gasPrice, gasBudget));
-        } catch (IOException e) {
-            throw new AmmException(e.getMessage());
-        }
+        // Build transaction to split coins and remove liquidity
+        TransactionContext context = super.build(suiKeyPair.address(), c -> super.appendRemoveLiquidity(c, params, pool));
+        return execute(context, List.of(params.getPoolId()), suiKeyPair, gasPrice, gasBudget);
     }
 
     /**
@@ -251,145 +110,353 @@ public class AmmClient extends AbstractOnChainClient {
      * @returns SuiTransactionBlockResponse
      */
     public SuiTransactionBlockResponse swapExactXToY(SwapParams params, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
-        String address = suiKeyPair.address();
+        // Validate input parameters
+        validateExactIn(params);
+
+        // Fetch current pool state
+        Pool pool = super.getCachedPool(params.getPoolId());
+
+        TransactionContext context = super.build(suiKeyPair.address(), c -> super.appendSwapExactXToY(c, params, pool));
+        return execute(context, List.of(params.getPoolId()), suiKeyPair, gasPrice, gasBudget);
+    }
+
+    /**
+     * Swap token X for an exact amount of token Y
+     * @param params Swap parameters including amountOut and optional slippage
+     * @param suiKeyPair The keypair for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns SuiTransactionBlockResponse
+     */
+    public SuiTransactionBlockResponse swapXToExactY(SwapParams params, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+        // Validate input parameters
+        validateExactOut(params);
+
+        // Fetch current pool state
+        Pool pool = super.getCachedPool(params.getPoolId());
+
+        TransactionContext context = super.build(suiKeyPair.address(), c -> super.appendSwapXToExactY(c, params, pool));
+        return execute(context, List.of(params.getPoolId()), suiKeyPair, gasPrice, gasBudget);
+    }
+
+    /**
+     * Swap along a multi-hop route in one transaction
+     * @param route route found by Router, see buildRouter
+     * @param slippage slippage tolerance applied to every hop
+     * @param suiKeyPair The keypair for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns SuiTransactionBlockResponse
+     */
+    public SuiTransactionBlockResponse swapRoute(Route route, BigInteger slippage, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+        // Validate input parameters
+        validate(route, slippage);
 
+        TransactionContext context = super.build(suiKeyPair.address(), c -> super.appendRoute(c, route, slippage));
+        return execute(context, routePoolIds(route), suiKeyPair, gasPrice, gasBudget);
+    }
+
+    /**
+     * Execute many operations of one sender in one transaction. Pools are read in one bulk call (or from
+     * the pool cache), the global object and each pool are passed once, and coin splits are grouped per
+     * coin type. The intents succeed or fail together.
+     * @param intents operations in execution order
+     * @param suiKeyPair The keypair for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns BatchResult with the response and the move call command index of each intent
+     */
+    public BatchResult batch(List<BatchIntent> intents, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
         // Validate input parameters
-        BigInteger amountIn = params.getAmountIn();
-        MathUtil.validateAmount(amountIn);
-        BigInteger slippage = params.getSlippage();
-        MathUtil.validateSlippage(slippage);
-
-        // Fetch current pool and global state
-        String poolId = params.getPoolId();
-        Pool pool = super.getPool(params.getPoolId());
-
-        // Sort token types and determine swap direction
-        String typeX = params.getTypeX();
-        String[] orderType = PackageUtil.orderType(typeX, params.getTypeY());
-        boolean isSwap = !orderType[0].equals(typeX);
-        BigInteger balanceX = isSwap ? pool.getBalY() : pool.getBalX();
-        BigInteger balanceY = isSwap ? pool.getBalX() : pool.getBalY();
-        BigInteger amountOut = MathUtil.getAmountOut(pool.getFeeRate(), amountIn, balanceX, balanceY);
-
-        BigInteger amountOutMin = MathUtil.getSlippageAmount(amountOut, slippage);
-        String functionName = isSwap ? SwapConstant.SWAP_EXACT_Y_TO_X : SwapConstant.SWAP_EXACT_X_TO_Y;
-
-        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-
-        int splitIndex = 0;
-        AtomicReference<BigInteger> suiUse = new AtomicReference<>(BigInteger.ZERO);
-        if (typeX.equals(SwapConstant.COIN_TYPE_SUI)) {
-            splitIndex = super.splitSui(programmableTx, amountIn);
-            suiUse.set(amountIn);
-        } else {
-            splitIndex = super.splitCoin(programmableTx, address, typeX, amountIn);
+        validate(intents);
+
+        List<String> poolIds = batchPoolIds(intents);
+        Map<String, Pool> pools = super.getCachedPools(poolIds);
+        TransactionContext context = super.appendBatch(intents, suiKeyPair.address(), pools);
+        return new BatchResult(execute(context, poolIds, suiKeyPair, gasPrice, gasBudget), context.getCallIndexes());
+    }
+
+    /**
+     * Split SUI from the gas coin into count gas coins of amount each and pool them for the sender.
+     * Afterwards up to count transactions of the sender can be in flight at once, each paying gas with its
+     * own coin, and a gas coin is reused at the version its transaction's effects report.
+     * @param suiKeyPair The keypair for signing the transaction
+     * @param count number of gas coins
+     * @param amount balance of each gas coin, covering the gas budget plus any SUI a transaction splits
+     * @param gasPrice gas price
+     * @param gasBudget gas limit of the split transaction
+     * @returns pooled gas coins
+     */
+    public List<OwnedCoin> prepareGasPool(SuiKeyPair suiKeyPair, int count, BigInteger amount, long gasPrice, BigInteger gasBudget) {
+        validateGasPool(count, amount);
+
+        String address = suiKeyPair.address();
+        TransactionContext context = super.build(address, c -> c.splitGasToSender(amount, count));
+        return super.registerGasCoins(address, execute(context, List.of(), suiKeyPair, gasPrice, gasBudget), amount);
+    }
+
+    // ------------------------- async write API -------------------------
+
+    /**
+     * Add liquidity to a pool without blocking the caller. Pool state and the coins of both types
+     * are read concurrently on the client executor.
+     * @param params Parameters for adding liquidity
+     * @param suiKeyPair The keypair for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future SuiTransactionBlockResponse
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> addLiquidityAsync(AddLiquidityParams params, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+        try {
+            validate(params);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        String address = suiKeyPair.address();
+        return super.getCachedPoolAsync(params.getPoolId())
+                .thenCombine(super.warmCoinsAsync(address, params.getTypeX(), params.getTypeY()), (pool, warmed) -> {
+                    TransactionContext context = super.build(address, c -> super.appendAddLiquidity(c, params, pool));
+                    return execute(context, List.of(params.getPoolId()), suiKeyPair, gasPrice, gasBudget);
+                });
+    }
 
-        // Type tags
-        List<TypeTag> typeTags = new ArrayList<>(2);
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[0], true));
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[1], true));
-
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                ammConfig.packageId(),
-                MODULE,
-                functionName,
-                typeTags,
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(this.ammConfig.globalId(), false))),
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(poolId, true))),
-                        new Argument.NestedResult(splitIndex, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(amountOutMin.longValue(), PureBcs.BasePureType.U64)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
+    /**
+     * Remove liquidity from a pool without blocking the caller. Pool state and the LP coins
+     * are read concurrently on the client executor.
+     * @param params Parameters for removing liquidity
+     * @param suiKeyPair The keypair for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future SuiTransactionBlockResponse
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> removeLiquidityAsync(RemoveLiquidityParams params, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+        CoinPair pair;
+        try {
+            validate(params);
+            pair = PackageUtil.getCoinPair(params.getTypeX(), params.getTypeY());
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String address = suiKeyPair.address();
+        return super.getCachedPoolAsync(params.getPoolId())
+                .thenCombine(super.warmCoinsAsync(address, pair.lpType(ammConfig.packageId())), (pool, warmed) -> {
+                    TransactionContext context = super.build(address, c -> super.appendRemoveLiquidity(c, params, pool));
+                    return execute(context, List.of(params.getPoolId()), suiKeyPair, gasPrice, gasBudget);
+                });
+    }
 
+    /**
+     * Swap an exact amount of token X for token Y without blocking the caller. Pool state and the
+     * input coins are read concurrently on the client executor.
+     * @param params Swap parameters including amountIn and optional slippage
+     * @param suiKeyPair The keypair for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future SuiTransactionBlockResponse
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> swapExactXToYAsync(SwapParams params, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
         try {
-            return TransactionBuilder.sendTransaction(suiClient, programmableTx, suiKeyPair, TransactionBuilder.buildGasData(suiClient, address, gasPrice, gasBudget, suiUse.get()));
-        } catch (IOException e) {
-            throw new AmmException(e.getMessage());
+            validateExactIn(params);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        String address = suiKeyPair.address();
+        return super.getCachedPoolAsync(params.getPoolId())
+                .thenCombine(super.warmCoinsAsync(address, params.getTypeX()), (pool, warmed) -> {
+                    TransactionContext context = super.build(address, c -> super.appendSwapExactXToY(c, params, pool));
+                    return execute(context, List.of(params.getPoolId()), suiKeyPair, gasPrice, gasBudget);
+                });
     }
 
     /**
-     * Swap token X for an exact amount of token Y
+     * Swap token X for an exact amount of token Y without blocking the caller. Pool state and the
+     * input coins are read concurrently on the client executor.
      * @param params Swap parameters including amountOut and optional slippage
      * @param suiKeyPair The keypair for signing the transaction
      * @param gasPrice gas price
      * @param gasBudget gas limit
-     * @returns SuiTransactionBlockResponse
+     * @returns future SuiTransactionBlockResponse
      */
-    public SuiTransactionBlockResponse swapXToExactY(SwapParams params, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+    public CompletableFuture<SuiTransactionBlockResponse> swapXToExactYAsync(SwapParams params, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+        try {
+            validateExactOut(params);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
         String address = suiKeyPair.address();
+        return super.getCachedPoolAsync(params.getPoolId())
+                .thenCombine(super.warmCoinsAsync(address, params.getTypeX()), (pool, warmed) -> {
+                    TransactionContext context = super.build(address, c -> super.appendSwapXToExactY(c, params, pool));
+                    return execute(context, List.of(params.getPoolId()), suiKeyPair, gasPrice, gasBudget);
+                });
+    }
 
-        // Validate input parameters
-        MathUtil.validateAmount(params.getAmountOut());
-        BigInteger slippage = params.getSlippage();
-        MathUtil.validateSlippage(slippage);
-
-        // Fetch current pool and global state
-        String poolId = params.getPoolId();
-        Pool pool = super.getPool(params.getPoolId());
-
-        // Sort token types and determine swap direction
-        String typeX = params.getTypeX();
-        String[] orderType = PackageUtil.orderType(typeX, params.getTypeY());
-        boolean isSwap = !orderType[0].equals(params.getTypeX());
-        BigInteger balanceX = isSwap ? pool.getBalY() : pool.getBalX();
-        BigInteger balanceY = isSwap ? pool.getBalX() : pool.getBalY();
-        BigInteger amountIn = MathUtil.getAmountIn(pool.getFeeRate(), params.getAmountOut(), balanceX, balanceY);
-
-        BigInteger amountInMax = amountIn.multiply(SwapConstant.SLIPPAGE_SCALE).divide(SwapConstant.SLIPPAGE_SCALE.subtract(slippage));
-        String functionName = isSwap ? SwapConstant.SWAP_Y_TO_EXACT_X : SwapConstant.SWAP_X_TO_EXACT_Y;
-
-        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-
-        int splitIndex = 0;
-        AtomicReference<BigInteger> suiUse = new AtomicReference<>(BigInteger.ZERO);
-        if (typeX.equals(SwapConstant.COIN_TYPE_SUI)) {
-            splitIndex = super.splitSui(programmableTx, amountInMax);
-            suiUse.set(amountInMax);
-        } else {
-            splitIndex = super.splitCoin(programmableTx, address, typeX, amountInMax);
+    /**
+     * Swap along a multi-hop route in one transaction without blocking the caller. The coins of every
+     * hop's input type are read concurrently on the client executor.
+     * @param route route found by Router, see buildRouter
+     * @param slippage slippage tolerance applied to every hop
+     * @param suiKeyPair The keypair for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future SuiTransactionBlockResponse
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> swapRouteAsync(Route route, BigInteger slippage, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+        try {
+            validate(route, slippage);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String address = suiKeyPair.address();
+        String[] types = route.hops().stream().map(RouteHop::typeIn).toArray(String[]::new);
+        return super.warmCoinsAsync(address, types)
+                .thenApply(warmed -> {
+                    TransactionContext context = super.build(address, c -> super.appendRoute(c, route, slippage));
+                    return execute(context, routePoolIds(route), suiKeyPair, gasPrice, gasBudget);
+                });
+    }
+
+    /**
+     * Execute many operations of one sender in one transaction without blocking the caller. Pool states
+     * and the coins of every split coin type are read concurrently on the client executor.
+     * @param intents operations in execution order
+     * @param suiKeyPair The keypair for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future BatchResult
+     */
+    public CompletableFuture<BatchResult> batchAsync(List<BatchIntent> intents, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+        String[] types;
+        try {
+            validate(intents);
+            types = super.batchCoinTypes(intents).toArray(String[]::new);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        String address = suiKeyPair.address();
+        List<String> poolIds = batchPoolIds(intents);
+        return CompletableFuture.supplyAsync(() -> super.getCachedPools(poolIds), executor)
+                .thenCombine(super.warmCoinsAsync(address, types), (pools, warmed) -> {
+                    TransactionContext context = super.appendBatch(intents, address, pools);
+                    return new BatchResult(execute(context, poolIds, suiKeyPair, gasPrice, gasBudget), context.getCallIndexes());
+                });
+    }
+
+    // ------------------------- write API, provider gas price -------------------------
+
+    /**
+     * Same as addLiquidity with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse addLiquidity(AddLiquidityParams params, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return addLiquidity(params, suiKeyPair, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as removeLiquidity with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse removeLiquidity(RemoveLiquidityParams params, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return removeLiquidity(params, suiKeyPair, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as swapExactXToY with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse swapExactXToY(SwapParams params, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return swapExactXToY(params, suiKeyPair, gasPriceProvider.getGasPrice(), gasBudget);
+    }
 
-        // Type tags
-        List<TypeTag> typeTags = new ArrayList<>(2);
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[0], true));
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[1], true));
-
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                ammConfig.packageId(),
-                MODULE,
-                functionName,
-                typeTags,
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(this.ammConfig.globalId(), false))),
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(poolId, true))),
-                        new Argument.NestedResult(splitIndex, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(params.getAmountOut().longValue(), PureBcs.BasePureType.U64)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
+    /**
+     * Same as swapXToExactY with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse swapXToExactY(SwapParams params, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return swapXToExactY(params, suiKeyPair, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as swapRoute with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse swapRoute(Route route, BigInteger slippage, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return swapRoute(route, slippage, suiKeyPair, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as batch with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public BatchResult batch(List<BatchIntent> intents, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return batch(intents, suiKeyPair, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as prepareGasPool with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public List<OwnedCoin> prepareGasPool(SuiKeyPair suiKeyPair, int count, BigInteger amount, BigInteger gasBudget) {
+        return prepareGasPool(suiKeyPair, count, amount, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as addLiquidityAsync with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> addLiquidityAsync(AddLiquidityParams params, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return gasPriceProvider.getGasPriceAsync().thenCompose(gasPrice -> addLiquidityAsync(params, suiKeyPair, gasPrice, gasBudget));
+    }
+
+    /**
+     * Same as removeLiquidityAsync with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> removeLiquidityAsync(RemoveLiquidityParams params, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return gasPriceProvider.getGasPriceAsync().thenCompose(gasPrice -> removeLiquidityAsync(params, suiKeyPair, gasPrice, gasBudget));
+    }
+
+    /**
+     * Same as swapExactXToYAsync with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> swapExactXToYAsync(SwapParams params, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return gasPriceProvider.getGasPriceAsync().thenCompose(gasPrice -> swapExactXToYAsync(params, suiKeyPair, gasPrice, gasBudget));
+    }
+
+    /**
+     * Same as swapXToExactYAsync with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> swapXToExactYAsync(SwapParams params, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return gasPriceProvider.getGasPriceAsync().thenCompose(gasPrice -> swapXToExactYAsync(params, suiKeyPair, gasPrice, gasBudget));
+    }
+
+    /**
+     * Same as swapRouteAsync with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> swapRouteAsync(Route route, BigInteger slippage, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return gasPriceProvider.getGasPriceAsync().thenCompose(gasPrice -> swapRouteAsync(route, slippage, suiKeyPair, gasPrice, gasBudget));
+    }
+
+    /**
+     * Same as batchAsync with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public CompletableFuture<BatchResult> batchAsync(List<BatchIntent> intents, SuiKeyPair suiKeyPair, BigInteger gasBudget) {
+        return gasPriceProvider.getGasPriceAsync().thenCompose(gasPrice -> batchAsync(intents, suiKeyPair, gasPrice, gasBudget));
+    }
+
+    /**
+     * Sign and send a built transaction, the coin cache is settled from the effects and the pools are
+     * invalidated in the cache afterwards. With gas estimation enabled gasBudget is the upper bound.
+     */
+    private SuiTransactionBlockResponse execute(TransactionContext context, List<String> poolIds, SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+        GasData gasData;
+        try {
+            gasData = context.gasData(gasPrice, super.gasBudget(context, gasPrice, gasBudget));
+        } catch (RuntimeException e) {
+            context.release();
+            throw e;
+        }
 
+        SuiTransactionBlockResponse response = null;
         try {
-            return TransactionBuilder.sendTransaction(suiClient, programmableTx, suiKeyPair, TransactionBuilder.buildGasData(suiClient, address, gasPrice, gasBudget, suiUse.get()));
+            response = TransactionBuilder.sendTransaction(suiClient, context.finish(), suiKeyPair, gasData);
+            return response;
         } catch (IOException e) {
             throw new AmmException(e.getMessage());
+        } finally {
+            context.settle(response);
+            poolIds.forEach(super::invalidatePool);
         }
     }
 
@@ -16,20 +16,15 @@ package io.dipcoin.sui.amm.client;
 import io.dipcoin.sui.amm.constant.AmmNetwork;
 import io.dipcoin.sui.amm.constant.SwapConstant;
 import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.OwnedCoin;
+import io.dipcoin.sui.amm.model.Route;
 import io.dipcoin.sui.amm.model.request.AddLiquidityParams;
+import io.dipcoin.sui.amm.model.request.BatchIntent;
 import io.dipcoin.sui.amm.model.request.RemoveLiquidityParams;
 import io.dipcoin.sui.amm.model.request.SwapParams;
+import io.dipcoin.sui.amm.model.response.BatchResult;
 import io.dipcoin.sui.amm.model.response.Pool;
-import io.dipcoin.sui.amm.utils.MathUtil;
-import io.dipcoin.sui.amm.utils.PackageUtil;
-import io.dipcoin.sui.bcs.PureBcs;
-import io.dipcoin.sui.bcs.TypeTagSerializer;
-import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
-import io.dipcoin.sui.bcs.types.tag.TypeTag;
-import io.dipcoin.sui.bcs.types.transaction.Argument;
-import io.dipcoin.sui.bcs.types.transaction.Command;
-import io.dipcoin.sui.bcs.types.transaction.ProgrammableMoveCall;
-import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.bcs.types.gas.GasData;
 import io.dipcoin.sui.client.TransactionBuilder;
 import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
 import io.dipcoin.sui.protocol.SuiClient;
@@ -40,29 +35,79 @@ import org.bouncycastle.util.encoders.Base64;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 /**
  * @author : Same
  * @datetime : 2025/11/6 10:53
- * @Description : self-implemented wallet signature for offline signed transactions to the on-chain client (implement WalletService)
+ * @Description : self-implemented wallet signature for offline signed transactions to the on-chain client (implement WalletService,
+ * or AmmAsyncWalletService for a signer that completes futures)
  */
 public class AmmOffSignClient extends AbstractOnChainClient {
 
+    /**
+     * Serialized transaction waiting for its signature
+     * @param context build context, settled or released once the transaction is sent or dropped
+     * @param poolIds pools invalidated after sending
+     * @param txBytes base64 BCS transaction data
+     * @param action operation name for errors
+     */
+    private record Prepared(TransactionContext context, List<String> poolIds, String txBytes, String action) {}
+
     private final AmmWalletService ammWalletService;
 
+    private final AmmAsyncWalletService ammAsyncWalletService;
+
+    private volatile TransactionPipeline<Prepared> pipeline;
+
     public AmmOffSignClient(AmmNetwork ammNetwork, AmmWalletService ammWalletService) {
-        super.ammConfig = ammNetwork.getConfig();
-        super.suiClient = SuiClient.build(new HttpService(ammConfig.suiRpc()));
-        this.ammWalletService = ammWalletService;
+        this(ammNetwork, SuiClient.build(new HttpService(ammNetwork.getConfig().suiRpc())), ammWalletService);
     }
 
     public AmmOffSignClient(AmmNetwork ammNetwork, SuiClient suiClient, AmmWalletService ammWalletService) {
+        super.ammNetwork = ammNetwork;
         super.ammConfig = ammNetwork.getConfig();
         super.suiClient = suiClient;
         this.ammWalletService = ammWalletService;
+        // blocking signatures run on the client executor, read when signing so setExecutor applies
+        this.ammAsyncWalletService = AmmAsyncWalletService.of(ammWalletService, task -> executor.execute(task));
+    }
+
+    /**
+     * Client over a non-blocking wallet service, the async write methods wait for no signature on any thread
+     */
+    public AmmOffSignClient(AmmNetwork ammNetwork, AmmAsyncWalletService ammAsyncWalletService) {
+        this(ammNetwork, SuiClient.build(new HttpService(ammNetwork.getConfig().suiRpc())), ammAsyncWalletService);
+    }
+
+    public AmmOffSignClient(AmmNetwork ammNetwork, SuiClient suiClient, AmmAsyncWalletService ammAsyncWalletService) {
+        super.ammNetwork = ammNetwork;
+        super.ammConfig = ammNetwork.getConfig();
+        super.suiClient = suiClient;
+        this.ammWalletService = blocking(ammAsyncWalletService);
+        this.ammAsyncWalletService = ammAsyncWalletService;
+    }
+
+    /**
+     * Blocking view of an async wallet service, for the blocking write API and the pipeline's sign lanes
+     */
+    private static AmmWalletService blocking(AmmAsyncWalletService wallet) {
+        return new AmmWalletService() {
+
+            @Override
+            public String sign(String address, byte[] txData) {
+                return join(wallet.signAsync(address, txData));
+            }
+
+            @Override
+            public List<String> signBatch(String address, List<byte[]> txData) {
+                return join(wallet.signBatchAsync(address, txData));
+            }
+        };
     }
 
     // ------------------------- write API -------------------------
@@ -77,100 +122,14 @@ public class AmmOffSignClient extends AbstractOnChainClient {
      */
     public SuiTransactionBlockResponse addLiquidity(AddLiquidityParams params, String sender, long gasPrice, BigInteger gasBudget) {
         // Validate input parameters
-        MathUtil.validateAmount(params.getAmountX());
-        MathUtil.validateAmount(params.getAmountY());
-        BigInteger slippage = params.getSlippage();
-        MathUtil.validateSlippage(slippage);
-
-        // Fetch current pool and global state
-        String poolId = params.getPoolId();
-        Pool pool = super.getPool(poolId);
-
-        // Sort token types and determine swap direction
-        String[] orderType = PackageUtil.orderType(params.getTypeX(), params.getTypeY());
-        String typeX = orderType[0];
-        String typeY = orderType[1];
-        boolean isSwap = !typeX.equals(params.getTypeX());
-        BigInteger amountX = isSwap ? params.getAmountY() : params.getAmountX();
-        BigInteger amountY = isSwap ? params.getAmountX() : params.getAmountY();
-        BigInteger balX = pool.getBalX();
-        BigInteger balY = pool.getBalY();
-
-        BigInteger[] calcOptimalCoinValues = MathUtil.calcOptimalCoinValues(amountX, amountY, balX, balY);
-        BigInteger coinXDesired = calcOptimalCoinValues[0];
-        BigInteger coinYDesired = calcOptimalCoinValues[1];
-        BigInteger expectedLp = MathUtil.getExpectedLiquidityAmount(coinXDesired, coinYDesired, balX, balY, pool.getLpSupply());
-
-        BigInteger minAddLiquidityLpAmount = pool.getMinAddLiquidityLpAmount();
-        if (expectedLp.compareTo(minAddLiquidityLpAmount) < 0) {
-            throw new AmmException("add liquidity too little, expectedLp: " + expectedLp + " is less than min_add_liquidity_lp_amount: " + minAddLiquidityLpAmount);
-        }
+        validate(params);
 
-        BigInteger coinXMin = MathUtil.getSlippageAmount(coinXDesired, slippage);
-        BigInteger coinYMin = MathUtil.getSlippageAmount(coinYDesired, slippage);
+        // Fetch current pool state
+        Pool pool = super.getCachedPool(params.getPoolId());
 
         // Build transaction to split coins and add liquidity
-        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-
-        AtomicReference<BigInteger> suiUse = new AtomicReference<>(BigInteger.ZERO);
-        int splitIndexX = 0;
-        if (typeX.equals(SwapConstant.COIN_TYPE_SUI)) {
-            splitIndexX = super.splitSui(programmableTx, amountX);
-            suiUse.set(amountX);
-        } else {
-            splitIndexX = super.splitCoin(programmableTx, sender, typeX, amountX);
-        }
-        int splitIndexY = 0;
-        if (typeY.equals(SwapConstant.COIN_TYPE_SUI)) {
-            splitIndexY = super.splitSui(programmableTx, amountY);
-            suiUse.set(amountY);
-        } else {
-            splitIndexY = super.splitCoin(programmableTx, sender, typeY, amountY);
-        }
-
-        // Type tags
-        List<TypeTag> typeTags = new ArrayList<>(2);
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[0], true));
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[1], true));
-
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                ammConfig.packageId(),
-                MODULE,
-                SwapConstant.ADD_LIQUIDITY,
-                typeTags,
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(this.ammConfig.globalId(), false))),
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(poolId, true))),
-                        new Argument.NestedResult(splitIndexX, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(coinXMin.longValue(), PureBcs.BasePureType.U64))),
-                        new Argument.NestedResult(splitIndexY, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(coinYMin.longValue(), PureBcs.BasePureType.U64)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
-
-        String txBytes;
-        try {
-            txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender, TransactionBuilder.buildGasData(suiClient, sender, gasPrice, gasBudget, suiUse.get()));
-        } catch (IOException e) {
-            throw new AmmException("unsafe moveCall addLiquidity failed!", e);
-        }
-
-        String signature = ammWalletService.sign(sender, Base64.decode(txBytes));
-
-        try {
-            return TransactionBuilder.sendTransaction(suiClient, txBytes, List.of(signature));
-        } catch (IOException e) {
-            throw new RpcRequestFailedException("Failed to send addLiquidity transaction", e);
-        }
+        TransactionContext context = super.build(sender, c -> super.appendAddLiquidity(c, params, pool));
+        return execute(context, List.of(params.getPoolId()), sender, gasPrice, gasBudget, "addLiquidity");
     }
 
 
@@ -184,81 +143,14 @@ public class AmmOffSignClient extends AbstractOnChainClient {
      */
     public SuiTransactionBlockResponse removeLiquidity(RemoveLiquidityParams params, String sender, long gasPrice, BigInteger gasBudget) {
         // Validate input parameters
-        BigInteger removeLpAmount = params.getRemoveLpAmount();
-        MathUtil.validateAmount(removeLpAmount);
-        BigInteger slippage = params.getSlippage();
-        // Calculate minimum acceptable amounts with slippage protection
-        MathUtil.validateSlippage(slippage);
-
-        // Get LP token type based on sorted token types
-        String[] lpType = PackageUtil.getLpType(this.ammConfig.packageId(), params.getTypeX(), params.getTypeY());
-        String typeX = lpType[0];
-        String typeY = lpType[1];
-
-        // Fetch current pool and global state
-        String poolId = params.getPoolId();
-        Pool pool = super.getPool(poolId);
-
-        BigInteger minRemoveLiquidityLpAmount = pool.getMinAddLiquidityLpAmount().divide(BigInteger.TEN);
-        if (removeLpAmount.compareTo(minRemoveLiquidityLpAmount) < 0) {
-            throw new AmmException("removeLpAmount: " + removeLpAmount + " is less than min_remove_liquidity_lp_amount: " + minRemoveLiquidityLpAmount);
-        }
-
-        // Build transaction to split coins and remove liquidity
-        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-        int index = super.splitCoin(programmableTx, sender, lpType[2], removeLpAmount);
-        BigInteger balX = pool.getBalX();
-        BigInteger balY = pool.getBalY();
-        BigInteger lpSupply = pool.getLpSupply();
-        BigInteger coinXOut = MathUtil.mulDiv(balX, removeLpAmount, lpSupply);
-        BigInteger coinYOut = MathUtil.mulDiv(balY, removeLpAmount, lpSupply);
-        BigInteger coinXMin = MathUtil.getSlippageAmount(coinXOut, slippage);
-        BigInteger coinYMin = MathUtil.getSlippageAmount(coinYOut, slippage);
-
-        // Type tags
-        List<TypeTag> typeTags = new ArrayList<>(2);
-        typeTags.add(TypeTagSerializer.parseFromStr(typeX, true));
-        typeTags.add(TypeTagSerializer.parseFromStr(typeY, true));
-
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                ammConfig.packageId(),
-                MODULE,
-                SwapConstant.REMOVE_LIQUIDITY,
-                typeTags,
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(this.ammConfig.globalId(), false))),
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(poolId, true))),
-                        new Argument.NestedResult(index, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(removeLpAmount.longValue(), PureBcs.BasePureType.U64))),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(coinXMin.longValue(), PureBcs.BasePureType.U64))),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(coinYMin.longValue(), PureBcs.BasePureType.U64)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
-
-        String txBytes;
-        try {
-            txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender, TransactionBuilder.buildGasData(suiClient, sender, gasPrice, gasBudget));
-        } catch (IOException e) {
-            throw new AmmException("unsafe moveCall removeLiquidity failed!", e);
-        }
+        validate(params);
 
-        String signature = ammWalletService.sign(sender, Base64.decode(txBytes));
+        // Fetch current pool state
+        Pool pool = super.getCachedPool(params.getPoolId());
 
-        try {
-            return TransactionBuilder.sendTransaction(suiClient, txBytes, List.of(signature));
-        } catch (IOException e) {
-            throw new RpcRequestFailedException("Failed to send removeLiquidity transaction", e);
-        }
+        // Build transaction to split coins and remove liquidity
+        TransactionContext context = super.build(sender, c -> super.appendRemoveLiquidity(c, params, pool));
+        return execute(context, List.of(params.getPoolId()), sender, gasPrice, gasBudget, "removeLiquidity");
     }
 
     /**
@@ -271,158 +163,429 @@ public class AmmOffSignClient extends AbstractOnChainClient {
      */
     public SuiTransactionBlockResponse swapExactXToY(SwapParams params, String sender, long gasPrice, BigInteger gasBudget) {
         // Validate input parameters
-        BigInteger amountIn = params.getAmountIn();
-        MathUtil.validateAmount(amountIn);
-        BigInteger slippage = params.getSlippage();
-        MathUtil.validateSlippage(slippage);
-
-        // Fetch current pool and global state
-        String poolId = params.getPoolId();
-        Pool pool = super.getPool(params.getPoolId());
-
-        // Sort token types and determine swap direction
-        String typeX = params.getTypeX();
-        String[] orderType = PackageUtil.orderType(typeX, params.getTypeY());
-        boolean isSwap = !orderType[0].equals(typeX);
-        BigInteger balanceX = isSwap ? pool.getBalY() : pool.getBalX();
-        BigInteger balanceY = isSwap ? pool.getBalX() : pool.getBalY();
-        BigInteger amountOut = MathUtil.getAmountOut(pool.getFeeRate(), amountIn, balanceX, balanceY);
-
-        BigInteger amountOutMin = MathUtil.getSlippageAmount(amountOut, slippage);
-        String functionName = isSwap ? SwapConstant.SWAP_EXACT_Y_TO_X : SwapConstant.SWAP_EXACT_X_TO_Y;
-
-        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-
-        int splitIndex = 0;
-        AtomicReference<BigInteger> suiUse = new AtomicReference<>(BigInteger.ZERO);
-        if (typeX.equals(SwapConstant.COIN_TYPE_SUI)) {
-            splitIndex = super.splitSui(programmableTx, amountIn);
-            suiUse.set(amountIn);
-        } else {
-            splitIndex = super.splitCoin(programmableTx, sender, typeX, amountIn);
+        validateExactIn(params);
+
+        // Fetch current pool state
+        Pool pool = super.getCachedPool(params.getPoolId());
+
+        TransactionContext context = super.build(sender, c -> super.appendSwapExactXToY(c, params, pool));
+        return execute(context, List.of(params.getPoolId()), sender, gasPrice, gasBudget, "swapExactXToY");
+    }
+
+    /**
+     * Swap token X for an exact amount of token Y
+     * @param params Swap parameters including amountOut and optional slippage
+     * @param sender The sender for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns SuiTransactionBlockResponse
+     */
+    public SuiTransactionBlockResponse swapXToExactY(SwapParams params, String sender, long gasPrice, BigInteger gasBudget) {
+        // Validate input parameters
+        validateExactOut(params);
+
+        // Fetch current pool state
+        Pool pool = super.getCachedPool(params.getPoolId());
+
+        TransactionContext context = super.build(sender, c -> super.appendSwapXToExactY(c, params, pool));
+        return execute(context, List.of(params.getPoolId()), sender, gasPrice, gasBudget, "swapXToExactY");
+    }
+
+    /**
+     * Swap along a multi-hop route in one transaction
+     * @param route route found by Router, see buildRouter
+     * @param slippage slippage tolerance applied to every hop
+     * @param sender The sender for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns SuiTransactionBlockResponse
+     */
+    public SuiTransactionBlockResponse swapRoute(Route route, BigInteger slippage, String sender, long gasPrice, BigInteger gasBudget) {
+        // Validate input parameters
+        validate(route, slippage);
+
+        TransactionContext context = super.build(sender, c -> super.appendRoute(c, route, slippage));
+        return execute(context, routePoolIds(route), sender, gasPrice, gasBudget, "swapRoute");
+    }
+
+    /**
+     * Execute many operations of one sender in one transaction. Pools are read in one bulk call (or from
+     * the pool cache), the global object and each pool are passed once, and coin splits are grouped per
+     * coin type. The intents succeed or fail together.
+     * @param intents operations in execution order
+     * @param sender The sender for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns BatchResult with the response and the move call command index of each intent
+     */
+    public BatchResult batch(List<BatchIntent> intents, String sender, long gasPrice, BigInteger gasBudget) {
+        // Validate input parameters
+        validate(intents);
+
+        List<String> poolIds = batchPoolIds(intents);
+        Map<String, Pool> pools = super.getCachedPools(poolIds);
+        TransactionContext context = super.appendBatch(intents, sender, pools);
+        return new BatchResult(execute(context, poolIds, sender, gasPrice, gasBudget, "batch"), context.getCallIndexes());
+    }
+
+    /**
+     * Split SUI from the gas coin into count gas coins of amount each and pool them for the sender.
+     * Afterwards up to count transactions of the sender can be in flight at once, each paying gas with its
+     * own coin, and a gas coin is reused at the version its transaction's effects report.
+     * @param sender The sender for signing the transaction
+     * @param count number of gas coins
+     * @param amount balance of each gas coin, covering the gas budget plus any SUI a transaction splits
+     * @param gasPrice gas price
+     * @param gasBudget gas limit of the split transaction
+     * @returns pooled gas coins
+     */
+    public List<OwnedCoin> prepareGasPool(String sender, int count, BigInteger amount, long gasPrice, BigInteger gasBudget) {
+        validateGasPool(count, amount);
+
+        TransactionContext context = super.build(sender, c -> c.splitGasToSender(amount, count));
+        return super.registerGasCoins(sender, execute(context, List.of(), sender, gasPrice, gasBudget, "prepareGasPool"), amount);
+    }
+
+    // ------------------------- pipelined write API -------------------------
+
+    /**
+     * Run the async write methods through build, sign and submit stages joined by bounded queues, so signing
+     * overlaps with building and submitting other transactions. The transactions of a sender are sent in the
+     * order the async methods were called, and those waiting to be signed are signed together through
+     * AmmWalletService.signBatch. The returned futures complete on the client executor, so a callback may call
+     * disablePipeline. A pipeline already running is closed once the new one is in place.
+     * @param buildParallelism concurrent builds, pool reads and coin selection included
+     * @param signParallelism concurrent wallet service calls
+     * @param submitParallelism concurrent submissions
+     * @param queueCapacity queued transactions per lane of each stage, a full queue blocks the stage feeding it
+     * @param signBatchSize maximum transactions per signBatch call
+     */
+    public void enablePipeline(int buildParallelism, int signParallelism, int submitParallelism, int queueCapacity, int signBatchSize) {
+        TransactionPipeline<Prepared> previous = this.pipeline;
+        this.pipeline = new TransactionPipeline<>(buildParallelism, signParallelism, submitParallelism, queueCapacity, signBatchSize,
+                this::signBatch, this::send, prepared -> prepared.context().release(), task -> executor.execute(task));
+        if (previous != null) {
+            previous.close();
         }
+    }
 
-        // Type tags
-        List<TypeTag> typeTags = new ArrayList<>(2);
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[0], true));
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[1], true));
-
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                ammConfig.packageId(),
-                MODULE,
-                functionName,
-                typeTags,
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(this.ammConfig.globalId(), false))),
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(poolId, true))),
-                        new Argument.NestedResult(splitIndex, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(amountOutMin.longValue(), PureBcs.BasePureType.U64)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
-
-        String txBytes;
+    /**
+     * Same as enablePipeline with at most SwapConstant.DEFAULT_SIGN_BATCH_SIZE transactions per signBatch call
+     */
+    public void enablePipeline(int buildParallelism, int signParallelism, int submitParallelism, int queueCapacity) {
+        enablePipeline(buildParallelism, signParallelism, submitParallelism, queueCapacity, SwapConstant.DEFAULT_SIGN_BATCH_SIZE);
+    }
+
+    /**
+     * Stop the pipeline after the queued transactions are sent, the async methods run on the client executor again
+     */
+    public void disablePipeline() {
+        TransactionPipeline<Prepared> previous = this.pipeline;
+        this.pipeline = null;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public boolean isPipelined() {
+        return pipeline != null;
+    }
+
+    /**
+     * Add liquidity to a pool without waiting for the transaction, see enablePipeline
+     * @param params Parameters for adding liquidity
+     * @param sender The sender for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future SuiTransactionBlockResponse
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> addLiquidityAsync(AddLiquidityParams params, String sender, long gasPrice, BigInteger gasBudget) {
         try {
-            txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender, TransactionBuilder.buildGasData(suiClient, sender, gasPrice, gasBudget, suiUse.get()));
-        } catch (IOException e) {
-            throw new AmmException("unsafe moveCall swapExactXToY failed!", e);
+            validate(params);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return submit(sender, () -> {
+            Pool pool = super.getCachedPool(params.getPoolId());
+            TransactionContext context = super.build(sender, c -> super.appendAddLiquidity(c, params, pool));
+            return prepare(context, List.of(params.getPoolId()), sender, gasPrice, gasBudget, "addLiquidity");
+        }, (prepared, response) -> response);
+    }
 
-        String signature = ammWalletService.sign(sender, Base64.decode(txBytes));
+    /**
+     * Remove liquidity from a pool without waiting for the transaction, see enablePipeline
+     * @param params Parameters for removing liquidity
+     * @param sender The sender for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future SuiTransactionBlockResponse
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> removeLiquidityAsync(RemoveLiquidityParams params, String sender, long gasPrice, BigInteger gasBudget) {
+        try {
+            validate(params);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(sender, () -> {
+            Pool pool = super.getCachedPool(params.getPoolId());
+            TransactionContext context = super.build(sender, c -> super.appendRemoveLiquidity(c, params, pool));
+            return prepare(context, List.of(params.getPoolId()), sender, gasPrice, gasBudget, "removeLiquidity");
+        }, (prepared, response) -> response);
+    }
 
+    /**
+     * Swap an exact amount of token X for token Y without waiting for the transaction, see enablePipeline
+     * @param params Swap parameters including amountIn and optional slippage
+     * @param sender The sender for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future SuiTransactionBlockResponse
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> swapExactXToYAsync(SwapParams params, String sender, long gasPrice, BigInteger gasBudget) {
         try {
-            return TransactionBuilder.sendTransaction(suiClient, txBytes, List.of(signature));
-        } catch (IOException e) {
-            throw new RpcRequestFailedException("Failed to send swapExactXToY transaction", e);
+            validateExactIn(params);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
         }
+        return submit(sender, () -> {
+            Pool pool = super.getCachedPool(params.getPoolId());
+            TransactionContext context = super.build(sender, c -> super.appendSwapExactXToY(c, params, pool));
+            return prepare(context, List.of(params.getPoolId()), sender, gasPrice, gasBudget, "swapExactXToY");
+        }, (prepared, response) -> response);
     }
 
     /**
-     * Swap token X for an exact amount of token Y
+     * Swap token X for an exact amount of token Y without waiting for the transaction, see enablePipeline
      * @param params Swap parameters including amountOut and optional slippage
      * @param sender The sender for signing the transaction
      * @param gasPrice gas price
      * @param gasBudget gas limit
-     * @returns SuiTransactionBlockResponse
+     * @returns future SuiTransactionBlockResponse
      */
-    public SuiTransactionBlockResponse swapXToExactY(SwapParams params, String sender, long gasPrice, BigInteger gasBudget) {
-        // Validate input parameters
-        MathUtil.validateAmount(params.getAmountOut());
-        BigInteger slippage = params.getSlippage();
-        MathUtil.validateSlippage(slippage);
-
-        // Fetch current pool and global state
-        String poolId = params.getPoolId();
-        Pool pool = super.getPool(params.getPoolId());
-
-        // Sort token types and determine swap direction
-        String typeX = params.getTypeX();
-        String[] orderType = PackageUtil.orderType(typeX, params.getTypeY());
-        boolean isSwap = !orderType[0].equals(params.getTypeX());
-        BigInteger balanceX = isSwap ? pool.getBalY() : pool.getBalX();
-        BigInteger balanceY = isSwap ? pool.getBalX() : pool.getBalY();
-        BigInteger amountIn = MathUtil.getAmountIn(pool.getFeeRate(), params.getAmountOut(), balanceX, balanceY);
-
-        BigInteger amountInMax = amountIn.multiply(SwapConstant.SLIPPAGE_SCALE).divide(SwapConstant.SLIPPAGE_SCALE.subtract(slippage));
-        String functionName = isSwap ? SwapConstant.SWAP_Y_TO_EXACT_X : SwapConstant.SWAP_X_TO_EXACT_Y;
-
-        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-
-        int splitIndex = 0;
-        AtomicReference<BigInteger> suiUse = new AtomicReference<>(BigInteger.ZERO);
-        if (typeX.equals(SwapConstant.COIN_TYPE_SUI)) {
-            splitIndex = super.splitSui(programmableTx, amountInMax);
-            suiUse.set(amountInMax);
-        } else {
-            splitIndex = super.splitCoin(programmableTx, sender, typeX, amountInMax);
+    public CompletableFuture<SuiTransactionBlockResponse> swapXToExactYAsync(SwapParams params, String sender, long gasPrice, BigInteger gasBudget) {
+        try {
+            validateExactOut(params);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(sender, () -> {
+            Pool pool = super.getCachedPool(params.getPoolId());
+            TransactionContext context = super.build(sender, c -> super.appendSwapXToExactY(c, params, pool));
+            return prepare(context, List.of(params.getPoolId()), sender, gasPrice, gasBudget, "swapXToExactY");
+        }, (prepared, response) -> response);
+    }
+
+    /**
+     * Swap along a multi-hop route without waiting for the transaction, see enablePipeline
+     * @param route route found by Router, see buildRouter
+     * @param slippage slippage tolerance applied to every hop
+     * @param sender The sender for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future SuiTransactionBlockResponse
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> swapRouteAsync(Route route, BigInteger slippage, String sender, long gasPrice, BigInteger gasBudget) {
+        try {
+            validate(route, slippage);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return submit(sender, () -> {
+            TransactionContext context = super.build(sender, c -> super.appendRoute(c, route, slippage));
+            return prepare(context, routePoolIds(route), sender, gasPrice, gasBudget, "swapRoute");
+        }, (prepared, response) -> response);
+    }
+
+    /**
+     * Execute many operations of one sender in one transaction without waiting for it, see enablePipeline
+     * @param intents operations in execution order
+     * @param sender The sender for signing the transaction
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns future BatchResult
+     */
+    public CompletableFuture<BatchResult> batchAsync(List<BatchIntent> intents, String sender, long gasPrice, BigInteger gasBudget) {
+        try {
+            validate(intents);
+        } catch (AmmException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        List<String> poolIds = batchPoolIds(intents);
+        return submit(sender, () -> {
+            Map<String, Pool> pools = super.getCachedPools(poolIds);
+            TransactionContext context = super.appendBatch(intents, sender, pools);
+            return prepare(context, poolIds, sender, gasPrice, gasBudget, "batch");
+        }, (prepared, response) -> new BatchResult(response, prepared.context().getCallIndexes()));
+    }
+
+    /**
+     * Run a transaction through the pipeline when enabled. Otherwise build it on the client executor, sign it
+     * through the async wallet service and send it on the client executor once signed, no thread waits for the
+     * signature.
+     */
+    private <T> CompletableFuture<T> submit(String sender, Supplier<Prepared> build, BiFunction<Prepared, SuiTransactionBlockResponse, T> result) {
+        TransactionPipeline<Prepared> pipeline = this.pipeline;
+        if (pipeline != null) {
+            return pipeline.submit(sender, build, result);
+        }
+        return CompletableFuture.supplyAsync(build, executor)
+                .thenCompose(prepared -> signAsync(sender, prepared)
+                        .thenApplyAsync(signature -> result.apply(prepared, send(prepared, signature)), executor));
+    }
+
+    // ------------------------- write API, provider gas price -------------------------
+
+    /**
+     * Same as addLiquidity with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse addLiquidity(AddLiquidityParams params, String sender, BigInteger gasBudget) {
+        return addLiquidity(params, sender, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as removeLiquidity with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse removeLiquidity(RemoveLiquidityParams params, String sender, BigInteger gasBudget) {
+        return removeLiquidity(params, sender, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as swapExactXToY with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse swapExactXToY(SwapParams params, String sender, BigInteger gasBudget) {
+        return swapExactXToY(params, sender, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as swapXToExactY with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse swapXToExactY(SwapParams params, String sender, BigInteger gasBudget) {
+        return swapXToExactY(params, sender, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as swapRoute with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public SuiTransactionBlockResponse swapRoute(Route route, BigInteger slippage, String sender, BigInteger gasBudget) {
+        return swapRoute(route, slippage, sender, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as batch with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public BatchResult batch(List<BatchIntent> intents, String sender, BigInteger gasBudget) {
+        return batch(intents, sender, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Same as prepareGasPool with the gas price taken from the gas price provider, see getGasPriceProvider
+     */
+    public List<OwnedCoin> prepareGasPool(String sender, int count, BigInteger amount, BigInteger gasBudget) {
+        return prepareGasPool(sender, count, amount, gasPriceProvider.getGasPrice(), gasBudget);
+    }
+
+    /**
+     * Serialize, sign through the wallet service and send a built transaction. Leased coins are released if
+     * the transaction is never sent, otherwise the coin cache is settled from the effects; the pools are
+     * invalidated in the cache afterwards. With gas estimation enabled gasBudget is the upper bound.
+     */
+    private SuiTransactionBlockResponse execute(TransactionContext context, List<String> poolIds, String sender, long gasPrice, BigInteger gasBudget, String action) {
+        Prepared prepared = prepare(context, poolIds, sender, gasPrice, gasBudget, action);
+        return send(prepared, sign(sender, prepared));
+    }
+
+    /**
+     * Serialize a built transaction, leased coins are released on failure
+     */
+    private Prepared prepare(TransactionContext context, List<String> poolIds, String sender, long gasPrice, BigInteger gasBudget, String action) {
+        try {
+            GasData gasData = context.gasData(gasPrice, super.gasBudget(context, gasPrice, gasBudget));
+            String txBytes = TransactionBuilder.serializeTransactionBytes(context.finish(), sender, gasData);
+            return new Prepared(context, poolIds, txBytes, action);
+        } catch (IOException e) {
+            context.release();
+            throw new AmmException("unsafe moveCall " + action + " failed!", e);
+        } catch (RuntimeException e) {
+            context.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Sign a serialized transaction through the wallet service, leased coins are released on failure
+     */
+    private String sign(String sender, Prepared prepared) {
+        try {
+            return signBytes(sender, prepared);
+        } catch (RuntimeException e) {
+            prepared.context().release();
+            throw e;
         }
+    }
 
-        // Type tags
-        List<TypeTag> typeTags = new ArrayList<>(2);
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[0], true));
-        typeTags.add(TypeTagSerializer.parseFromStr(orderType[1], true));
-
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                ammConfig.packageId(),
-                MODULE,
-                functionName,
-                typeTags,
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(this.ammConfig.globalId(), false))),
-                        Argument.ofInput(programmableTx.addInput(super.getSharedObject(poolId, true))),
-                        new Argument.NestedResult(splitIndex, 0),
-                        Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(params.getAmountOut().longValue(), PureBcs.BasePureType.U64)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
-
-        String txBytes;
+    /**
+     * Hand the wallet service the decoded transaction. A wallet signing from buffers gets a view of a pooled
+     * buffer, so no transaction-sized array is allocated once the pool is warm; any other gets a decoded array.
+     */
+    private String signBytes(String sender, Prepared prepared) {
+        if (!ammWalletService.signsFromBuffer()) {
+            return ammWalletService.sign(sender, Base64.decode(prepared.txBytes()));
+        }
+        TxBuffer buffer = TxBuffer.acquire();
         try {
-            txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender, TransactionBuilder.buildGasData(suiClient, sender, gasPrice, gasBudget, suiUse.get()));
+            Base64.decode(prepared.txBytes(), buffer);
+            return ammWalletService.sign(sender, buffer.view());
         } catch (IOException e) {
-            throw new AmmException("unsafe moveCall swapXToExactY failed!", e);
+            throw new AmmException("Failed to decode " + prepared.action() + " transaction", e);
+        } finally {
+            buffer.release();
         }
+    }
 
-        String signature = ammWalletService.sign(sender, Base64.decode(txBytes));
+    /**
+     * Sign a serialized transaction through the async wallet service, leased coins are released on failure
+     */
+    private CompletableFuture<String> signAsync(String sender, Prepared prepared) {
+        CompletableFuture<String> signature;
+        try {
+            signature = ammAsyncWalletService.signAsync(sender, Base64.decode(prepared.txBytes()));
+        } catch (RuntimeException e) {
+            signature = CompletableFuture.failedFuture(e);
+        }
+        return signature.whenComplete((s, e) -> {
+            if (e != null) {
+                prepared.context().release();
+            }
+        });
+    }
 
+    /**
+     * Sign serialized transactions of one sender in one wallet service call, the caller releases on failure
+     */
+    private List<String> signBatch(String sender, List<Prepared> prepared) {
+        if (prepared.size() == 1) {
+            return List.of(signBytes(sender, prepared.getFirst()));
+        }
+        List<byte[]> txData = new ArrayList<>(prepared.size());
+        for (Prepared transaction : prepared) {
+            txData.add(Base64.decode(transaction.txBytes()));
+        }
+        return ammWalletService.signBatch(sender, txData);
+    }
+
+    /**
+     * Send a signed transaction, then settle the coin cache and invalidate the pools
+     */
+    private SuiTransactionBlockResponse send(Prepared prepared, String signature) {
+        SuiTransactionBlockResponse response = null;
         try {
-            return TransactionBuilder.sendTransaction(suiClient, txBytes, List.of(signature));
+            response = TransactionBuilder.sendTransaction(suiClient, prepared.txBytes(), List.of(signature));
+            return response;
         } catch (IOException e) {
-            throw new RpcRequestFailedException("Failed to send swapXToExactY transaction", e);
+            throw new RpcRequestFailedException("Failed to send " + prepared.action() + " transaction", e);
+        } finally {
+            prepared.context().settle(response);
+            prepared.poolIds().forEach(super::invalidatePool);
         }
     }
 
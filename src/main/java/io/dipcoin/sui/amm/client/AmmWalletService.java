@@ -13,6 +13,10 @@
 
 package io.dipcoin.sui.amm.client;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author : Same
  * @datetime : 2025/11/6 10:51
@@ -28,4 +32,40 @@ public interface AmmWalletService {
      */
     String sign(String address, byte[] txData);
 
+    /**
+     * transaction signature over a read-only view of the transaction bytes, override together with
+     * signsFromBuffer to sign without copying them
+     * @param address sender
+     * @param txData transaction bytes of bcs type between position and limit, only valid during the call
+     * @return signature
+     */
+    default String sign(String address, ByteBuffer txData) {
+        byte[] data = new byte[txData.remaining()];
+        txData.duplicate().get(data);
+        return sign(address, data);
+    }
+
+    /**
+     * whether sign(String, ByteBuffer) is overridden to sign from the view, the client only decodes transactions
+     * into pooled buffers for such a wallet and hands the others a decoded array
+     * @return true to be called with ByteBuffer views
+     */
+    default boolean signsFromBuffer() {
+        return false;
+    }
+
+    /**
+     * sign many transactions of one sender, override when the backend signs several payloads per request
+     * @param address sender
+     * @param txData transaction bytes of bcs type, in order
+     * @return signatures in the order of txData
+     */
+    default List<String> signBatch(String address, List<byte[]> txData) {
+        List<String> signatures = new ArrayList<>(txData.size());
+        for (byte[] data : txData) {
+            signatures.add(sign(address, data));
+        }
+        return signatures;
+    }
+
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.client;
+
+import io.dipcoin.sui.amm.constant.SwapConstant;
+import io.dipcoin.sui.amm.model.CoinPair;
+import io.dipcoin.sui.amm.utils.PackageUtil;
+import io.dipcoin.sui.bcs.types.tag.TypeTag;
+import io.dipcoin.sui.bcs.types.transaction.Argument;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableMoveCall;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/22 10:00
+ * @Description : the constant part of a router swap call on one pool in one direction: the ordered coin pair,
+ * the function name, the parsed type arguments and the gas shape of the call. Derived from the key alone, so it is
+ * built without I/O; the global and pool shared inputs come from the client's SharedObjectCache when the call is
+ * appended. Immutable, shared by every transaction of the client.
+ */
+final class SwapTemplate {
+
+    /**
+     * @param poolId pool ID
+     * @param typeIn coin type paid in
+     * @param typeOut coin type received
+     * @param exactIn swap_exact_* when true, swap_*_to_exact_* otherwise
+     */
+    record Key(String poolId, String typeIn, String typeOut, boolean exactIn) {}
+
+    private final String packageId;
+
+    private final String globalId;
+
+    private final Key key;
+
+    private final CoinPair pair;
+
+    private final String function;
+
+    private final List<TypeTag> typeTags;
+
+    /** function&lt;typeX, typeY&gt;, see TransactionContext.call */
+    private final String shapeCall;
+
+    SwapTemplate(String packageId, String globalId, Key key) {
+        this.packageId = packageId;
+        this.globalId = globalId;
+        this.key = key;
+        this.pair = PackageUtil.getCoinPair(key.typeIn(), key.typeOut());
+        boolean isSwap = pair.reversed();
+        if (key.exactIn()) {
+            this.function = isSwap ? SwapConstant.SWAP_EXACT_Y_TO_X : SwapConstant.SWAP_EXACT_X_TO_Y;
+        } else {
+            this.function = isSwap ? SwapConstant.SWAP_Y_TO_EXACT_X : SwapConstant.SWAP_X_TO_EXACT_Y;
+        }
+        this.typeTags = PackageUtil.getTypeTags(pair);
+        this.shapeCall = TransactionContext.shapeCall(function, pair);
+    }
+
+    /**
+     * Append the input coin split and the swap call to a transaction
+     * @param context transaction under construction
+     * @param coinIn amount split for the input coin, amountIn or the maximum input
+     * @param limit minimum output of an exact-in swap, exact output of an exact-out swap
+     * @returns command index of the move call
+     */
+    int append(TransactionContext context, BigInteger coinIn, BigInteger limit) {
+        Argument coin = context.coin(key.typeIn(), coinIn);
+        if (!key.exactIn()) {
+            // the unused part of the input coin is refunded
+            context.receive(key.typeIn());
+        }
+        context.receive(key.typeOut());
+
+        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
+                packageId,
+                AbstractOnChainClient.MODULE,
+                function,
+                typeTags,
+                Arrays.asList(
+                        context.shared(globalId, false),
+                        context.shared(key.poolId(), true),
+                        coin,
+                        context.pure(limit)
+                )
+        );
+        return context.call(shapeCall, moveCall);
+    }
+
+    /**
+     * @returns whether the input coin is the pool's Y coin
+     */
+    boolean reversed() {
+        return pair.reversed();
+    }
+
+}
@@ -0,0 +1,457 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.client;
+
+import io.dipcoin.sui.amm.cache.CoinCache;
+import io.dipcoin.sui.amm.cache.ObjectRefStore;
+import io.dipcoin.sui.amm.constant.SwapConstant;
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.gas.GasEstimator;
+import io.dipcoin.sui.amm.gas.GasPool;
+import io.dipcoin.sui.amm.model.CoinPair;
+import io.dipcoin.sui.amm.model.ObjectRef;
+import io.dipcoin.sui.amm.model.OwnedCoin;
+import io.dipcoin.sui.amm.utils.EffectsUtil;
+import io.dipcoin.sui.bcs.PureBcs;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
+import io.dipcoin.sui.bcs.types.arg.object.ObjectArgImmOrOwnedObject;
+import io.dipcoin.sui.bcs.types.gas.GasData;
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+import io.dipcoin.sui.bcs.types.transaction.Argument;
+import io.dipcoin.sui.bcs.types.transaction.Command;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableMoveCall;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.client.CommandBuilder;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 15:40
+ * @Description : one programmable transaction under construction. Shared objects become inputs once.
+ * In batch mode the coins of each type are merged once and all splits of a type become one SplitCoins
+ * command ahead of the move calls; otherwise every split is emitted where it is requested. A plan context
+ * only sums the splits per coin type so a batch can lease coins for the totals up front.
+ * Coins are leased from the client's CoinCache, gas coins from its GasPool when the sender has one and from
+ * the cached SUI coins otherwise; all are settled from the effects, or released if never sent.
+ */
+final class TransactionContext {
+
+    private enum Mode { DIRECT, PLAN, BATCH }
+
+    private final AbstractOnChainClient client;
+
+    private final ProgrammableTransaction programmableTx = new ProgrammableTransaction();
+
+    private final String sender;
+
+    private final Mode mode;
+
+    private final Map<String, Argument> sharedInputs = new HashMap<>();
+
+    private final List<Integer> callIndexes = new ArrayList<>();
+
+    private BigInteger suiUse = BigInteger.ZERO;
+
+    /** Move calls as function&lt;typeX, typeY&gt;, with the coin inputs they make up the gas shape */
+    private final List<String> shapeCalls = new ArrayList<>();
+
+    private int coinInputs;
+
+    /** Gas price of the gas data, the executed cost is reported to the gas estimator at it */
+    private long gasPrice;
+
+    private final List<CoinCache.Lease> leases = new ArrayList<>();
+
+    private GasPool.Lease gasLease;
+
+    /** SUI coins paying gas when the sender has no gas pool */
+    private CoinCache.Lease gasCoins;
+
+    /** Coin types the sender may receive, their cached coins are dropped after execution */
+    private final Set<String> received = new LinkedHashSet<>();
+
+    // ------------------------- batch mode -------------------------
+
+    /** Total split per coin type, in first-use order (plan mode) */
+    private final Map<String, BigInteger> splitTotals = new LinkedHashMap<>();
+
+    /** Split amounts per declared coin type, in declaration order */
+    private final Map<String, List<Argument>> splitAmounts = new LinkedHashMap<>();
+
+    /** SplitCoins command offset per declared coin type */
+    private final Map<String, Integer> splitOrder = new HashMap<>();
+
+    /** Merged source coin per declared coin type, absent for SUI */
+    private final Map<String, Argument> splitSources = new HashMap<>();
+
+    private final List<Command> calls = new ArrayList<>();
+
+    /** Command index of the first SplitCoins command */
+    private int splitBase;
+
+    private boolean finished;
+
+    private TransactionContext(AbstractOnChainClient client, String sender, Mode mode) {
+        this.client = client;
+        this.sender = sender;
+        this.mode = mode;
+    }
+
+    /**
+     * Context that emits every command where it is requested
+     * @param client client resolving shared objects and coins
+     * @param sender owner of the coins
+     */
+    static TransactionContext direct(AbstractOnChainClient client, String sender) {
+        return new TransactionContext(client, sender, Mode.DIRECT);
+    }
+
+    /**
+     * Context that only records the total split per coin type, its transaction is never sent
+     * @param client client resolving shared objects
+     * @param sender owner of the coins
+     */
+    static TransactionContext plan(AbstractOnChainClient client, String sender) {
+        return new TransactionContext(client, sender, Mode.PLAN);
+    }
+
+    /**
+     * Context that groups coin splits per type. Coins covering each total are leased and merged here so the
+     * split commands can be placed, and addressed, ahead of the move calls.
+     * @param client client resolving shared objects and coins
+     * @param sender owner of the coins
+     * @param splitTotals total split per coin type, see plan
+     */
+    static TransactionContext batch(AbstractOnChainClient client, String sender, Map<String, BigInteger> splitTotals) {
+        TransactionContext context = new TransactionContext(client, sender, Mode.BATCH);
+        try {
+            splitTotals.forEach(context::declare);
+        } catch (RuntimeException e) {
+            context.release();
+            throw e;
+        }
+        context.splitBase = context.programmableTx.getCommandsSize();
+        return context;
+    }
+
+    private void declare(String type, BigInteger total) {
+        splitOrder.put(type, splitAmounts.size());
+        splitAmounts.put(type, new ArrayList<>());
+        if (SwapConstant.COIN_TYPE_SUI.equals(type)) {
+            return;
+        }
+
+        CoinCache.Lease lease = client.coinCache.lease(sender, type, total);
+        leases.add(lease);
+        List<OwnedCoin> selected = lease.coins();
+        coinInputs += selected.size();
+        Argument source = ownedInput(selected.getFirst());
+        if (selected.size() > 1) {
+            List<Argument> sources = new ArrayList<>(selected.size() - 1);
+            for (OwnedCoin coin : selected.subList(1, selected.size())) {
+                sources.add(ownedInput(coin));
+            }
+            programmableTx.addCommand(new Command.MergeCoins(source, sources));
+        }
+        splitSources.put(type, source);
+    }
+
+    private Argument ownedInput(OwnedCoin coin) {
+        return Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(new SuiObjectRef(
+                coin.objectId(), coin.version(), coin.digest())))));
+    }
+
+    /**
+     * Split a coin of the given type for a move call
+     * @param type coin type, SUI is split from the gas coin
+     * @param amount amount to split
+     * @returns argument of the split coin
+     */
+    Argument coin(String type, BigInteger amount) {
+        boolean sui = SwapConstant.COIN_TYPE_SUI.equals(type);
+        if (sui) {
+            suiUse = suiUse.add(amount);
+        }
+        if (mode == Mode.PLAN) {
+            splitTotals.merge(type, amount, BigInteger::add);
+            // placeholder, a plan is never sent
+            return new Argument.NestedResult(0, 0);
+        }
+        if (mode == Mode.DIRECT) {
+            int index;
+            if (sui) {
+                index = client.splitSui(programmableTx, amount);
+            } else {
+                CoinCache.Lease lease = client.coinCache.lease(sender, type, amount);
+                leases.add(lease);
+                coinInputs += lease.coins().size();
+                index = client.splitCoin(programmableTx, amount, lease.coins());
+            }
+            return new Argument.NestedResult(index, 0);
+        }
+
+        List<Argument> amounts = splitAmounts.get(type);
+        if (amounts == null) {
+            throw new AmmException(type + " was not planned for the batch");
+        }
+        amounts.add(pure(amount));
+        return new Argument.NestedResult(splitBase + splitOrder.get(type), amounts.size() - 1);
+    }
+
+    /**
+     * Split SUI from the gas coin into equal coins and transfer them to the sender
+     * @param amount balance of each coin
+     * @param count number of coins
+     */
+    void splitGasToSender(BigInteger amount, int count) {
+        List<Argument> amounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            amounts.add(pure(amount));
+        }
+        suiUse = suiUse.add(amount.multiply(BigInteger.valueOf(count)));
+        programmableTx.addCommand(CommandBuilder.splitCoins(amounts));
+        int index = programmableTx.getCommandsSize() - 1;
+
+        List<Argument> coins = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            coins.add(new Argument.NestedResult(index, i));
+        }
+        Argument recipient = Argument.ofInput(programmableTx.addInput(new CallArgPure(sender, PureBcs.BasePureType.ADDRESS)));
+        programmableTx.addCommand(new Command.TransferObjects(coins, recipient));
+    }
+
+    /**
+     * Record a coin type the transaction may return to the sender
+     * @param type coin type
+     */
+    void receive(String type) {
+        received.add(type);
+    }
+
+    /**
+     * Shared object input, added to the transaction on first use
+     * @param objectId shared object ID
+     * @param mutable whether the object is used by mutable reference
+     * @returns input argument
+     */
+    Argument shared(String objectId, boolean mutable) {
+        return sharedInputs.computeIfAbsent(objectId, id -> Argument.ofInput(programmableTx.addInput(client.getSharedObject(id, mutable))));
+    }
+
+    /**
+     * u64 pure input
+     * @param value value
+     * @returns input argument
+     */
+    Argument pure(BigInteger value) {
+        return Argument.ofInput(programmableTx.addInput(new CallArgPure(value.longValue(), PureBcs.BasePureType.U64)));
+    }
+
+    /**
+     * Add a move call
+     * @param function function name of the call
+     * @param pair coin pair of the call's type arguments
+     * @param moveCall move call
+     * @returns command index the move call has in the finished transaction
+     */
+    int call(String function, CoinPair pair, ProgrammableMoveCall moveCall) {
+        return call(shapeCall(function, pair), moveCall);
+    }
+
+    /**
+     * Add a move call whose gas shape entry is already built
+     * @param shapeCall function&lt;typeX, typeY&gt;, see shapeCall
+     * @param moveCall move call
+     * @returns command index the move call has in the finished transaction
+     */
+    int call(String shapeCall, ProgrammableMoveCall moveCall) {
+        shapeCalls.add(shapeCall);
+        Command command = new Command.MoveCall(moveCall);
+        int index;
+        if (mode != Mode.DIRECT) {
+            calls.add(command);
+            index = splitBase + splitAmounts.size() + calls.size() - 1;
+        } else {
+            programmableTx.addCommand(command);
+            index = programmableTx.getCommandsSize() - 1;
+        }
+        callIndexes.add(index);
+        return index;
+    }
+
+    /**
+     * @returns gas shape entry of a move call
+     */
+    static String shapeCall(String function, CoinPair pair) {
+        return function + "<" + pair.typeX() + ", " + pair.typeY() + ">";
+    }
+
+    /**
+     * Complete the transaction, in batch mode the grouped splits and the move calls are emitted here
+     * @returns the built transaction
+     */
+    ProgrammableTransaction finish() {
+        if (mode != Mode.BATCH || finished) {
+            return programmableTx;
+        }
+        finished = true;
+
+        for (Map.Entry<String, List<Argument>> entry : splitAmounts.entrySet()) {
+            String type = entry.getKey();
+            List<Argument> amounts = entry.getValue();
+            if (amounts.isEmpty()) {
+                throw new AmmException(type + " was planned for the batch but never split");
+            }
+            Argument source = splitSources.get(type);
+            if (source == null) {
+                programmableTx.addCommand(CommandBuilder.splitCoins(amounts));
+            } else {
+                programmableTx.addCommand(CommandBuilder.splitCoins(source, amounts));
+            }
+        }
+        programmableTx.addCommands(calls);
+        return programmableTx;
+    }
+
+    /**
+     * Gas payment of the transaction, covering the budget and the SUI split from the gas coin. A sender with a
+     * gas pool pays with a leased pool coin, otherwise with SUI coins leased from the coin cache, so no coin
+     * query is needed while the cached coins suffice.
+     * @param gasPrice gas price
+     * @param gasBudget gas limit
+     * @returns gas data
+     */
+    GasData gasData(long gasPrice, BigInteger gasBudget) {
+        this.gasPrice = gasPrice;
+        BigInteger required = gasBudget.add(suiUse);
+        List<OwnedCoin> payment;
+        if (gasLease != null || (gasLease = client.gasPool.lease(sender, required)) != null) {
+            payment = List.of(gasLease.coin());
+        } else {
+            if (gasCoins == null) {
+                gasCoins = client.coinCache.lease(sender, SwapConstant.COIN_TYPE_SUI, required);
+            }
+            payment = gasCoins.coins();
+        }
+        List<SuiObjectRef> refs = new ArrayList<>(payment.size());
+        for (OwnedCoin coin : payment) {
+            refs.add(new SuiObjectRef(coin.objectId(), coin.version(), coin.digest()));
+        }
+        return new GasData(refs, sender, gasPrice, gasBudget.longValue());
+    }
+
+    /**
+     * Record the object references of the sent transaction's effects and settle every lease from them.
+     * Gas coins are merged and charged even if execution failed; other coins are only merged and spent on
+     * success and come back unchanged at their new versions otherwise.
+     * @param response transaction response, null if the outcome is unknown
+     */
+    void settle(SuiTransactionBlockResponse response) {
+        ObjectRefStore objectRefs = client.objectRefs;
+        objectRefs.apply(EffectsUtil.changedRefs(response).values(), EffectsUtil.deletedIds(response));
+        boolean executed = response != null && response.getEffects() != null;
+        boolean success = EffectsUtil.isSuccess(response);
+
+        for (CoinCache.Lease lease : leases) {
+            if (success) {
+                client.coinCache.settle(lease, objectRefs.get(lease.primary().objectId()), lease.amount());
+            } else if (executed) {
+                client.coinCache.restore(lease, objectRefs::get);
+            } else {
+                client.coinCache.settle(lease, null, lease.amount());
+            }
+        }
+        leases.clear();
+        for (String type : received) {
+            client.coinCache.markStale(sender, type);
+        }
+        GasEstimator gasEstimator = client.gasEstimator;
+        GasEstimator.GasCost gasCost = executed ? EffectsUtil.gasCost(response.getEffects()) : null;
+        if (gasEstimator != null && gasCost != null) {
+            gasEstimator.observe(getShape(), gasPrice, gasCost);
+        }
+
+        // SUI split from the gas coin only leaves it if the transaction succeeded
+        BigInteger spent = EffectsUtil.gasCharged(response).add(success ? suiUse : BigInteger.ZERO);
+        ObjectRef gasObject = EffectsUtil.gasObjectRef(response);
+        if (gasLease != null) {
+            client.gasPool.recycle(gasLease, gasObject, spent);
+            gasLease = null;
+        }
+        if (gasCoins != null) {
+            client.coinCache.settle(gasCoins, gasObject, spent);
+            gasCoins = null;
+        }
+    }
+
+    /**
+     * Return the leased coins and gas coins, the transaction was never sent
+     */
+    void release() {
+        for (CoinCache.Lease lease : leases) {
+            client.coinCache.release(lease);
+        }
+        leases.clear();
+        if (gasLease != null) {
+            client.gasPool.release(gasLease);
+            gasLease = null;
+        }
+        if (gasCoins != null) {
+            client.coinCache.release(gasCoins);
+            gasCoins = null;
+        }
+    }
+
+    /**
+     * @returns total split per coin type, in first-use order (plan mode)
+     */
+    Map<String, BigInteger> getSplitTotals() {
+        return splitTotals;
+    }
+
+    /**
+     * @returns SUI split from the gas coin so far
+     */
+    BigInteger getSuiUse() {
+        return suiUse;
+    }
+
+    /**
+     * @returns shape of the transaction for gas estimation
+     */
+    GasEstimator.Shape getShape() {
+        return new GasEstimator.Shape(shapeCalls, coinInputs);
+    }
+
+    String getSender() {
+        return sender;
+    }
+
+    /**
+     * @returns command index of every move call, in call order
+     */
+    List<Integer> getCallIndexes() {
+        return List.copyOf(callIndexes);
+    }
+
+}
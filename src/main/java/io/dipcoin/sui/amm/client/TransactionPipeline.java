@@ -0,0 +1,309 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.client;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 15:00
+ * @Description : build, sign and submit stages joined by bounded queues, so a transaction is signed while others
+ * are built or submitted. Each stage runs a number of lanes, one thread each; a sender always maps to the same
+ * lane of every stage, so the transactions of a sender leave each stage in the order they were submitted. A sign
+ * lane takes whatever is queued, up to the batch size, and signs it with one call per sender. A full queue blocks
+ * the stage (or caller) feeding it. Futures are completed on a separate executor once the transaction has left
+ * the pipeline, so a callback never holds up a lane and may close the pipeline.
+ * @param <P> built transaction, ready to sign
+ */
+final class TransactionPipeline<P> {
+
+    /** Signs built transactions of one sender */
+    @FunctionalInterface
+    interface Signer<P> {
+
+        /**
+         * @returns signatures in the order of prepared
+         */
+        List<String> sign(String sender, List<P> prepared);
+    }
+
+    /** Sends a signed transaction */
+    @FunctionalInterface
+    interface Submitter<P> {
+
+        SuiTransactionBlockResponse submit(P prepared, String signature);
+    }
+
+    /** One transaction moving through the stages */
+    private static final class Job<P, T> {
+
+        private final String sender;
+        private final Supplier<P> build;
+        private final BiFunction<P, SuiTransactionBlockResponse, T> result;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private P prepared;
+        private String signature;
+
+        private Job(String sender, Supplier<P> build, BiFunction<P, SuiTransactionBlockResponse, T> result) {
+            this.sender = sender;
+            this.build = build;
+            this.result = result;
+        }
+    }
+
+    /** Single-thread worker draining its own bounded queue, up to maxBatch elements at a time */
+    private static final class Lane<E> {
+
+        private final BlockingQueue<E> queue;
+        private final Thread thread;
+
+        private Lane(String name, int capacity, int maxBatch, Consumer<List<E>> handler) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = Thread.ofVirtual().name(name).start(() -> {
+                List<E> batch = new ArrayList<>(maxBatch);
+                try {
+                    while (true) {
+                        batch.add(queue.take());
+                        queue.drainTo(batch, maxBatch - 1);
+                        handler.accept(batch);
+                        batch.clear();
+                    }
+                } catch (InterruptedException e) {
+                    // closed
+                }
+            });
+        }
+    }
+
+    private final Lane<Job<P, ?>>[] buildLanes;
+
+    private final Lane<Job<P, ?>>[] signLanes;
+
+    private final Lane<Job<P, ?>>[] submitLanes;
+
+    private final Signer<P> signer;
+
+    private final Submitter<P> submitter;
+
+    private final Consumer<P> release;
+
+    private final Executor completions;
+
+    private final Object idle = new Object();
+
+    private int inFlight;
+
+    private volatile boolean closed;
+
+    /**
+     * @param buildParallelism number of build lanes
+     * @param signParallelism number of sign lanes, concurrent signer calls
+     * @param submitParallelism number of submit lanes
+     * @param queueCapacity capacity of each lane's queue
+     * @param signBatchSize maximum transactions per signer call
+     * @param signer signs built transactions of one sender
+     * @param submitter sends a signed transaction
+     * @param release releases a built transaction that will not be sent, signing failures included
+     * @param completions completes the returned futures, runs the callbacks chained on them without an executor
+     */
+    TransactionPipeline(int buildParallelism, int signParallelism, int submitParallelism, int queueCapacity, int signBatchSize,
+                        Signer<P> signer, Submitter<P> submitter, Consumer<P> release, Executor completions) {
+        if (buildParallelism <= 0 || signParallelism <= 0 || submitParallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be greater than 0");
+        }
+        if (queueCapacity <= 0 || signBatchSize <= 0) {
+            throw new IllegalArgumentException("queueCapacity and signBatchSize must be greater than 0");
+        }
+        this.signer = signer;
+        this.submitter = submitter;
+        this.release = release;
+        this.completions = completions;
+        this.buildLanes = lanes("amm-build-", buildParallelism, queueCapacity, 1, jobs -> jobs.forEach(this::runBuild));
+        this.signLanes = lanes("amm-sign-", signParallelism, queueCapacity, signBatchSize, this::runSign);
+        this.submitLanes = lanes("amm-submit-", submitParallelism, queueCapacity, 1, jobs -> jobs.forEach(this::runSubmit));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Lane<Job<P, ?>>[] lanes(String name, int count, int capacity, int maxBatch, Consumer<List<Job<P, ?>>> handler) {
+        Lane<Job<P, ?>>[] lanes = new Lane[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new Lane<>(name + i, capacity, maxBatch, handler);
+        }
+        return lanes;
+    }
+
+    /**
+     * Queue a transaction, blocks while the sender's build lane is full
+     * @param sender sender of the transaction, fixes its lane in every stage
+     * @param build builds the transaction, runs on the build stage
+     * @param result maps the response, runs on the submit stage
+     * @returns future result, failed with the exception of the stage that failed
+     */
+    <T> CompletableFuture<T> submit(String sender, Supplier<P> build, BiFunction<P, SuiTransactionBlockResponse, T> result) {
+        Job<P, T> job = new Job<>(sender, build, result);
+        synchronized (idle) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new AmmException("Transaction pipeline is closed"));
+            }
+            inFlight++;
+        }
+        if (!forward(buildLanes, job)) {
+            fail(job, new AmmException("Interrupted while queueing the transaction"));
+        }
+        return job.future;
+    }
+
+    /**
+     * Stop taking transactions, wait for the queued ones to leave the pipeline and stop the lanes. Their futures
+     * are completed on the completion executor and may still be pending when this returns.
+     */
+    void close() {
+        synchronized (idle) {
+            closed = true;
+            while (inFlight > 0) {
+                try {
+                    idle.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        for (Lane<?>[] stage : List.of(buildLanes, signLanes, submitLanes)) {
+            for (Lane<?> lane : stage) {
+                lane.thread.interrupt();
+            }
+        }
+    }
+
+    int getInFlight() {
+        synchronized (idle) {
+            return inFlight;
+        }
+    }
+
+    private void runBuild(Job<P, ?> job) {
+        try {
+            job.prepared = job.build.get();
+        } catch (Throwable e) {
+            fail(job, e);
+            return;
+        }
+        if (!forward(signLanes, job)) {
+            release.accept(job.prepared);
+            fail(job, new AmmException("Interrupted while queueing the transaction for signing"));
+        }
+    }
+
+    /**
+     * Sign the drained jobs with one signer call per sender, then forward them in order
+     */
+    private void runSign(List<Job<P, ?>> jobs) {
+        Map<String, List<Job<P, ?>>> bySender = new LinkedHashMap<>();
+        for (Job<P, ?> job : jobs) {
+            bySender.computeIfAbsent(job.sender, k -> new ArrayList<>()).add(job);
+        }
+        for (Map.Entry<String, List<Job<P, ?>>> entry : bySender.entrySet()) {
+            List<Job<P, ?>> group = entry.getValue();
+            List<P> prepared = new ArrayList<>(group.size());
+            for (Job<P, ?> job : group) {
+                prepared.add(job.prepared);
+            }
+            List<String> signatures;
+            try {
+                signatures = signer.sign(entry.getKey(), prepared);
+                if (signatures == null || signatures.size() != group.size()) {
+                    throw new AmmException("Signer returned " + (signatures == null ? 0 : signatures.size())
+                            + " signatures for " + group.size() + " transactions");
+                }
+            } catch (Throwable e) {
+                for (Job<P, ?> job : group) {
+                    release.accept(job.prepared);
+                    fail(job, e);
+                }
+                continue;
+            }
+            for (int i = 0; i < group.size(); i++) {
+                Job<P, ?> job = group.get(i);
+                job.signature = signatures.get(i);
+                if (!forward(submitLanes, job)) {
+                    release.accept(job.prepared);
+                    fail(job, new AmmException("Interrupted while queueing the transaction for submission"));
+                }
+            }
+        }
+    }
+
+    private <T> void runSubmit(Job<P, T> job) {
+        T value;
+        try {
+            SuiTransactionBlockResponse response = submitter.submit(job.prepared, job.signature);
+            value = job.result.apply(job.prepared, response);
+        } catch (Throwable e) {
+            fail(job, e);
+            return;
+        }
+        done();
+        complete(() -> job.future.complete(value));
+    }
+
+    private boolean forward(Lane<Job<P, ?>>[] stage, Job<P, ?> job) {
+        try {
+            stage[Math.floorMod(job.sender.hashCode(), stage.length)].queue.put(job);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void fail(Job<P, ?> job, Throwable e) {
+        done();
+        complete(() -> job.future.completeExceptionally(e));
+    }
+
+    /**
+     * Complete a future off the lane, the job has already left the count so a callback closing the pipeline
+     * does not wait for itself
+     */
+    private void complete(Runnable completion) {
+        try {
+            completions.execute(completion);
+        } catch (RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
+    private void done() {
+        synchronized (idle) {
+            if (--inFlight == 0) {
+                idle.notifyAll();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.client;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/22 14:00
+ * @Description : growable byte buffer holding the BCS bytes of one transaction while it is signed. Buffers are
+ * pooled rather than held per thread, since the client executor starts a virtual thread per task; a buffer
+ * returned to the pool keeps its array, so steady-state signing allocates no transaction-sized arrays.
+ */
+final class TxBuffer extends OutputStream {
+
+    // buffers kept for reuse, more may be in use at once
+    private static final int POOL_SIZE = 64;
+
+    // a serialized swap is a few hundred bytes
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final BlockingQueue<TxBuffer> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private byte[] buf = new byte[INITIAL_CAPACITY];
+
+    private int count;
+
+    private TxBuffer() {
+    }
+
+    /**
+     * @returns an empty buffer, from the pool when one is free
+     */
+    static TxBuffer acquire() {
+        TxBuffer buffer = POOL.poll();
+        return buffer == null ? new TxBuffer() : buffer;
+    }
+
+    /**
+     * Return the buffer to the pool, views of it must no longer be read
+     */
+    void release() {
+        count = 0;
+        POOL.offer(this);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buf[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(capacity, buf.length << 1));
+        }
+    }
+
+    /**
+     * @returns read-only view of the written bytes, valid until the buffer is released
+     */
+    ByteBuffer view() {
+        return ByteBuffer.wrap(buf, 0, count).asReadOnlyBuffer();
+    }
+
+    int size() {
+        return count;
+    }
+
+}
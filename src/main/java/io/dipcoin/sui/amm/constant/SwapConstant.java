@@ -14,6 +14,7 @@
 package io.dipcoin.sui.amm.constant;
 
 import java.math.BigInteger;
+import java.time.Duration;
 
 /**
  * @author : Same
@@ -40,4 +41,22 @@ public interface SwapConstant {
 
     String SWAP_Y_TO_EXACT_X = "swap_y_to_exact_x";
 
+    String POOL_MODULE = "amm_swap";
+
+    String POOL_STRUCT = "Pool";
+
+    String SWAP_EVENT = "SwapEvent";
+
+    String ADD_LIQUIDITY_EVENT = "AddLiquidityEvent";
+
+    String REMOVE_LIQUIDITY_EVENT = "RemoveLiquidityEvent";
+
+    int DEFAULT_MAX_HOPS = 3;
+
+    Duration DEFAULT_GAS_LEASE_TIMEOUT = Duration.ofSeconds(30);
+
+    double DEFAULT_GAS_BUDGET_MARGIN = 1.2;
+
+    int DEFAULT_SIGN_BATCH_SIZE = 16;
+
 }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.gas;
+
+import io.dipcoin.sui.amm.cache.BoundedCache;
+import io.dipcoin.sui.amm.exception.AmmException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 10:30
+ * @Description : gas budget estimation from dry runs. The cost of a transaction depends on its shape, the move
+ * calls with their type arguments and the number of coin inputs, far more than on its amounts, so one dry run per
+ * shape is kept and later transactions of the shape skip it. Computation is kept in gas units, so the budget
+ * follows the gas price.
+ */
+public class GasEstimator {
+
+    /**
+     * Shape of a transaction
+     * @param calls move calls in order, as function&lt;typeX, typeY&gt;
+     * @param coinInputs number of owned coin inputs
+     */
+    public record Shape(List<String> calls, int coinInputs) {
+
+        public Shape {
+            calls = List.copyOf(calls);
+        }
+    }
+
+    /**
+     * Gas cost of an execution
+     * @param computationCost computation cost in MIST
+     * @param storageCost storage cost in MIST, before the rebate
+     */
+    public record GasCost(BigInteger computationCost, BigInteger storageCost) {}
+
+    /** Cost of a shape independent of the gas price */
+    private record Cost(BigInteger computationUnits, BigInteger storageCost) {
+
+        Cost max(Cost other) {
+            return new Cost(computationUnits.max(other.computationUnits), storageCost.max(other.storageCost));
+        }
+    }
+
+    private final BoundedCache<Shape, Cost> costs;
+
+    private volatile BigDecimal margin;
+
+    /**
+     * @param margin factor applied to the dry-run cost, at least 1.0
+     * @param maxSize maximum number of shapes kept, an arbitrary shape is evicted once full
+     */
+    public GasEstimator(double margin, int maxSize) {
+        this.costs = new BoundedCache<>(maxSize);
+        setMargin(margin);
+    }
+
+    /**
+     * Safety margin on the estimated cost, e.g. 1.2 budgets 20% above the dry run
+     * @param margin at least 1.0
+     */
+    public void setMargin(double margin) {
+        if (!(margin >= 1.0)) {
+            throw new AmmException("margin must be at least 1.0");
+        }
+        this.margin = BigDecimal.valueOf(margin);
+    }
+
+    public double getMargin() {
+        return margin.doubleValue();
+    }
+
+    /**
+     * Gas budget of a transaction, dry-run only if its shape is unknown. Concurrent transactions of a new
+     * shape may each dry-run, the larger cost is kept.
+     * @param shape transaction shape
+     * @param gasPrice gas price of the transaction
+     * @param dryRun dry-runs the transaction at the gas price
+     * @returns cost of the shape at the gas price times the margin
+     */
+    public BigInteger estimate(Shape shape, long gasPrice, Supplier<GasCost> dryRun) {
+        Cost cost = costs.getIfPresent(shape);
+        if (cost == null) {
+            cost = record(shape, gasPrice, dryRun.get());
+        }
+        return budget(cost, gasPrice);
+    }
+
+    /**
+     * Cached budget of a shape
+     * @param shape transaction shape
+     * @param gasPrice gas price of the transaction
+     * @returns budget, or null if the shape was never dry-run
+     */
+    public BigInteger peek(Shape shape, long gasPrice) {
+        Cost cost = costs.getIfPresent(shape);
+        return cost == null ? null : budget(cost, gasPrice);
+    }
+
+    /**
+     * Raise the cost of a shape to what an execution was actually charged, e.g. after the pool grew a new
+     * dynamic field. Lower costs are ignored.
+     * @param shape transaction shape
+     * @param gasPrice gas price the transaction paid
+     * @param used gas cost from the effects
+     */
+    public void observe(Shape shape, long gasPrice, GasCost used) {
+        if (costs.getIfPresent(shape) != null) {
+            record(shape, gasPrice, used);
+        }
+    }
+
+    public void invalidate(Shape shape) {
+        costs.remove(shape);
+    }
+
+    public int size() {
+        return costs.size();
+    }
+
+    public void clear() {
+        costs.clear();
+    }
+
+    private Cost record(Shape shape, long gasPrice, GasCost used) {
+        if (gasPrice <= 0) {
+            throw new AmmException("gasPrice must be greater than 0");
+        }
+        BigInteger price = BigInteger.valueOf(gasPrice);
+        BigInteger[] units = used.computationCost().divideAndRemainder(price);
+        Cost cost = new Cost(units[1].signum() > 0 ? units[0].add(BigInteger.ONE) : units[0], used.storageCost());
+        return costs.merge(shape, cost, Cost::max);
+    }
+
+    /**
+     * Gas budget covering a known cost
+     * @param cost computation and storage cost at the transaction's gas price
+     * @param margin safety margin, at least 1.0
+     * @returns cost times the margin, rounded up
+     */
+    public static BigInteger budget(GasCost cost, double margin) {
+        if (!(margin >= 1.0)) {
+            throw new AmmException("margin must be at least 1.0");
+        }
+        return withMargin(cost.computationCost().add(cost.storageCost()), BigDecimal.valueOf(margin));
+    }
+
+    private BigInteger budget(Cost cost, long gasPrice) {
+        return withMargin(cost.computationUnits().multiply(BigInteger.valueOf(gasPrice)).add(cost.storageCost()), margin);
+    }
+
+    private static BigInteger withMargin(BigInteger total, BigDecimal margin) {
+        return new BigDecimal(total).multiply(margin).setScale(0, RoundingMode.CEILING).toBigIntegerExact();
+    }
+
+}
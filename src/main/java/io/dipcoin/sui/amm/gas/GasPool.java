@@ -0,0 +1,209 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.gas;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.ObjectRef;
+import io.dipcoin.sui.amm.model.OwnedCoin;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 15:20
+ * @Description : gas coins per sender, each in-flight transaction leases its own gas coin so transactions of one
+ * sender never share a gas object. A leased coin is recycled at the version the effects report, or dropped
+ * when the outcome is unknown. Senders without a pool are not managed here.
+ */
+public class GasPool {
+
+    private final Map<String, SenderPool> pools = new ConcurrentHashMap<>();
+
+    private volatile Duration leaseTimeout;
+
+    public GasPool(Duration leaseTimeout) {
+        setLeaseTimeout(leaseTimeout);
+    }
+
+    /**
+     * Gas coin leased for one transaction
+     */
+    public record Lease(String sender, OwnedCoin coin) {}
+
+    /**
+     * How long a lease waits for a gas coin while every coin of the sender is in flight
+     * @param leaseTimeout wait limit
+     */
+    public void setLeaseTimeout(Duration leaseTimeout) {
+        if (leaseTimeout == null || leaseTimeout.isNegative()) {
+            throw new IllegalArgumentException("leaseTimeout must not be negative");
+        }
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    /**
+     * Add gas coins to the pool of a sender, the pool is created on first use
+     * @param sender gas owner
+     * @param coins SUI coins owned by the sender and not used elsewhere
+     */
+    public void add(String sender, Collection<OwnedCoin> coins) {
+        SenderPool pool = pools.computeIfAbsent(sender, s -> new SenderPool());
+        pool.lock.lock();
+        try {
+            pool.idle.addAll(coins);
+            pool.returned.signalAll();
+        } finally {
+            pool.lock.unlock();
+        }
+    }
+
+    /**
+     * Stop managing the gas coins of a sender, coins in flight are no longer recycled
+     * @param sender gas owner
+     */
+    public void remove(String sender) {
+        pools.remove(sender);
+    }
+
+    /**
+     * @param sender gas owner
+     * @returns whether the sender's gas is managed by the pool
+     */
+    public boolean contains(String sender) {
+        return pools.containsKey(sender);
+    }
+
+    /**
+     * @param sender gas owner
+     * @returns number of idle gas coins of the sender
+     */
+    public int idleCount(String sender) {
+        SenderPool pool = pools.get(sender);
+        if (pool == null) {
+            return 0;
+        }
+        pool.lock.lock();
+        try {
+            return pool.idle.size();
+        } finally {
+            pool.lock.unlock();
+        }
+    }
+
+    /**
+     * Lease the smallest idle gas coin covering the required balance, waiting while every coin that could
+     * cover it is in flight
+     * @param sender gas owner
+     * @param required gas budget plus the SUI the transaction splits from the gas coin
+     * @returns lease, or null if the sender has no pool
+     * @throws AmmException if no coin of the pool covers the balance, or none is returned in time
+     */
+    public Lease lease(String sender, BigInteger required) {
+        SenderPool pool = pools.get(sender);
+        if (pool == null) {
+            return null;
+        }
+        pool.lock.lock();
+        try {
+            long nanos = leaseTimeout.toNanos();
+            while (true) {
+                OwnedCoin best = null;
+                for (OwnedCoin coin : pool.idle) {
+                    if (coin.balance().compareTo(required) >= 0 && (best == null || coin.balance().compareTo(best.balance()) < 0)) {
+                        best = coin;
+                    }
+                }
+                if (best != null) {
+                    pool.idle.remove(best);
+                    pool.leased.put(best.objectId(), best);
+                    return new Lease(sender, best);
+                }
+                if (pool.leased.values().stream().noneMatch(coin -> coin.balance().compareTo(required) >= 0)) {
+                    throw new AmmException("No gas coin of " + sender + " covers " + required);
+                }
+                if (nanos <= 0) {
+                    throw new AmmException("Timed out waiting for a gas coin of " + sender);
+                }
+                nanos = pool.returned.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmmException("Interrupted waiting for a gas coin of " + sender, e);
+        } finally {
+            pool.lock.unlock();
+        }
+    }
+
+    /**
+     * Return a gas coin after its transaction executed
+     * @param lease lease to recycle
+     * @param gasObject new reference of the gas coin from the effects, null drops the coin
+     * @param spent gas charged plus the SUI split from the gas coin, negative if the rebate was larger
+     */
+    public void recycle(Lease lease, ObjectRef gasObject, BigInteger spent) {
+        OwnedCoin coin = null;
+        if (gasObject != null) {
+            BigInteger balance = lease.coin().balance().subtract(spent);
+            if (balance.signum() > 0) {
+                coin = new OwnedCoin(gasObject.objectId(), gasObject.version(), gasObject.digest(), balance);
+            }
+        }
+        giveBack(lease, coin);
+    }
+
+    /**
+     * Return a gas coin whose transaction was never sent
+     * @param lease lease to release
+     */
+    public void release(Lease lease) {
+        giveBack(lease, lease.coin());
+    }
+
+    private void giveBack(Lease lease, OwnedCoin coin) {
+        SenderPool pool = pools.get(lease.sender());
+        if (pool == null) {
+            return;
+        }
+        pool.lock.lock();
+        try {
+            if (pool.leased.remove(lease.coin().objectId()) != null && coin != null) {
+                pool.idle.add(coin);
+            }
+            pool.returned.signalAll();
+        } finally {
+            pool.lock.unlock();
+        }
+    }
+
+    /** Guarded by lock; a ReentrantLock so waiting leases do not pin virtual threads */
+    private static final class SenderPool {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition returned = lock.newCondition();
+
+        private final List<OwnedCoin> idle = new ArrayList<>();
+
+        private final Map<String, OwnedCoin> leased = new HashMap<>();
+    }
+
+}
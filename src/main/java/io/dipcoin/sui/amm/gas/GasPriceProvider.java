@@ -0,0 +1,190 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.gas;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/18 14:00
+ * @Description : reference gas price cached per epoch. The price is read once per epoch and refreshed in the
+ * background when the epoch ends, as long as it was used during the epoch; callers never wait except for the
+ * very first read or after an idle epoch change. A multiplier raises the price for priority.
+ */
+public class GasPriceProvider {
+
+    // the epoch has ended but the next one has not started yet
+    private static final long EPOCH_CHANGE_RETRY_MS = 1000L;
+
+    /**
+     * Reference gas price of an epoch
+     * @param epoch epoch number
+     * @param referenceGasPrice reference gas price in MIST
+     * @param epochEndMs expected end of the epoch, epoch start plus duration
+     */
+    public record EpochGasPrice(long epoch, long referenceGasPrice, long epochEndMs) {}
+
+    private final Supplier<EpochGasPrice> loader;
+
+    private final Executor executor;
+
+    private final AtomicReference<CompletableFuture<EpochGasPrice>> refreshing = new AtomicReference<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private volatile EpochGasPrice current;
+
+    private volatile boolean used;
+
+    private volatile double multiplier = 1.0;
+
+    public GasPriceProvider(Supplier<EpochGasPrice> loader, Executor executor) {
+        this.loader = loader;
+        this.executor = executor;
+    }
+
+    /**
+     * Multiplier applied to the reference gas price, 1.0 by default
+     * @param multiplier at least 1.0, the network rejects prices below the reference price
+     */
+    public void setMultiplier(double multiplier) {
+        if (!(multiplier >= 1.0)) {
+            throw new AmmException("multiplier must be at least 1.0");
+        }
+        this.multiplier = multiplier;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Gas price for a transaction: the reference gas price of the current epoch times the multiplier
+     * @returns gas price in MIST
+     */
+    public long getGasPrice() {
+        return price(state());
+    }
+
+    /**
+     * Gas price for a transaction without blocking the caller
+     * @returns future gas price in MIST, completed already unless the price has to be read
+     */
+    public CompletableFuture<Long> getGasPriceAsync() {
+        EpochGasPrice state = usable();
+        if (state != null) {
+            used = true;
+            return CompletableFuture.completedFuture(price(state));
+        }
+        return refresh().thenApply(next -> {
+            used = true;
+            return price(next);
+        });
+    }
+
+    /**
+     * @returns cached reference gas price of the current epoch, read if missing
+     */
+    public EpochGasPrice getEpochGasPrice() {
+        return state();
+    }
+
+    /**
+     * Read the reference gas price now, concurrent calls share one read
+     * @returns future epoch gas price
+     */
+    public CompletableFuture<EpochGasPrice> refresh() {
+        while (true) {
+            CompletableFuture<EpochGasPrice> running = refreshing.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<EpochGasPrice> future = new CompletableFuture<>();
+            if (!refreshing.compareAndSet(null, future)) {
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    EpochGasPrice next = loader.get();
+                    current = next;
+                    used = false;
+                    future.complete(next);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    refreshing.compareAndSet(future, null);
+                    schedule();
+                }
+            });
+            return future;
+        }
+    }
+
+    private EpochGasPrice state() {
+        EpochGasPrice state = usable();
+        if (state == null) {
+            try {
+                state = refresh().join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof AmmException ammException) {
+                    throw ammException;
+                }
+                throw new AmmException("Failed to read the reference gas price", e.getCause());
+            }
+        }
+        used = true;
+        return state;
+    }
+
+    /**
+     * Cached state unless it is missing, or its epoch has ended and no background refresh is pending
+     */
+    private EpochGasPrice usable() {
+        EpochGasPrice state = current;
+        if (state == null || (System.currentTimeMillis() >= state.epochEndMs() && !scheduled.get())) {
+            return null;
+        }
+        return state;
+    }
+
+    /**
+     * Schedule the next background refresh at the end of the cached epoch
+     */
+    private void schedule() {
+        EpochGasPrice state = current;
+        if (state == null || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        long delay = Math.max(state.epochEndMs() - System.currentTimeMillis(), EPOCH_CHANGE_RETRY_MS);
+        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor).execute(() -> {
+            scheduled.set(false);
+            // nobody asked for a price this epoch, the next caller reads it
+            if (used) {
+                refresh();
+            }
+        });
+    }
+
+    private long price(EpochGasPrice state) {
+        return (long) Math.ceil(state.referenceGasPrice() * multiplier);
+    }
+
+}
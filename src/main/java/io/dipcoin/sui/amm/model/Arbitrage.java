@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.model;
+
+import java.math.BigInteger;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:00
+ * @Description : profitable cycle found by CycleDetector, quoted at the profit-maximizing input
+ */
+public record Arbitrage(
+
+    // Exact-in route starting and ending in the same coin type, hop amounts at the optimal input
+    Route route,
+    // Output minus input of the route, in the start coin type
+    BigInteger profit,
+    // Sum of the hop log rates at zero size after fees, positive for every profitable cycle
+    double logGain
+
+) {
+
+    public String coinType() {
+        return route.typeIn();
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.model;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/13 09:52
+ * @Description : canonical coin pair, computed once per (typeX, typeY) by PackageUtil.getCoinPair
+ */
+public record CoinPair(
+
+    // Smaller coin type in BCS order
+    String typeX,
+    // Larger coin type in BCS order
+    String typeY,
+    // Whether the caller's typeX is the pool's typeY
+    boolean reversed,
+    // LP-{typeX}-{typeY} without 0x prefixes
+    String lpName
+
+) {
+
+    /**
+     * LP coin type of the pair under a package
+     * @param packageId Contract ID
+     * @returns {packageId}::manage::LP<{typeX}, {typeY}>
+     */
+    public String lpType(String packageId) {
+        return packageId + "::manage::LP<" + typeX + ", " + typeY + ">";
+    }
+
+}
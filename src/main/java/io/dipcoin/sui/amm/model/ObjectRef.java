@@ -0,0 +1,26 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.model;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 10:12
+ * @Description : object reference (id, version, digest) read from transaction effects
+ */
+public record ObjectRef(
+
+    String objectId,
+    long version,
+    String digest
+
+) {}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.model;
+
+import io.dipcoin.sui.amm.model.response.Pool;
+
+import java.math.BigInteger;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 10:05
+ * @Description : signed change of a pool's reserves and LP supply decoded from one swap or liquidity event,
+ * X / Y follow the BCS-sorted coin order of the pool
+ */
+public record PoolDelta(
+
+    // Pool the event belongs to
+    String poolId,
+    // Change of bal_x
+    BigInteger balX,
+    // Change of bal_y
+    BigInteger balY,
+    // Change of the LP supply, zero for swaps
+    BigInteger lpSupply
+
+) {
+
+    /**
+     * Pool state after this delta, the given pool is not modified
+     * @param old pool state before the delta
+     * @returns new pool with the reserves and LP supply moved, the version is kept
+     */
+    public Pool applyTo(Pool old) {
+        Pool pool = new Pool();
+        pool.setId(old.getId());
+        pool.setVersion(old.getVersion());
+        pool.setBalX(old.getBalX().add(balX));
+        pool.setBalY(old.getBalY().add(balY));
+        pool.setFeeBalX(old.getFeeBalX());
+        pool.setFeeBalY(old.getFeeBalY());
+        pool.setLpSupply(old.getLpSupply() == null ? null : old.getLpSupply().add(lpSupply));
+        pool.setFeeRate(old.getFeeRate());
+        pool.setMinLiquidity(old.getMinLiquidity());
+        pool.setMinAddLiquidityLpAmount(old.getMinAddLiquidityLpAmount());
+        return pool;
+    }
+
+}
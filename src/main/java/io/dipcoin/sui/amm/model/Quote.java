@@ -0,0 +1,45 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.model;
+
+import java.math.BigInteger;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 15:10
+ * @Description : quote of a single-pool swap at a pool state, the same math the write API sends with
+ */
+public record Quote(
+
+    // Pool quoted
+    String poolId,
+    // Coin type paid into the pool
+    String typeIn,
+    // Coin type received from the pool
+    String typeOut,
+    // Whether amountIn is fixed, otherwise amountOut is
+    boolean exactIn,
+    // Input amount, fixed or required
+    BigInteger amountIn,
+    // Output amount, fixed or expected
+    BigInteger amountOut,
+    // Part of amountIn kept as the pool fee, rounded down
+    BigInteger fee,
+    // Share of the spot price lost to the trade size, fee excluded: 0.01 is 1%
+    double priceImpact,
+    // Least output accepted after slippage, amountOut for exact-out
+    BigInteger minAmountOut,
+    // Most input paid after slippage, amountIn for exact-in
+    BigInteger maxAmountIn
+
+) {}
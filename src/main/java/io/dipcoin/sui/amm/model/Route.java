@@ -0,0 +1,48 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.model;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 10:20
+ * @Description : swap path across one or more pools, found by Router
+ */
+public record Route(
+
+    // Whether amountIn is fixed (exact-in) or amountOut is fixed (exact-out)
+    boolean exactIn,
+    // Hops in execution order, hop i+1 pays in what hop i received
+    List<RouteHop> hops
+
+) {
+
+    public String typeIn() {
+        return hops.getFirst().typeIn();
+    }
+
+    public String typeOut() {
+        return hops.getLast().typeOut();
+    }
+
+    public BigInteger amountIn() {
+        return hops.getFirst().amountIn();
+    }
+
+    public BigInteger amountOut() {
+        return hops.getLast().amountOut();
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.model;
+
+import io.dipcoin.sui.amm.model.response.Pool;
+
+import java.math.BigInteger;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 10:20
+ * @Description : one pool of a route, amounts are the quote at the pool state the route was found with
+ */
+public record RouteHop(
+
+    // Pool state the hop was quoted with
+    Pool pool,
+    // Coin type paid into the pool
+    String typeIn,
+    // Coin type received from the pool
+    String typeOut,
+    // Quoted input amount
+    BigInteger amountIn,
+    // Quoted output amount
+    BigInteger amountOut
+
+) {}
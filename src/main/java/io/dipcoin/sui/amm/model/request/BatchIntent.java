@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.model.request;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 15:40
+ * @Description : one operation of a batch transaction
+ */
+public sealed interface BatchIntent {
+
+    /** Pool the operation runs against */
+    String poolId();
+
+    record AddLiquidity(AddLiquidityParams params) implements BatchIntent {
+        @Override
+        public String poolId() {
+            return params.getPoolId();
+        }
+    }
+
+    record RemoveLiquidity(RemoveLiquidityParams params) implements BatchIntent {
+        @Override
+        public String poolId() {
+            return params.getPoolId();
+        }
+    }
+
+    /** swap with params.amountIn fixed */
+    record SwapExactIn(SwapParams params) implements BatchIntent {
+        @Override
+        public String poolId() {
+            return params.getPoolId();
+        }
+    }
+
+    /** swap with params.amountOut fixed */
+    record SwapExactOut(SwapParams params) implements BatchIntent {
+        @Override
+        public String poolId() {
+            return params.getPoolId();
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.model.response;
+
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+
+import java.util.List;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 15:40
+ * @Description : outcome of a batch transaction. The intents execute atomically and share one set of effects;
+ * an abort reported in the effects names the command index, which maps back to the intent.
+ */
+public record BatchResult(
+
+    // Response of the single transaction, effects and events of all intents
+    SuiTransactionBlockResponse response,
+    // Command index of the move call of each intent, in intent order
+    List<Integer> commandIndexes
+
+) {
+
+    /**
+     * @param commandIndex command index from an execution error
+     * @returns position of the intent that owns the command, or -1 for a coin merge / split command
+     */
+    public int intentOf(int commandIndex) {
+        return commandIndexes.indexOf(commandIndex);
+    }
+
+}
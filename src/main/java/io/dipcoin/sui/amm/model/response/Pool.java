@@ -28,6 +28,9 @@ public class Pool {
     
     /** Pool ID */
     private String id;
+
+    /** Object version the pool state was read at */
+    private Long version;
     
     /** Token X balance */
     @JsonProperty("bal_x")
@@ -0,0 +1,317 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.router;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.Arbitrage;
+import io.dipcoin.sui.amm.model.CoinPair;
+import io.dipcoin.sui.amm.model.Route;
+import io.dipcoin.sui.amm.model.RouteHop;
+import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.utils.MathUtil;
+import io.dipcoin.sui.amm.utils.PackageUtil;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:30
+ * @Description : arbitrage cycles over a snapshot of pool reserves. Every edge carries the log of its marginal
+ * rate after the fee, a cycle whose weights sum above zero returns more than it pays at small size. The input
+ * maximizing the profit has a closed form, since a chain of constant-product pools quotes out = A*x / (B + C*x).
+ * Cycles are enumerated when a pool is added and indexed by pool, so a pool update only re-evaluates the cycles
+ * through that pool. Not thread-safe, feed it from one thread, e.g. the loop polling pool state.
+ */
+public class CycleDetector {
+
+    // fee rates are in basis points, see MathUtil
+    private static final double FEE_SCALE = 10_000d;
+
+    /** One swap direction of a pool */
+    private record Edge(int pool, String typeIn, String typeOut, boolean xToY) {}
+
+    /** Edges in execution order, the first edge pays in the start coin type */
+    private record Cycle(int[] edges) {}
+
+    private final int maxLength;
+
+    private final List<Pool> pools = new ArrayList<>();
+
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+
+    private final List<Edge> edges = new ArrayList<>();
+
+    /** Log marginal rate of each edge after the fee */
+    private final List<Double> logRates = new ArrayList<>();
+
+    /** Edges leaving a coin type */
+    private final Map<String, List<Integer>> outgoing = new HashMap<>();
+
+    private final List<Cycle> cycles = new ArrayList<>();
+
+    /** Cycles through each pool */
+    private final List<List<Integer>> poolCycles = new ArrayList<>();
+
+    /**
+     * @param maxLength maximum number of pools on a cycle, at least 2
+     */
+    public CycleDetector(int maxLength) {
+        if (maxLength < 2) {
+            throw new AmmException("maxLength must be at least 2");
+        }
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Add a pool and every cycle through it, a pool already added is only updated
+     * @param typeX First coin type of the pool, either order
+     * @param typeY Second coin type of the pool, either order
+     * @param pool pool state, balX / balY follow the BCS-sorted coin order
+     */
+    public void addPool(String typeX, String typeY, Pool pool) {
+        if (poolIndex.containsKey(pool.getId())) {
+            update(pool);
+            return;
+        }
+        MathUtil.validateFeeRate(pool.getFeeRate());
+        CoinPair pair = PackageUtil.getCoinPair(typeX, typeY);
+        int index = pools.size();
+        pools.add(pool);
+        poolIndex.put(pool.getId(), index);
+        poolCycles.add(new ArrayList<>());
+        int forward = addEdge(new Edge(index, pair.typeX(), pair.typeY(), true));
+        int backward = addEdge(new Edge(index, pair.typeY(), pair.typeX(), false));
+        weigh(index);
+
+        // cycles without the new pool already exist, so each new cycle starts on one of its edges
+        enumerate(forward);
+        enumerate(backward);
+    }
+
+    private int addEdge(Edge edge) {
+        edges.add(edge);
+        logRates.add(Double.NEGATIVE_INFINITY);
+        int index = edges.size() - 1;
+        outgoing.computeIfAbsent(edge.typeIn(), k -> new ArrayList<>()).add(index);
+        return index;
+    }
+
+    public int getPoolCount() {
+        return pools.size();
+    }
+
+    public int getCycleCount() {
+        return cycles.size();
+    }
+
+    /**
+     * @param poolId pool ID
+     * @returns number of cycles through the pool, 0 if the pool is unknown
+     */
+    public int getCycleCount(String poolId) {
+        Integer index = poolIndex.get(poolId);
+        return index == null ? 0 : poolCycles.get(index).size();
+    }
+
+    /**
+     * Replace the state of a pool and re-evaluate the cycles through it
+     * @param pool new pool state, ignored if the pool is unknown or its version is not newer
+     * @returns profitable cycles through the pool, most profitable first
+     */
+    public List<Arbitrage> update(Pool pool) {
+        return update(List.of(pool));
+    }
+
+    /**
+     * Replace the state of many pools, e.g. every pool of a checkpoint view, and re-evaluate each cycle through
+     * a changed pool once
+     * @param changed new pool states, pools that are unknown or whose version is not newer are ignored
+     * @returns profitable cycles through the changed pools, most profitable first
+     */
+    public List<Arbitrage> update(Collection<Pool> changed) {
+        Set<Integer> touched = new LinkedHashSet<>();
+        for (Pool pool : changed) {
+            Integer index = poolIndex.get(pool.getId());
+            if (index == null || !isNewer(pool, pools.get(index))) {
+                continue;
+            }
+            pools.set(index, pool);
+            weigh(index);
+            touched.addAll(poolCycles.get(index));
+        }
+        return evaluate(touched);
+    }
+
+    /**
+     * Evaluate every cycle
+     * @returns profitable cycles, most profitable first
+     */
+    public List<Arbitrage> findAll() {
+        List<Integer> all = new ArrayList<>(cycles.size());
+        for (int i = 0; i < cycles.size(); i++) {
+            all.add(i);
+        }
+        return evaluate(all);
+    }
+
+    private List<Arbitrage> evaluate(Collection<Integer> cycleIndexes) {
+        List<Arbitrage> found = new ArrayList<>();
+        for (int cycle : cycleIndexes) {
+            Arbitrage arbitrage = evaluate(cycles.get(cycle));
+            if (arbitrage != null) {
+                found.add(arbitrage);
+            }
+        }
+        found.sort(Comparator.comparing(Arbitrage::profit).reversed());
+        return found;
+    }
+
+    /**
+     * Quote a cycle at its profit-maximizing input
+     * @returns arbitrage, or null if the cycle does not profit at any size
+     */
+    private Arbitrage evaluate(Cycle cycle) {
+        double logGain = 0;
+        for (int edge : cycle.edges()) {
+            logGain += logRates.get(edge);
+        }
+        if (!(logGain > 0)) {
+            return null;
+        }
+
+        // compose out = A*x / (B + C*x) hop by hop, normalized to B = 1
+        double a = 1;
+        double c = 0;
+        for (int edge : cycle.edges()) {
+            Edge e = edges.get(edge);
+            Pool pool = pools.get(e.pool());
+            double gamma = (FEE_SCALE - pool.getFeeRate().doubleValue()) / FEE_SCALE;
+            double reserveIn = reserveIn(e, pool).doubleValue();
+            double reserveOut = reserveOut(e, pool).doubleValue();
+            c = (reserveIn * c + gamma * a) / reserveIn;
+            a = gamma * reserveOut * a / reserveIn;
+        }
+        // d/dx (A*x / (1 + C*x) - x) = 0
+        double optimal = (Math.sqrt(a) - 1) / c;
+        if (!(optimal >= 1)) {
+            return null;
+        }
+        BigInteger amountIn = BigInteger.valueOf((long) Math.min(optimal, Long.MAX_VALUE));
+
+        List<RouteHop> hops = new ArrayList<>(cycle.edges().length);
+        BigInteger amount = amountIn;
+        for (int edge : cycle.edges()) {
+            Edge e = edges.get(edge);
+            Pool pool = pools.get(e.pool());
+            BigInteger amountOut;
+            try {
+                amountOut = MathUtil.getAmountOut(pool.getFeeRate(), amount, reserveIn(e, pool), reserveOut(e, pool));
+            } catch (AmmException ex) {
+                // the hop returns nothing or overflows u64
+                return null;
+            }
+            if (amountOut.signum() <= 0) {
+                return null;
+            }
+            hops.add(new RouteHop(pool, e.typeIn(), e.typeOut(), amount, amountOut));
+            amount = amountOut;
+        }
+        BigInteger profit = amount.subtract(amountIn);
+        if (profit.signum() <= 0) {
+            // rounding ate the edge
+            return null;
+        }
+        return new Arbitrage(new Route(true, hops), profit, logGain);
+    }
+
+    /**
+     * Recompute the log rates of both directions of a pool, an empty reserve never profits
+     */
+    private void weigh(int pool) {
+        Pool state = pools.get(pool);
+        double logGamma = Math.log((FEE_SCALE - state.getFeeRate().doubleValue()) / FEE_SCALE);
+        boolean empty = state.getBalX().signum() <= 0 || state.getBalY().signum() <= 0;
+        double logX = empty ? 0 : Math.log(state.getBalX().doubleValue());
+        double logY = empty ? 0 : Math.log(state.getBalY().doubleValue());
+        // edges of pool i are 2i (x to y) and 2i + 1 (y to x)
+        logRates.set(2 * pool, empty ? Double.NEGATIVE_INFINITY : logGamma + logY - logX);
+        logRates.set(2 * pool + 1, empty ? Double.NEGATIVE_INFINITY : logGamma + logX - logY);
+    }
+
+    /**
+     * Record every simple cycle starting with the given edge and closing through older pools only
+     */
+    private void enumerate(int first) {
+        Edge start = edges.get(first);
+        Set<String> visited = new HashSet<>();
+        visited.add(start.typeIn());
+        visited.add(start.typeOut());
+        List<Integer> path = new ArrayList<>();
+        path.add(first);
+        walk(start.typeIn(), start.typeOut(), start.pool(), visited, path);
+    }
+
+    private void walk(String home, String type, int newPool, Set<String> visited, List<Integer> path) {
+        for (int edge : outgoing.getOrDefault(type, List.of())) {
+            Edge e = edges.get(edge);
+            if (e.pool() == newPool) {
+                continue;
+            }
+            if (e.typeOut().equals(home)) {
+                path.add(edge);
+                record(path);
+                path.removeLast();
+            } else if (path.size() + 1 < maxLength && !visited.contains(e.typeOut())) {
+                visited.add(e.typeOut());
+                path.add(edge);
+                walk(home, e.typeOut(), newPool, visited, path);
+                path.removeLast();
+                visited.remove(e.typeOut());
+            }
+        }
+    }
+
+    private void record(List<Integer> path) {
+        int[] cycleEdges = path.stream().mapToInt(Integer::intValue).toArray();
+        int index = cycles.size();
+        cycles.add(new Cycle(cycleEdges));
+        for (int edge : cycleEdges) {
+            poolCycles.get(edges.get(edge).pool()).add(index);
+        }
+    }
+
+    private static BigInteger reserveIn(Edge edge, Pool pool) {
+        return edge.xToY() ? pool.getBalX() : pool.getBalY();
+    }
+
+    private static BigInteger reserveOut(Edge edge, Pool pool) {
+        return edge.xToY() ? pool.getBalY() : pool.getBalX();
+    }
+
+    private static boolean isNewer(Pool pool, Pool held) {
+        if (pool.getVersion() == null || held.getVersion() == null) {
+            return true;
+        }
+        return pool.getVersion() > held.getVersion();
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.router;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.CoinPair;
+import io.dipcoin.sui.amm.model.Quote;
+import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.utils.MathUtil;
+import io.dipcoin.sui.amm.utils.PackageUtil;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 15:30
+ * @Description : swap quotes over a snapshot of pool reserves. Each added pool direction is a row; the batch
+ * methods quote every size on every row into caller-owned arrays on the long math path, so repeated quoting
+ * neither allocates nor touches the network. Rows are added once, quoting is read-only and may run concurrently.
+ */
+public class Quoter {
+
+    private static final int INITIAL_ROWS = 8;
+
+    private String[] poolIds = new String[INITIAL_ROWS];
+
+    private long[] feeRates = new long[INITIAL_ROWS];
+
+    private long[] reservesIn = new long[INITIAL_ROWS];
+
+    private long[] reservesOut = new long[INITIAL_ROWS];
+
+    private int rows;
+
+    /**
+     * Add one swap direction of a pool
+     * @param typeIn coin type paid into the pool
+     * @param typeOut coin type received from the pool
+     * @param pool pool state, balX / balY follow the BCS-sorted coin order
+     * @returns row of the direction in the batch results
+     * @throws AmmException if a reserve is empty or does not fit in a long
+     */
+    public int add(String typeIn, String typeOut, Pool pool) {
+        boolean isSwap = PackageUtil.getCoinPair(typeIn, typeOut).reversed();
+        BigInteger reserveIn = isSwap ? pool.getBalY() : pool.getBalX();
+        BigInteger reserveOut = isSwap ? pool.getBalX() : pool.getBalY();
+        MathUtil.validateFeeRate(pool.getFeeRate());
+        if (reserveIn.signum() <= 0 || reserveOut.signum() <= 0) {
+            throw new AmmException("Reserves empty: " + pool.getId());
+        }
+        if (reserveIn.bitLength() >= Long.SIZE || reserveOut.bitLength() >= Long.SIZE) {
+            throw new AmmException("Reserves exceed the long range: " + pool.getId());
+        }
+
+        if (rows == poolIds.length) {
+            int capacity = rows * 2;
+            poolIds = Arrays.copyOf(poolIds, capacity);
+            feeRates = Arrays.copyOf(feeRates, capacity);
+            reservesIn = Arrays.copyOf(reservesIn, capacity);
+            reservesOut = Arrays.copyOf(reservesOut, capacity);
+        }
+        poolIds[rows] = pool.getId();
+        feeRates[rows] = pool.getFeeRate().longValue();
+        reservesIn[rows] = reserveIn.longValue();
+        reservesOut[rows] = reserveOut.longValue();
+        return rows++;
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * @param row row returned by add
+     * @returns pool ID of the row
+     */
+    public String getPoolId(int row) {
+        checkRow(row);
+        return poolIds[row];
+    }
+
+    /**
+     * Output of a fixed input on one row
+     * @param row row returned by add
+     * @param amountIn input amount
+     * @returns output amount, 0 if the input is not positive or too small to return anything
+     */
+    public long quoteExactIn(int row, long amountIn) {
+        checkRow(row);
+        return amountOut(row, amountIn);
+    }
+
+    /**
+     * Input required for a fixed output on one row
+     * @param row row returned by add
+     * @param amountOut output amount
+     * @returns input amount, 0 if the pool cannot fill the output
+     */
+    public long quoteExactOut(int row, long amountOut) {
+        checkRow(row);
+        return amountIn(row, amountOut);
+    }
+
+    /**
+     * Quote every input size on every row
+     * @param amountsIn input sizes
+     * @param amountsOut receives the output of size j on row i at [i][j], at least getRowCount() x amountsIn.length
+     */
+    public void quoteExactIn(long[] amountsIn, long[][] amountsOut) {
+        checkShape(amountsIn, amountsOut);
+        for (int i = 0; i < rows; i++) {
+            long[] out = amountsOut[i];
+            for (int j = 0; j < amountsIn.length; j++) {
+                out[j] = amountOut(i, amountsIn[j]);
+            }
+        }
+    }
+
+    /**
+     * Quote every output size on every row
+     * @param amountsOut output sizes
+     * @param amountsIn receives the input for size j on row i at [i][j], 0 where the pool cannot fill it;
+     *                  at least getRowCount() x amountsOut.length
+     */
+    public void quoteExactOut(long[] amountsOut, long[][] amountsIn) {
+        checkShape(amountsOut, amountsIn);
+        for (int i = 0; i < rows; i++) {
+            long[] in = amountsIn[i];
+            for (int j = 0; j < amountsOut.length; j++) {
+                in[j] = amountIn(i, amountsOut[j]);
+            }
+        }
+    }
+
+    /**
+     * Full quote of a fixed input, as the exact-in write API would send it
+     * @param pool pool state
+     * @param typeIn coin type paid into the pool
+     * @param typeOut coin type received from the pool
+     * @param amountIn input amount
+     * @param slippage slippage tolerance of the minimum output
+     * @returns quote
+     */
+    public static Quote quoteExactIn(Pool pool, String typeIn, String typeOut, BigInteger amountIn, BigInteger slippage) {
+        CoinPair pair = PackageUtil.getCoinPair(typeIn, typeOut);
+        BigInteger reserveIn = pair.reversed() ? pool.getBalY() : pool.getBalX();
+        BigInteger reserveOut = pair.reversed() ? pool.getBalX() : pool.getBalY();
+        BigInteger amountOut = MathUtil.getAmountOut(pool.getFeeRate(), amountIn, reserveIn, reserveOut);
+        return new Quote(pool.getId(), typeIn, typeOut, true, amountIn, amountOut,
+                MathUtil.getFeeAmount(pool.getFeeRate(), amountIn),
+                MathUtil.getPriceImpact(pool.getFeeRate(), amountIn, reserveIn),
+                MathUtil.getSlippageAmount(amountOut, slippage), amountIn);
+    }
+
+    /**
+     * Full quote of a fixed output, as the exact-out write API would send it
+     * @param pool pool state
+     * @param typeIn coin type paid into the pool
+     * @param typeOut coin type received from the pool
+     * @param amountOut output amount
+     * @param slippage slippage tolerance of the maximum input
+     * @returns quote
+     * @throws AmmException if the pool cannot fill the output
+     */
+    public static Quote quoteExactOut(Pool pool, String typeIn, String typeOut, BigInteger amountOut, BigInteger slippage) {
+        CoinPair pair = PackageUtil.getCoinPair(typeIn, typeOut);
+        BigInteger reserveIn = pair.reversed() ? pool.getBalY() : pool.getBalX();
+        BigInteger reserveOut = pair.reversed() ? pool.getBalX() : pool.getBalY();
+        if (amountOut.compareTo(reserveOut) >= 0) {
+            throw new AmmException("amountOut: " + amountOut + " exceeds the pool reserve: " + reserveOut);
+        }
+        BigInteger amountIn = MathUtil.getAmountIn(pool.getFeeRate(), amountOut, reserveIn, reserveOut);
+        BigInteger amountInMax = MathUtil.getMaxAmountIn(amountIn, slippage);
+        return new Quote(pool.getId(), typeIn, typeOut, false, amountIn, amountOut,
+                MathUtil.getFeeAmount(pool.getFeeRate(), amountIn),
+                MathUtil.getPriceImpact(pool.getFeeRate(), amountIn, reserveIn),
+                amountOut, amountInMax);
+    }
+
+    private long amountOut(int row, long amountIn) {
+        if (amountIn <= 0) {
+            return 0L;
+        }
+        return MathUtil.getAmountOut(feeRates[row], amountIn, reservesIn[row], reservesOut[row]);
+    }
+
+    private long amountIn(int row, long amountOut) {
+        if (amountOut <= 0 || amountOut >= reservesOut[row]) {
+            return 0L;
+        }
+        try {
+            return MathUtil.getAmountIn(feeRates[row], amountOut, reservesIn[row], reservesOut[row]);
+        } catch (AmmException e) {
+            // required input does not fit in a long
+            return 0L;
+        }
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + rows);
+        }
+    }
+
+    private void checkShape(long[] sizes, long[][] results) {
+        if (results.length < rows) {
+            throw new AmmException("results has " + results.length + " rows, " + rows + " needed");
+        }
+        for (int i = 0; i < rows; i++) {
+            if (results[i].length < sizes.length) {
+                throw new AmmException("results row " + i + " has " + results[i].length + " columns, " + sizes.length + " needed");
+            }
+        }
+    }
+
+}
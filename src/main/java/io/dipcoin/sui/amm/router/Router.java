@@ -0,0 +1,209 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.router;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.CoinPair;
+import io.dipcoin.sui.amm.model.Route;
+import io.dipcoin.sui.amm.model.RouteHop;
+import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.utils.MathUtil;
+import io.dipcoin.sui.amm.utils.PackageUtil;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 10:20
+ * @Description : token graph over a snapshot of pool reserves, finds the best exact-in / exact-out path.
+ * Pools are added once, searches are read-only and may run concurrently.
+ */
+public class Router {
+
+    /** One swap direction of a pool */
+    private record Edge(Pool pool, String typeIn, String typeOut, boolean xToY) {
+
+        BigInteger reserveIn() {
+            return xToY ? pool.getBalX() : pool.getBalY();
+        }
+
+        BigInteger reserveOut() {
+            return xToY ? pool.getBalY() : pool.getBalX();
+        }
+    }
+
+    /** Edges leaving a coin type */
+    private final Map<String, List<Edge>> outgoing = new HashMap<>();
+
+    /** Edges entering a coin type */
+    private final Map<String, List<Edge>> incoming = new HashMap<>();
+
+    private int poolCount;
+
+    /**
+     * Add a pool to the graph, pools with an empty reserve are ignored
+     * @param typeX First coin type of the pool, either order
+     * @param typeY Second coin type of the pool, either order
+     * @param pool pool state, balX / balY follow the BCS-sorted coin order
+     */
+    public void addPool(String typeX, String typeY, Pool pool) {
+        if (pool.getBalX().signum() <= 0 || pool.getBalY().signum() <= 0) {
+            return;
+        }
+        CoinPair pair = PackageUtil.getCoinPair(typeX, typeY);
+        addEdge(new Edge(pool, pair.typeX(), pair.typeY(), true));
+        addEdge(new Edge(pool, pair.typeY(), pair.typeX(), false));
+        poolCount++;
+    }
+
+    private void addEdge(Edge edge) {
+        outgoing.computeIfAbsent(edge.typeIn(), k -> new ArrayList<>()).add(edge);
+        incoming.computeIfAbsent(edge.typeOut(), k -> new ArrayList<>()).add(edge);
+    }
+
+    public int getPoolCount() {
+        return poolCount;
+    }
+
+    /**
+     * Find the path paying exactly amountIn of typeIn that receives the most typeOut
+     * @param typeIn coin type paid
+     * @param typeOut coin type received
+     * @param amountIn input amount
+     * @param maxHops maximum number of pools on the path
+     * @returns best route, hop amounts are the quotes at the graph's pool state
+     * @throws AmmException if no path within maxHops can fill the swap
+     */
+    public Route findBestExactIn(String typeIn, String typeOut, BigInteger amountIn, int maxHops) {
+        validate(typeIn, typeOut, maxHops);
+        MathUtil.validateAmount(amountIn);
+
+        Search search = new Search(typeOut, maxHops);
+        search.visited.add(typeIn);
+        search.forward(typeIn, amountIn);
+        if (search.best == null) {
+            throw new AmmException("No route from " + typeIn + " to " + typeOut + " within " + maxHops + " hops");
+        }
+        return new Route(true, search.best);
+    }
+
+    /**
+     * Find the path receiving exactly amountOut of typeOut that pays the least typeIn
+     * @param typeIn coin type paid
+     * @param typeOut coin type received
+     * @param amountOut output amount
+     * @param maxHops maximum number of pools on the path
+     * @returns best route, hop amounts are the quotes at the graph's pool state
+     * @throws AmmException if no path within maxHops can fill the swap
+     */
+    public Route findBestExactOut(String typeIn, String typeOut, BigInteger amountOut, int maxHops) {
+        validate(typeIn, typeOut, maxHops);
+        MathUtil.validateAmount(amountOut);
+
+        Search search = new Search(typeIn, maxHops);
+        search.visited.add(typeOut);
+        search.backward(typeOut, amountOut);
+        if (search.best == null) {
+            throw new AmmException("No route from " + typeIn + " to " + typeOut + " within " + maxHops + " hops");
+        }
+        return new Route(false, search.best.reversed());
+    }
+
+    private static void validate(String typeIn, String typeOut, int maxHops) {
+        if (typeIn.equals(typeOut)) {
+            throw new AmmException("Type in and type out cannot be the same");
+        }
+        if (maxHops < 1) {
+            throw new AmmException("maxHops must be at least 1");
+        }
+    }
+
+    /**
+     * Depth-first walk over simple paths. Coin types are never revisited, so no pool is used twice
+     * and every hop is quoted against untouched reserves.
+     */
+    private final class Search {
+
+        private final String target;
+        private final int maxHops;
+        private final Set<String> visited = new HashSet<>();
+        private final List<RouteHop> path = new ArrayList<>();
+        private List<RouteHop> best;
+        private BigInteger bestAmount;
+
+        private Search(String target, int maxHops) {
+            this.target = target;
+            this.maxHops = maxHops;
+        }
+
+        private void forward(String type, BigInteger amountIn) {
+            for (Edge edge : outgoing.getOrDefault(type, List.of())) {
+                String next = edge.typeOut();
+                if (visited.contains(next)) {
+                    continue;
+                }
+                BigInteger amountOut = MathUtil.getAmountOut(edge.pool().getFeeRate(), amountIn, edge.reserveIn(), edge.reserveOut());
+                if (amountOut.signum() <= 0) {
+                    continue;
+                }
+                path.add(new RouteHop(edge.pool(), type, next, amountIn, amountOut));
+                if (next.equals(target)) {
+                    if (bestAmount == null || amountOut.compareTo(bestAmount) > 0) {
+                        best = List.copyOf(path);
+                        bestAmount = amountOut;
+                    }
+                } else if (path.size() < maxHops) {
+                    visited.add(next);
+                    forward(next, amountOut);
+                    visited.remove(next);
+                }
+                path.removeLast();
+            }
+        }
+
+        private void backward(String type, BigInteger amountOut) {
+            for (Edge edge : incoming.getOrDefault(type, List.of())) {
+                String prev = edge.typeIn();
+                if (visited.contains(prev) || amountOut.compareTo(edge.reserveOut()) >= 0) {
+                    continue;
+                }
+                BigInteger amountIn;
+                try {
+                    amountIn = MathUtil.getAmountIn(edge.pool().getFeeRate(), amountOut, edge.reserveIn(), edge.reserveOut());
+                } catch (AmmException e) {
+                    // required input does not fit in u64
+                    continue;
+                }
+                path.add(new RouteHop(edge.pool(), prev, type, amountIn, amountOut));
+                if (prev.equals(target)) {
+                    if (bestAmount == null || amountIn.compareTo(bestAmount) < 0) {
+                        best = List.copyOf(path);
+                        bestAmount = amountIn;
+                    }
+                } else if (path.size() < maxHops) {
+                    visited.add(prev);
+                    backward(prev, amountIn);
+                    visited.remove(prev);
+                }
+                path.removeLast();
+            }
+        }
+    }
+
+}
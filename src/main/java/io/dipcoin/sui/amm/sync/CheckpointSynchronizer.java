@@ -0,0 +1,242 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.sync;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.response.Pool;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 15:30
+ * @Description : keeps a VersionedPoolStore in step with the chain checkpoint by checkpoint. The object changes of
+ * each checkpoint are filtered down to the AMM pool type and the changed pools are read at exactly the changed
+ * versions, so a consistent view reflects one checkpoint, and pools registered after the start are picked up.
+ * Checkpoints are fetched a window at a time concurrently and committed in order; a failure leaves the store at the
+ * last committed checkpoint and the next poll resumes after it.
+ * The start, and any window whose versions the node has pruned, is read from the current objects instead. Those may
+ * be ahead of the checkpoint they are committed as of, so the view is marked inconsistent until the checkpoint that
+ * was latest after the read is committed.
+ */
+public class CheckpointSynchronizer {
+
+    /**
+     * Object written by a checkpoint
+     * @param objectId object ID
+     * @param objectType full move type of the object
+     * @param version version after the checkpoint
+     */
+    public record ObjectChange(String objectId, String objectType, long version) {}
+
+    /**
+     * Object changes of one checkpoint
+     * @param sequenceNumber checkpoint sequence number
+     * @param changes created and mutated objects of every transaction in the checkpoint
+     */
+    public record Checkpoint(long sequenceNumber, List<ObjectChange> changes) {}
+
+    /**
+     * Checkpoints of the chain
+     */
+    public interface CheckpointSource {
+
+        /**
+         * @returns sequence number of the latest executed checkpoint
+         */
+        long latest();
+
+        /**
+         * @param sequenceNumber checkpoint sequence number
+         * @returns object changes of the checkpoint
+         */
+        Checkpoint get(long sequenceNumber);
+    }
+
+    /**
+     * Reads pools at given versions
+     */
+    @FunctionalInterface
+    public interface VersionReader {
+
+        /**
+         * @param versions version to read keyed by pool ID
+         * @returns pools at exactly the versions, pools whose version is no longer available are left out
+         */
+        Collection<Pool> read(Map<String, Long> versions);
+    }
+
+    private static final int CHECKPOINT_WINDOW = 16;
+
+    private final VersionedPoolStore store = new VersionedPoolStore();
+
+    private final String poolType;
+
+    private final CheckpointSource source;
+
+    private final VersionReader reader;
+
+    private final Supplier<Collection<Pool>> snapshot;
+
+    private final Executor executor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** First checkpoint at which the view is consistent again after a read of the current objects */
+    private long consistentAt;
+
+    /**
+     * @param poolType move type of the pools without type arguments, packageId::amm_swap::Pool
+     * @param source checkpoint source
+     * @param reader reads pools at given versions
+     * @param snapshot reads every pool at its current version, used to start and when versions are pruned
+     * @param executor runs the checkpoint reads of a window
+     */
+    public CheckpointSynchronizer(String poolType, CheckpointSource source, VersionReader reader,
+                                  Supplier<Collection<Pool>> snapshot, Executor executor) {
+        this.poolType = poolType + "<";
+        this.source = source;
+        this.reader = reader;
+        this.snapshot = snapshot;
+        this.executor = executor;
+    }
+
+    /**
+     * Commit every checkpoint up to the latest one. The first poll reads every pool at its current version,
+     * commits it as of the checkpoint that was latest before the read and follows from there; until the first
+     * poll returns the view may be marked inconsistent. Not reentrant, concurrent calls run one after the other.
+     * @returns number of pool versions committed
+     */
+    public int poll() {
+        lock.lock();
+        try {
+            if (store.getCheckpoint() < 0) {
+                long head = source.latest();
+                commitCurrent(head);
+            }
+
+            long latest = source.latest();
+            int updated = 0;
+            long from = store.getCheckpoint() + 1;
+            while (from <= latest) {
+                long to = Math.min(from + CHECKPOINT_WINDOW - 1, latest);
+                updated += apply(to, fetch(from, to));
+                from = to + 1;
+                // a read of the current objects must be caught up with before the view is consistent
+                latest = Math.max(latest, consistentAt);
+            }
+            return updated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public VersionedPoolStore getStore() {
+        return store;
+    }
+
+    /**
+     * Read the checkpoints of a window concurrently, returned in sequence order
+     */
+    private List<Checkpoint> fetch(long from, long to) {
+        List<CompletableFuture<Checkpoint>> futures = new ArrayList<>((int) (to - from + 1));
+        for (long sequenceNumber = from; sequenceNumber <= to; sequenceNumber++) {
+            long requested = sequenceNumber;
+            futures.add(CompletableFuture.supplyAsync(() -> source.get(requested), executor));
+        }
+
+        List<Checkpoint> checkpoints = new ArrayList<>(futures.size());
+        long expected = from;
+        for (CompletableFuture<Checkpoint> future : futures) {
+            Checkpoint checkpoint = join(future);
+            if (checkpoint == null || checkpoint.sequenceNumber() != expected) {
+                throw new AmmException("Checkpoint " + expected + " missing or out of order");
+            }
+            checkpoints.add(checkpoint);
+            expected++;
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Read the newest pool versions of the window that the store does not have yet and commit them as of the
+     * last checkpoint of the window
+     */
+    private int apply(long to, List<Checkpoint> checkpoints) {
+        Map<String, Long> versions = new HashMap<>();
+        for (Checkpoint checkpoint : checkpoints) {
+            for (ObjectChange change : checkpoint.changes()) {
+                if (change.objectType() != null && change.objectType().startsWith(poolType)) {
+                    versions.merge(change.objectId(), change.version(), Math::max);
+                }
+            }
+        }
+        Iterator<Map.Entry<String, Long>> iterator = versions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            Long stored = store.getVersion(entry.getKey());
+            if (stored != null && stored >= entry.getValue()) {
+                iterator.remove();
+            }
+        }
+
+        Collection<Pool> pools = versions.isEmpty() ? List.of() : reader.read(versions);
+        if (!atVersions(pools, versions)) {
+            // a pruned version cannot be read as of this window, current objects are never passed off as it
+            return commitCurrent(to);
+        }
+        return Math.max(store.commit(to, pools, to >= consistentAt), 0);
+    }
+
+    /**
+     * Commit every pool at its current version as of a checkpoint. The states may be ahead of it, so the view
+     * stays inconsistent until the checkpoint that is latest after the read has been committed.
+     */
+    private int commitCurrent(long checkpoint) {
+        Collection<Pool> pools = snapshot.get();
+        consistentAt = source.latest();
+        return Math.max(store.commit(checkpoint, pools, checkpoint >= consistentAt), 0);
+    }
+
+    private static boolean atVersions(Collection<Pool> pools, Map<String, Long> versions) {
+        int found = 0;
+        for (Pool pool : pools) {
+            if (pool.getVersion() != null && pool.getVersion().equals(versions.get(pool.getId()))) {
+                found++;
+            }
+        }
+        return found == versions.size();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AmmException ammException) {
+                throw ammException;
+            }
+            throw new AmmException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.sync;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 10:20
+ * @Description : position of a follower in its stream, saved after every page so a restart resumes there.
+ * Implementations back it with a file or a database; the cursor is an opaque string.
+ */
+public interface CursorStore {
+
+    /**
+     * @returns saved cursor, or null to start from the head of the stream
+     */
+    String load();
+
+    /**
+     * @param cursor position after the last applied page
+     */
+    void save(String cursor);
+
+    /**
+     * Cursor store that only lives as long as the process
+     * @returns in-memory cursor store, empty
+     */
+    static CursorStore inMemory() {
+        return new CursorStore() {
+
+            private volatile String cursor;
+
+            @Override
+            public String load() {
+                return cursor;
+            }
+
+            @Override
+            public void save(String cursor) {
+                this.cursor = cursor;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.sync;
+
+import io.dipcoin.sui.amm.model.PoolDelta;
+import io.dipcoin.sui.amm.model.response.Pool;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 11:00
+ * @Description : keeps a PoolTable current from the swap and liquidity events of the AMM, one event stream for
+ * every pool instead of a read per pool. Each poll drains the stream from the saved cursor and applies the
+ * deltas; the tracked pools are read from chain again once per reconcile interval, which also corrects deltas
+ * that do not show in the events (e.g. the protocol fee share) or that overlapped the last read.
+ */
+public class PoolEventFollower {
+
+    /**
+     * One page of the event stream
+     * @param deltas decoded deltas in stream order, unrelated events left out
+     * @param nextCursor cursor after the page, null if the page was empty
+     * @param hasNextPage whether more events follow
+     */
+    public record EventPage(List<PoolDelta> deltas, String nextCursor, boolean hasNextPage) {}
+
+    /**
+     * Event stream in ascending order
+     */
+    @FunctionalInterface
+    public interface EventSource {
+
+        /**
+         * @param cursor position to read after, null for the start of the stream
+         * @param limit maximum events per page
+         * @returns next page
+         */
+        EventPage next(String cursor, int limit);
+    }
+
+    private static final int PAGE_LIMIT = 50;
+
+    private final PoolTable table;
+
+    private final Set<String> poolIds;
+
+    private final EventSource source;
+
+    private final Function<Collection<String>, Map<String, Pool>> reader;
+
+    private final CursorStore cursors;
+
+    private final long reconcileIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long reconciledAt;
+
+    private boolean reconcileDue = true;
+
+    /**
+     * @param poolIds pools to track
+     * @param source event stream
+     * @param reader reads pools from chain, pools that do not exist are left out
+     * @param cursors saved stream position
+     * @param reconcileInterval how long event deltas are trusted before the pools are read again
+     */
+    public PoolEventFollower(Collection<String> poolIds, EventSource source, Function<Collection<String>, Map<String, Pool>> reader,
+                             CursorStore cursors, Duration reconcileInterval) {
+        if (reconcileInterval == null || reconcileInterval.isNegative()) {
+            throw new IllegalArgumentException("reconcileInterval must not be negative");
+        }
+        this.table = new PoolTable();
+        this.poolIds = Set.copyOf(poolIds);
+        this.source = source;
+        this.reader = reader;
+        this.cursors = cursors;
+        this.reconcileIntervalNanos = reconcileInterval.toNanos();
+    }
+
+    /**
+     * Drain the event stream and apply every delta, then read the pools again if the reconcile interval has
+     * passed. The first poll always reads them, after the stream has caught up. Not reentrant, concurrent
+     * calls run one after the other.
+     * @returns number of deltas applied to tracked pools
+     */
+    public int poll() {
+        lock.lock();
+        try {
+            int applied = 0;
+            String cursor = cursors.load();
+            EventPage page;
+            do {
+                page = source.next(cursor, PAGE_LIMIT);
+                for (PoolDelta delta : page.deltas()) {
+                    if (table.apply(delta)) {
+                        applied++;
+                    }
+                }
+                if (page.nextCursor() != null) {
+                    cursor = page.nextCursor();
+                    cursors.save(cursor);
+                }
+            } while (page.hasNextPage());
+
+            if (reconcileDue || System.nanoTime() - reconciledAt >= reconcileIntervalNanos) {
+                reconcile();
+            }
+            return applied;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read every tracked pool from chain now and replace its state
+     */
+    public void reconcile() {
+        lock.lock();
+        try {
+            table.putAll(reader.apply(poolIds).values());
+            reconciledAt = System.nanoTime();
+            reconcileDue = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public PoolTable getTable() {
+        return table;
+    }
+
+    public Set<String> getPoolIds() {
+        return poolIds;
+    }
+
+}
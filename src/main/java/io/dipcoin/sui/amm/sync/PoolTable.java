@@ -0,0 +1,80 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.sync;
+
+import io.dipcoin.sui.amm.model.PoolDelta;
+import io.dipcoin.sui.amm.model.response.Pool;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 10:30
+ * @Description : in-memory pool states kept current by a follower. Every change replaces the Pool object, so a
+ * Pool handed out is never modified afterwards and readers need no locking. Event deltas leave the version at
+ * the last read from chain.
+ */
+public class PoolTable {
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * @param poolId pool ID
+     * @returns current state, or null if the pool is not tracked
+     */
+    public Pool get(String poolId) {
+        return pools.get(poolId);
+    }
+
+    /**
+     * @returns copy of every tracked pool keyed by pool ID
+     */
+    public Map<String, Pool> snapshot() {
+        return Map.copyOf(pools);
+    }
+
+    public Set<String> getPoolIds() {
+        return Set.copyOf(pools.keySet());
+    }
+
+    public int size() {
+        return pools.size();
+    }
+
+    /**
+     * Replace pool states with states read from chain
+     * @param read pools read from chain
+     */
+    public void putAll(Collection<Pool> read) {
+        for (Pool pool : read) {
+            pools.put(pool.getId(), pool);
+        }
+    }
+
+    /**
+     * Apply an event delta, events of untracked pools are ignored
+     * @param delta reserve and LP supply change
+     * @returns true if the pool is tracked
+     */
+    public boolean apply(PoolDelta delta) {
+        return pools.computeIfPresent(delta.poolId(), (id, old) -> delta.applyTo(old)) != null;
+    }
+
+    public void remove(String poolId) {
+        pools.remove(poolId);
+    }
+
+}
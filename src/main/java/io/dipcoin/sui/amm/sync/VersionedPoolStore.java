@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.sync;
+
+import io.dipcoin.sui.amm.model.response.Pool;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 15:00
+ * @Description : pool states stamped with the checkpoint they reflect. A checkpoint is committed at most once and
+ * only after the previous one, and a pool version replaces only an older version, so replaying checkpoints or
+ * overlapping a bulk read never applies a change twice or moves a pool back. Readers get an immutable view
+ * swapped in whole per commit; in a consistent view every pool is at the same checkpoint.
+ */
+public class VersionedPoolStore {
+
+    /**
+     * Pool states as of a checkpoint
+     * @param checkpoint sequence number of the last committed checkpoint, -1 before the first commit
+     * @param pools pool states keyed by pool ID, immutable
+     * @param consistent false while some pools may be from a later checkpoint, e.g. read at their current version
+     */
+    public record View(long checkpoint, Map<String, Pool> pools, boolean consistent) {}
+
+    private volatile View view = new View(-1L, Map.of(), false);
+
+    /**
+     * @returns current view
+     */
+    public View view() {
+        return view;
+    }
+
+    /**
+     * @param poolId pool ID
+     * @returns pool state as of the current checkpoint, or null if unknown
+     */
+    public Pool get(String poolId) {
+        return view.pools().get(poolId);
+    }
+
+    /**
+     * @param poolId pool ID
+     * @returns stored version of the pool, or null if unknown
+     */
+    public Long getVersion(String poolId) {
+        Pool pool = view.pools().get(poolId);
+        return pool == null ? null : pool.getVersion();
+    }
+
+    public long getCheckpoint() {
+        return view.checkpoint();
+    }
+
+    public int size() {
+        return view.pools().size();
+    }
+
+    /**
+     * Commit the pool states read at exactly the versions of a checkpoint
+     * @param checkpoint sequence number, ignored unless it is after the current one
+     * @param pools pool states read at the checkpoint's versions
+     * @returns number of pools whose version moved forward, -1 if the checkpoint was already committed
+     */
+    public int commit(long checkpoint, Collection<Pool> pools) {
+        return commit(checkpoint, pools, true);
+    }
+
+    /**
+     * Commit the pool states of a checkpoint
+     * @param checkpoint sequence number, ignored unless it is after the current one
+     * @param pools pool states read at or after the checkpoint's versions
+     * @param consistent whether every pool of the resulting view is as of the checkpoint
+     * @returns number of pools whose version moved forward, -1 if the checkpoint was already committed
+     */
+    public synchronized int commit(long checkpoint, Collection<Pool> pools, boolean consistent) {
+        View current = view;
+        if (checkpoint <= current.checkpoint()) {
+            return -1;
+        }
+        Map<String, Pool> next = new HashMap<>(current.pools());
+        int updated = 0;
+        for (Pool pool : pools) {
+            if (isNewer(pool, next.get(pool.getId()))) {
+                next.put(pool.getId(), pool);
+                updated++;
+            }
+        }
+        view = new View(checkpoint, Map.copyOf(next), consistent);
+        return updated;
+    }
+
+    private static boolean isNewer(Pool pool, Pool stored) {
+        if (stored == null) {
+            return true;
+        }
+        if (pool.getVersion() == null || stored.getVersion() == null) {
+            return false;
+        }
+        return pool.getVersion() > stored.getVersion();
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.utils;
+
+import io.dipcoin.sui.amm.gas.GasEstimator;
+import io.dipcoin.sui.amm.model.ObjectRef;
+import io.dipcoin.sui.model.object.SuiObjectRef;
+import io.dipcoin.sui.model.transaction.OwnedObjectRef;
+import io.dipcoin.sui.model.transaction.GasCostSummary;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.model.transaction.TransactionBlockEffects;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 10:12
+ * @Description : transaction effects util
+ */
+public class EffectsUtil {
+
+    private static final String SUCCESS = "success";
+
+    /**
+     * Whether the transaction executed successfully
+     * @param response transaction response, may be null
+     * @returns true only if effects are present and report success
+     */
+    public static boolean isSuccess(SuiTransactionBlockResponse response) {
+        return isSuccess(response == null ? null : response.getEffects());
+    }
+
+    /**
+     * Whether an execution or dry run succeeded
+     * @param effects transaction effects, may be null
+     * @returns true only if effects are present and report success
+     */
+    public static boolean isSuccess(TransactionBlockEffects effects) {
+        return effects != null && effects.getStatus() != null && SUCCESS.equals(effects.getStatus().getStatus());
+    }
+
+    /**
+     * Execution error of failed effects
+     * @param effects transaction effects, may be null
+     * @returns error message, "no effects" without effects
+     */
+    public static String error(TransactionBlockEffects effects) {
+        if (effects == null || effects.getStatus() == null) {
+            return "no effects";
+        }
+        return effects.getStatus().getError();
+    }
+
+    /**
+     * New references of the objects the transaction created or mutated, the gas coin included
+     * @param response transaction response, may be null
+     * @returns reference keyed by object ID, empty without effects
+     */
+    public static Map<String, ObjectRef> changedRefs(SuiTransactionBlockResponse response) {
+        TransactionBlockEffects effects = response == null ? null : response.getEffects();
+        if (effects == null) {
+            return Map.of();
+        }
+        Map<String, ObjectRef> refs = new HashMap<>(toRefs(effects.getCreated()));
+        refs.putAll(toRefs(effects.getMutated()));
+        return refs;
+    }
+
+    /**
+     * IDs of the objects the transaction deleted, merged coins included
+     * @param response transaction response, may be null
+     * @returns object IDs, empty without effects
+     */
+    public static List<String> deletedIds(SuiTransactionBlockResponse response) {
+        TransactionBlockEffects effects = response == null ? null : response.getEffects();
+        if (effects == null || effects.getDeleted() == null) {
+            return List.of();
+        }
+        return effects.getDeleted().stream().map(SuiObjectRef::getObjectId).toList();
+    }
+
+    /**
+     * New references of the objects the transaction created
+     * @param response transaction response, may be null
+     * @returns reference keyed by object ID, empty without effects
+     */
+    public static Map<String, ObjectRef> createdRefs(SuiTransactionBlockResponse response) {
+        TransactionBlockEffects effects = response == null ? null : response.getEffects();
+        if (effects == null) {
+            return Map.of();
+        }
+        return toRefs(effects.getCreated());
+    }
+
+    /**
+     * New reference of the gas coin, reported for failed transactions too
+     * @param response transaction response, may be null
+     * @returns gas coin reference, null without effects
+     */
+    public static ObjectRef gasObjectRef(SuiTransactionBlockResponse response) {
+        TransactionBlockEffects effects = response == null ? null : response.getEffects();
+        if (effects == null || effects.getGasObject() == null) {
+            return null;
+        }
+        SuiObjectRef reference = effects.getGasObject().getReference();
+        return new ObjectRef(reference.getObjectId(), reference.getVersion(), reference.getDigest());
+    }
+
+    /**
+     * Net gas charged to the gas coin: computation and storage cost minus the storage rebate
+     * @param response transaction response, may be null
+     * @returns gas charged, negative if the rebate was larger; zero without effects
+     */
+    public static BigInteger gasCharged(SuiTransactionBlockResponse response) {
+        TransactionBlockEffects effects = response == null ? null : response.getEffects();
+        if (effects == null || effects.getGasUsed() == null) {
+            return BigInteger.ZERO;
+        }
+        GasCostSummary gasUsed = effects.getGasUsed();
+        return gasUsed.getComputationCost().add(gasUsed.getStorageCost()).subtract(gasUsed.getStorageRebate());
+    }
+
+    /**
+     * Gross gas cost of an execution or dry run, the storage rebate is not deducted
+     * @param effects transaction effects, may be null
+     * @returns computation and storage cost, null without gas usage
+     */
+    public static GasEstimator.GasCost gasCost(TransactionBlockEffects effects) {
+        if (effects == null || effects.getGasUsed() == null) {
+            return null;
+        }
+        GasCostSummary gasUsed = effects.getGasUsed();
+        return new GasEstimator.GasCost(gasUsed.getComputationCost(), gasUsed.getStorageCost());
+    }
+
+    private static Map<String, ObjectRef> toRefs(List<OwnedObjectRef> objects) {
+        if (objects == null) {
+            return Map.of();
+        }
+        Map<String, ObjectRef> refs = new HashMap<>(objects.size() * 2);
+        for (OwnedObjectRef object : objects) {
+            SuiObjectRef reference = object.getReference();
+            refs.put(reference.getObjectId(), new ObjectRef(reference.getObjectId(), reference.getVersion(), reference.getDigest()));
+        }
+        return refs;
+    }
+
+}
@@ -30,6 +30,12 @@ public class MathUtil {
     private final static BigInteger U64_MAX = new BigInteger("18446744073709551615");
     private final static BigInteger THOUSAND = new BigInteger("1000");
 
+    private final static long MAX_FEE_RATE_LONG = 2000L;
+    private final static long FEE_SCALE_LONG = 10000L;
+    private final static long SLIPPAGE_SCALE_LONG = 10000L;
+    // Marker returned by the 128-bit kernels when the result needs the BigInteger path
+    private final static long NOT_REPRESENTABLE = -1L;
+
     /**
      * Calculate output amount for a swap given input amount and reserves
      * @param feeRate Fee rate to apply to swap
@@ -48,6 +54,41 @@ public class MathUtil {
             throw new AmmException("Reserves empty");
         }
 
+        if (isLong(feeRate) && isLong(amountIn) && isLong(reserveIn) && isLong(reserveOut)) {
+            long amountOut = amountOutExact(feeRate.longValue(), amountIn.longValue(), reserveIn.longValue(), reserveOut.longValue());
+            if (amountOut != NOT_REPRESENTABLE) {
+                return BigInteger.valueOf(amountOut);
+            }
+        }
+        return amountOutBig(feeRate, amountIn, reserveIn, reserveOut);
+    }
+
+    /**
+     * Calculate output amount for a swap given input amount and reserves, without allocation
+     * @param feeRate Fee rate to apply to swap
+     * @param amountIn Input token amount
+     * @param reserveIn Reserve of input token
+     * @param reserveOut Reserve of output token
+     * @returns Expected output amount after fees, identical to the BigInteger overload
+     */
+    public static long getAmountOut(long feeRate, long amountIn, long reserveIn, long reserveOut) {
+        validateFeeRate(feeRate);
+        if (amountIn <= 0) {
+            throw new AmmException("Zero amount");
+        }
+        if (reserveIn <= 0 || reserveOut <= 0) {
+            throw new AmmException("Reserves empty");
+        }
+
+        long amountOut = amountOutExact(feeRate, amountIn, reserveIn, reserveOut);
+        if (amountOut != NOT_REPRESENTABLE) {
+            return amountOut;
+        }
+        return toLong(amountOutBig(BigInteger.valueOf(feeRate), BigInteger.valueOf(amountIn),
+                BigInteger.valueOf(reserveIn), BigInteger.valueOf(reserveOut)));
+    }
+
+    private static BigInteger amountOutBig(BigInteger feeRate, BigInteger amountIn, BigInteger reserveIn, BigInteger reserveOut) {
         // Calculate output required considering fees
         BigInteger feeMultiplier = FEE_SCALE.subtract(feeRate);
         BigInteger coinInValAfterFees = amountIn.multiply(feeMultiplier);
@@ -82,6 +123,43 @@ public class MathUtil {
             throw new AmmException("Reserves empty");
         }
 
+        if (isLong(feeRate) && isLong(amountOut) && isLong(reserveIn) && isLong(reserveOut)) {
+            long amountIn = amountInExact(feeRate.longValue(), amountOut.longValue(), reserveIn.longValue(), reserveOut.longValue());
+            if (amountIn != NOT_REPRESENTABLE) {
+                return BigInteger.valueOf(amountIn);
+            }
+        }
+        return amountInBig(feeRate, amountOut, reserveIn, reserveOut);
+    }
+
+    /**
+     * Calculate required input amount for desired output amount, without allocation
+     * @param feeRate Fee rate to apply to swap
+     * @param amountOut Desired output token amount
+     * @param reserveIn Reserve of input token
+     * @param reserveOut Reserve of output token
+     * @returns Required input amount including fees, identical to the BigInteger overload below 2^63
+     * @throws AmmException U64 overflow when the result is 2^63 or more, although the BigInteger overload
+     *         accepts results up to U64_MAX
+     */
+    public static long getAmountIn(long feeRate, long amountOut, long reserveIn, long reserveOut) {
+        validateFeeRate(feeRate);
+        if (amountOut <= 0) {
+            throw new AmmException("Zero amount");
+        }
+        if (reserveIn <= 0 || reserveOut <= 0) {
+            throw new AmmException("Reserves empty");
+        }
+
+        long amountIn = amountInExact(feeRate, amountOut, reserveIn, reserveOut);
+        if (amountIn != NOT_REPRESENTABLE) {
+            return amountIn;
+        }
+        return toLong(amountInBig(BigInteger.valueOf(feeRate), BigInteger.valueOf(amountOut),
+                BigInteger.valueOf(reserveIn), BigInteger.valueOf(reserveOut)));
+    }
+
+    private static BigInteger amountInBig(BigInteger feeRate, BigInteger amountOut, BigInteger reserveIn, BigInteger reserveOut) {
         // Calculate input required considering fees
         BigInteger feeMultiplier = FEE_SCALE.subtract(feeRate);
         BigInteger numerator = reserveIn.multiply(amountOut).multiply(FEE_SCALE);
@@ -97,6 +175,30 @@ public class MathUtil {
         return amountIn;
     }
 
+    /**
+     * Part of an input amount kept as the pool fee
+     * @param feeRate Fee rate of the pool
+     * @param amountIn Input token amount
+     * @returns amountIn * feeRate / 10000, rounded down
+     */
+    public static BigInteger getFeeAmount(BigInteger feeRate, BigInteger amountIn) {
+        validateFeeRate(feeRate);
+        return mulDiv(amountIn, feeRate, FEE_SCALE);
+    }
+
+    /**
+     * Share of the spot price a swap loses to its size, the fee is not counted
+     * @param feeRate Fee rate of the pool
+     * @param amountIn Input token amount
+     * @param reserveIn Reserve of input token
+     * @returns amountIn after fees / (reserveIn + amountIn after fees), 0.01 is 1%
+     */
+    public static double getPriceImpact(BigInteger feeRate, BigInteger amountIn, BigInteger reserveIn) {
+        validateFeeRate(feeRate);
+        double afterFees = amountIn.doubleValue() * (FEE_SCALE_LONG - feeRate.longValue()) / FEE_SCALE_LONG;
+        return afterFees / (reserveIn.doubleValue() + afterFees);
+    }
+
     /**
      *
      * @param coinXDesired
@@ -176,11 +278,40 @@ public class MathUtil {
      */
     public static BigInteger mulDiv(BigInteger x, BigInteger y, BigInteger z) {
         validateZero(z);
+        if (isLong(x) && isLong(y) && isLong(z)) {
+            long result = mulDivExact(x.longValue(), y.longValue(), z.longValue());
+            if (result != NOT_REPRESENTABLE) {
+                return BigInteger.valueOf(result);
+            }
+        }
         BigInteger result = x.multiply(y).divide(z);
         validateOverflow(result);
         return result;
     }
 
+    /**
+     * Performs multiplication then division: (x * y) / z with a 128-bit intermediate
+     * @param x First number to multiply, must not be negative
+     * @param y Second number to multiply, must not be negative
+     * @param z Number to divide by, must be positive
+     * @returns Result of (x * y) / z
+     * @throws AmmException division by zero, negative input, or U64 overflow when the result is 2^63 or more,
+     *         although the BigInteger overload accepts results up to U64_MAX
+     */
+    public static long mulDiv(long x, long y, long z) {
+        if (z == 0) {
+            throw new AmmException("Division by zero");
+        }
+        if (x < 0 || y < 0 || z < 0) {
+            throw new AmmException("Negative amount");
+        }
+        long result = mulDivExact(x, y, z);
+        if (result == NOT_REPRESENTABLE) {
+            throw new AmmException("U64 overflow");
+        }
+        return result;
+    }
+
     /**
      * get the calculated amount after applying slippage
      * @param amount
@@ -189,9 +320,41 @@ public class MathUtil {
      * @throws AmmException division by zero or U64 overflow
      */
     public static BigInteger getSlippageAmount(BigInteger amount, BigInteger slippage) {
+        if (isLong(amount) && isLong(slippage)) {
+            long result = slippageAmountExact(amount.longValue(), slippage.longValue());
+            if (result != NOT_REPRESENTABLE) {
+                return BigInteger.valueOf(result);
+            }
+        }
         return amount.multiply(SwapConstant.SLIPPAGE_SCALE.subtract(slippage)).divide(SwapConstant.SLIPPAGE_SCALE);
     }
 
+    /**
+     * get the calculated amount after applying slippage, without allocation
+     * @param amount must not be negative
+     * @param slippage between 0 and 10000
+     * @returns Result of( amount * (10000 - slippage) / 10000)
+     */
+    public static long getSlippageAmount(long amount, long slippage) {
+        long result = slippageAmountExact(amount, slippage);
+        if (result == NOT_REPRESENTABLE) {
+            return toLong(getSlippageAmount(BigInteger.valueOf(amount), BigInteger.valueOf(slippage)));
+        }
+        return result;
+    }
+
+    /**
+     * get the maximum input of an exact-output swap after applying slippage
+     * @param amountIn quoted input amount
+     * @param slippage slippage tolerance, below 10000
+     * @returns Result of( amountIn * 10000 / (10000 - slippage))
+     * @throws AmmException slippage of 100% or more, or U64 overflow
+     */
+    public static BigInteger getMaxAmountIn(BigInteger amountIn, BigInteger slippage) {
+        validateSlippage(slippage);
+        return mulDiv(amountIn, SwapConstant.SLIPPAGE_SCALE, SwapConstant.SLIPPAGE_SCALE.subtract(slippage));
+    }
+
     /**
      * validate fee rate
      * @param amount
@@ -202,6 +365,16 @@ public class MathUtil {
         }
     }
 
+    /**
+     * validate fee rate
+     * @param amount
+     */
+    public static void validateFeeRate(long amount) {
+        if (amount >= MAX_FEE_RATE_LONG || amount < 0) {
+            throw new AmmException("Invalid fee rate");
+        }
+    }
+
     /**
      * validate overflow amount
      * @param amount
@@ -241,4 +414,181 @@ public class MathUtil {
             throw new AmmException("Slippage must be less than 100%");
         }
     }
+
+    // ------------------------- 128-bit kernels -------------------------
+
+    /**
+     * amount_out = amountIn * (10000 - feeRate) * reserveOut / (reserveIn * 10000 + amountIn * (10000 - feeRate))
+     * All inputs are non-negative longs, the quotient is always below reserveOut.
+     */
+    private static long amountOutExact(long feeRate, long amountIn, long reserveIn, long reserveOut) {
+        long feeMultiplier = FEE_SCALE_LONG - feeRate;
+        // amountIn < 2^63 and feeMultiplier < 2^14, so the product fits in 128 bits
+        long afterFeesHi = Math.multiplyHigh(amountIn, feeMultiplier);
+        long afterFeesLo = amountIn * feeMultiplier;
+        if (afterFeesHi != 0) {
+            return NOT_REPRESENTABLE;
+        }
+
+        long numeratorHi = Math.unsignedMultiplyHigh(afterFeesLo, reserveOut);
+        long numeratorLo = afterFeesLo * reserveOut;
+
+        long denominatorHi = Math.multiplyHigh(reserveIn, FEE_SCALE_LONG);
+        long denominatorLo = reserveIn * FEE_SCALE_LONG;
+        long sumLo = denominatorLo + afterFeesLo;
+        if (Long.compareUnsigned(sumLo, denominatorLo) < 0) {
+            denominatorHi++;
+        }
+        denominatorLo = sumLo;
+        if (denominatorHi == 0 && denominatorLo == 0) {
+            throw new AmmException("Division by zero");
+        }
+        return divide128(numeratorHi, numeratorLo, denominatorHi, denominatorLo);
+    }
+
+    /**
+     * amount_in = reserveIn * amountOut * 10000 / ((reserveOut - amountOut) * (10000 - feeRate)) + 1
+     * All inputs are non-negative longs.
+     */
+    private static long amountInExact(long feeRate, long amountOut, long reserveIn, long reserveOut) {
+        long remaining = reserveOut - amountOut;
+        if (remaining < 0) {
+            return NOT_REPRESENTABLE;
+        }
+        if (remaining == 0) {
+            throw new AmmException("Division by zero");
+        }
+
+        long productHi = Math.multiplyHigh(reserveIn, amountOut);
+        long productLo = reserveIn * amountOut;
+        // (productHi, productLo) * 10000 must stay within 128 bits
+        if (Long.compareUnsigned(productHi, Long.divideUnsigned(-1L, FEE_SCALE_LONG)) > 0) {
+            return NOT_REPRESENTABLE;
+        }
+        long numeratorHi = productHi * FEE_SCALE_LONG + Math.unsignedMultiplyHigh(productLo, FEE_SCALE_LONG);
+        long numeratorLo = productLo * FEE_SCALE_LONG;
+
+        long feeMultiplier = FEE_SCALE_LONG - feeRate;
+        long denominatorHi = Math.multiplyHigh(remaining, feeMultiplier);
+        long denominatorLo = remaining * feeMultiplier;
+
+        // The quotient only fits in 64 bits when numerator < denominator * 2^64
+        if (denominatorHi == 0 && Long.compareUnsigned(numeratorHi, denominatorLo) >= 0) {
+            return NOT_REPRESENTABLE;
+        }
+        long quotient = divide128(numeratorHi, numeratorLo, denominatorHi, denominatorLo);
+        // quotient + 1 must be a positive long and below U64_MAX
+        if (quotient < 0 || quotient == Long.MAX_VALUE) {
+            return NOT_REPRESENTABLE;
+        }
+        return quotient + 1;
+    }
+
+    /**
+     * (x * y) / z for non-negative x, y and positive z
+     */
+    private static long mulDivExact(long x, long y, long z) {
+        long productHi = Math.multiplyHigh(x, y);
+        long productLo = x * y;
+        if (Long.compareUnsigned(productHi, z) >= 0) {
+            return NOT_REPRESENTABLE;
+        }
+        long quotient = divide128(productHi, productLo, 0L, z);
+        return quotient < 0 ? NOT_REPRESENTABLE : quotient;
+    }
+
+    /**
+     * amount * (10000 - slippage) / 10000 for non-negative amount and slippage within [0, 10000]
+     */
+    private static long slippageAmountExact(long amount, long slippage) {
+        if (amount < 0 || slippage < 0 || slippage > SLIPPAGE_SCALE_LONG) {
+            return NOT_REPRESENTABLE;
+        }
+        long multiplier = SLIPPAGE_SCALE_LONG - slippage;
+        long productHi = Math.multiplyHigh(amount, multiplier);
+        long productLo = amount * multiplier;
+        // the quotient never exceeds amount
+        return divide128(productHi, productLo, 0L, SLIPPAGE_SCALE_LONG);
+    }
+
+    /**
+     * Unsigned division of a 128-bit dividend by a 128-bit divisor whose quotient fits in 64 bits
+     * (Hacker's Delight, divDu)
+     */
+    private static long divide128(long uHi, long uLo, long vHi, long vLo) {
+        if (vHi == 0) {
+            return divide128By64(uHi, uLo, vLo);
+        }
+
+        int shift = Long.numberOfLeadingZeros(vHi);
+        long v1 = shift == 0 ? vHi : (vHi << shift) | (vLo >>> (64 - shift));
+        long q1 = divide128By64(uHi >>> 1, (uLo >>> 1) | (uHi << 63), v1);
+        long q0 = q1 >>> (63 - shift);
+        if (q0 != 0) {
+            q0--;
+        }
+
+        // remainder = u - q0 * v, then correct the estimate by one if needed
+        long productLo = q0 * vLo;
+        long productHi = Math.unsignedMultiplyHigh(q0, vLo) + q0 * vHi;
+        long remainderLo = uLo - productLo;
+        long remainderHi = uHi - productHi - (Long.compareUnsigned(uLo, productLo) < 0 ? 1 : 0);
+        int cmp = Long.compareUnsigned(remainderHi, vHi);
+        if (cmp > 0 || (cmp == 0 && Long.compareUnsigned(remainderLo, vLo) >= 0)) {
+            q0++;
+        }
+        return q0;
+    }
+
+    /**
+     * Unsigned division of a 128-bit dividend by a 64-bit divisor, requires uHi < v (Hacker's Delight, divlu)
+     */
+    private static long divide128By64(long uHi, long uLo, long v) {
+        if (uHi == 0 && v > 0 && uLo >= 0) {
+            return uLo / v;
+        }
+        final long base = 1L << 32;
+        int shift = Long.numberOfLeadingZeros(v);
+        v <<= shift;
+        long vn1 = v >>> 32;
+        long vn0 = v & 0xFFFFFFFFL;
+
+        long un32 = shift == 0 ? uHi : (uHi << shift) | (uLo >>> (64 - shift));
+        long un10 = uLo << shift;
+        long un1 = un10 >>> 32;
+        long un0 = un10 & 0xFFFFFFFFL;
+
+        long q1 = Long.divideUnsigned(un32, vn1);
+        long rhat = un32 - q1 * vn1;
+        while (Long.compareUnsigned(q1, base) >= 0 || Long.compareUnsigned(q1 * vn0, base * rhat + un1) > 0) {
+            q1--;
+            rhat += vn1;
+            if (Long.compareUnsigned(rhat, base) >= 0) {
+                break;
+            }
+        }
+
+        long un21 = un32 * base + un1 - q1 * v;
+        long q0 = Long.divideUnsigned(un21, vn1);
+        rhat = un21 - q0 * vn1;
+        while (Long.compareUnsigned(q0, base) >= 0 || Long.compareUnsigned(q0 * vn0, base * rhat + un0) > 0) {
+            q0--;
+            rhat += vn1;
+            if (Long.compareUnsigned(rhat, base) >= 0) {
+                break;
+            }
+        }
+        return q1 * base + q0;
+    }
+
+    private static boolean isLong(BigInteger value) {
+        return value.signum() >= 0 && value.bitLength() < Long.SIZE;
+    }
+
+    private static long toLong(BigInteger value) {
+        if (value.bitLength() >= Long.SIZE) {
+            throw new AmmException("U64 overflow");
+        }
+        return value.longValue();
+    }
 }
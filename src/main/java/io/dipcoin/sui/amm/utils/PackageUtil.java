@@ -13,11 +13,16 @@
 
 package io.dipcoin.sui.amm.utils;
 
+import io.dipcoin.sui.amm.cache.BoundedCache;
 import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.CoinPair;
 import io.dipcoin.sui.bcs.BcsSerializer;
+import io.dipcoin.sui.bcs.TypeTagSerializer;
+import io.dipcoin.sui.bcs.types.tag.TypeTag;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * @author : Same
@@ -30,6 +35,52 @@ public class PackageUtil {
     private static final int EQUAL = 0;
     private static final int GREATER_THAN = 1;
     private static final String ADDR_PREFIX = "0x";
+    private static final int PAIR_CACHE_SIZE = 4096;
+    private static final int PARTNER_CACHE_SIZE = 256;
+
+    // typeX -> typeY -> pair, so a lookup allocates no composite key
+    private static final BoundedCache<String, BoundedCache<String, CoinPair>> PAIRS = new BoundedCache<>(PAIR_CACHE_SIZE);
+
+    private static final BoundedCache<CoinPair, List<TypeTag>> TYPE_TAGS = new BoundedCache<>(PAIR_CACHE_SIZE);
+
+    /**
+     * Get the canonical descriptor of a coin pair: BCS-ordered types, direction and LP name.
+     * Results are cached, so repeat calls for the same pair do not serialize or build strings.
+     * @param typeX First coin type
+     * @param typeY Second coin type
+     * @returns CoinPair descriptor
+     */
+    public static CoinPair getCoinPair(String typeX, String typeY) {
+        BoundedCache<String, CoinPair> byTypeY = PAIRS.get(typeX, k -> new BoundedCache<>(PARTNER_CACHE_SIZE));
+        CoinPair pair = byTypeY.getIfPresent(typeY);
+        return pair != null ? pair : byTypeY.get(typeY, k -> buildCoinPair(typeX, k));
+    }
+
+    /**
+     * Get the parsed router type arguments [typeX, typeY] of an ordered pair.
+     * Parsed once per pair, the returned list is shared and immutable.
+     * @param pair ordered coin pair
+     * @returns type tags of the pool's X and Y coin types
+     */
+    public static List<TypeTag> getTypeTags(CoinPair pair) {
+        return TYPE_TAGS.get(pair, key -> List.of(
+                TypeTagSerializer.parseFromStr(key.typeX(), true),
+                TypeTagSerializer.parseFromStr(key.typeY(), true)));
+    }
+
+    private static CoinPair buildCoinPair(String typeX, String typeY) {
+        boolean sorted = isSortedTypes(typeX, typeY);
+        String coinType1 = sorted ? typeX : typeY;
+        String coinType2 = sorted ? typeY : typeX;
+        String normalizedTypeX = coinType1.startsWith(ADDR_PREFIX)
+                ? coinType1.substring(2)
+                : coinType1;
+        String normalizedTypeY = coinType2.startsWith(ADDR_PREFIX)
+                ? coinType2.substring(2)
+                : coinType2;
+        String lpName = "LP-" + normalizedTypeX + "-" + normalizedTypeY;
+        return new CoinPair(coinType1, coinType2, !sorted, lpName);
+    }
 
     /**
      * Orders two coin types based on their lexicographical comparison
@@ -38,9 +89,8 @@ public class PackageUtil {
      * @returns Tuple of ordered coin types [smaller, larger]
      */
     public static String[] orderType(String typeX, String typeY) {
-        return isSortedTypes(typeX, typeY)
-                ? new String[]{typeX, typeY}
-                : new String[]{typeY, typeX};
+        CoinPair pair = getCoinPair(typeX, typeY);
+        return new String[]{pair.typeX(), pair.typeY()};
     }
 
     /**
@@ -60,20 +110,24 @@ public class PackageUtil {
      * // Returns: "LP-456::coin::USDC-789::coin::WSOL"
      */
     public static String getLpName(String typeX, String typeY) {
-        // Sort coin types for consistent ordering
-        String[] orderType = orderType(typeX, typeY);
-        // Remove 0x prefix if present
-        String sortedTypeX = orderType[0];
-        String sortedTypeY = orderType[1];
-        String normalizedTypeX = sortedTypeX.startsWith(ADDR_PREFIX)
-                ? sortedTypeX.substring(2)
-                : sortedTypeX;
-        String normalizedTypeY = sortedTypeY.startsWith(ADDR_PREFIX)
-                ? sortedTypeY.substring(2)
-                : sortedTypeY;
-
-        // Construct LP token name
-        return "LP-" + normalizedTypeX + "-" + normalizedTypeY;
+        // Sorted, 0x-stripped and concatenated once per pair
+        return getCoinPair(typeX, typeY).lpName();
+    }
+
+    /**
+     * Recover the coin types of an LP token name, the inverse of getLpName
+     * @param lpName LP token name in format `LP-${coinType1}-${coinType2}`
+     * @returns [coinType1, coinType2] with 0x prefixes, or null if the name is not an LP name
+     */
+    public static String[] parseLpName(String lpName) {
+        if (lpName == null || !lpName.startsWith("LP-")) {
+            return null;
+        }
+        String[] types = lpName.substring(3).split("-");
+        if (types.length != 2 || types[0].isEmpty() || types[1].isEmpty()) {
+            return null;
+        }
+        return new String[]{ADDR_PREFIX + types[0], ADDR_PREFIX + types[1]};
     }
 
     /**
@@ -97,11 +151,8 @@ public class PackageUtil {
      */
     public static String[] getLpType(String packageId, String typeX, String typeY) {
         // Sort coin types to ensure consistent ordering
-        String[] orderType = orderType(typeX, typeY);
-        String coinType1 = orderType[0];
-        String coinType2 = orderType[1];
-        String lpType = packageId + "::manage::LP<" + coinType1 + ", " + coinType2 + ">";
-        return new String[]{coinType1, coinType2, lpType};
+        CoinPair pair = getCoinPair(typeX, typeY);
+        return new String[]{pair.typeX(), pair.typeY(), pair.lpType(packageId)};
     }
 
     /**
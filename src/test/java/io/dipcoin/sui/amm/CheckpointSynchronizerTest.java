@@ -0,0 +1,221 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.sync.CheckpointSynchronizer;
+import io.dipcoin.sui.amm.sync.VersionedPoolStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 16:30
+ * @Description : checkpoint synchronizer replayed against the recorded checkpoints in fixtures/pool-checkpoints.json
+ */
+public class CheckpointSynchronizerTest {
+
+    /**
+     * Recorded chain
+     * @param poolType pool type without type arguments
+     * @param head latest checkpoint when the synchronizer starts
+     * @param snapshot pools read at the start
+     * @param checkpoints checkpoints after the head
+     * @param pools every later pool version
+     */
+    record Fixture(String poolType, long head, List<Pool> snapshot, List<CheckpointSynchronizer.Checkpoint> checkpoints,
+                   List<Pool> pools) {}
+
+    private Fixture fixture;
+
+    private long latest;
+
+    private final Set<Long> failing = new HashSet<>();
+
+    private final Set<String> pruned = new HashSet<>();
+
+    private final List<Map<String, Long>> reads = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/fixtures/pool-checkpoints.json")) {
+            fixture = new ObjectMapper().readValue(in, Fixture.class);
+        }
+        latest = fixture.head();
+    }
+
+    private CheckpointSynchronizer synchronizer(Collection<Pool> snapshot) {
+        return synchronizer(() -> snapshot);
+    }
+
+    private CheckpointSynchronizer synchronizer(Supplier<Collection<Pool>> snapshot) {
+        CheckpointSynchronizer.CheckpointSource source = new CheckpointSynchronizer.CheckpointSource() {
+
+            @Override
+            public long latest() {
+                return latest;
+            }
+
+            @Override
+            public CheckpointSynchronizer.Checkpoint get(long sequenceNumber) {
+                if (failing.remove(sequenceNumber)) {
+                    throw new AmmException("getCheckpoint failed!");
+                }
+                return fixture.checkpoints().stream()
+                        .filter(checkpoint -> checkpoint.sequenceNumber() == sequenceNumber)
+                        .findFirst().orElseThrow();
+            }
+        };
+        return new CheckpointSynchronizer(fixture.poolType(), source, this::read, snapshot, Runnable::run);
+    }
+
+    private Collection<Pool> read(Map<String, Long> versions) {
+        reads.add(Map.copyOf(versions));
+        return fixture.pools().stream()
+                .filter(pool -> pool.getVersion().equals(versions.get(pool.getId())))
+                .filter(pool -> !pruned.contains(pool.getId()))
+                .toList();
+    }
+
+    @Test
+    void testFirstPollStartsAtHead() {
+        CheckpointSynchronizer synchronizer = synchronizer(fixture.snapshot());
+
+        assertThat(synchronizer.poll()).isZero();
+
+        VersionedPoolStore store = synchronizer.getStore();
+        assertThat(store.getCheckpoint()).isEqualTo(100L);
+        assertThat(store.getVersion("0x01")).isEqualTo(10L);
+        assertThat(store.getVersion("0x02")).isEqualTo(20L);
+        assertThat(reads).isEmpty();
+    }
+
+    @Test
+    void testFollowsCheckpointsInOrder() {
+        CheckpointSynchronizer synchronizer = synchronizer(fixture.snapshot());
+        synchronizer.poll();
+
+        latest = 104L;
+        assertThat(synchronizer.poll()).isEqualTo(3);
+
+        VersionedPoolStore store = synchronizer.getStore();
+        assertThat(store.getCheckpoint()).isEqualTo(104L);
+        assertThat(store.get("0x01").getVersion()).isEqualTo(12L);
+        assertThat(store.get("0x01").getBalX()).isEqualTo(BigInteger.valueOf(1_050));
+        assertThat(store.get("0x02").getVersion()).isEqualTo(21L);
+        // registered after the start
+        assertThat(store.get("0x03").getBalX()).isEqualTo(BigInteger.valueOf(3_000));
+        assertThat(store.size()).isEqualTo(3);
+        // one read per window, only the newest version of a pool, no other object types
+        assertThat(reads).containsExactly(Map.of("0x01", 12L, "0x02", 21L, "0x03", 5L));
+    }
+
+    @Test
+    void testVersionsAreAppliedOnce() {
+        // the start read overlapped checkpoint 101
+        List<Pool> snapshot = new ArrayList<>(fixture.snapshot());
+        snapshot.set(0, fixture.pools().getFirst());
+        CheckpointSynchronizer synchronizer = synchronizer(snapshot);
+        synchronizer.poll();
+
+        latest = 102L;
+        assertThat(synchronizer.poll()).isZero();
+        assertThat(reads).isEmpty();
+        assertThat(synchronizer.getStore().getCheckpoint()).isEqualTo(102L);
+        assertThat(synchronizer.getStore().getVersion("0x01")).isEqualTo(11L);
+
+        // a checkpoint already committed is never committed again
+        assertThat(synchronizer.getStore().commit(101L, fixture.pools())).isEqualTo(-1);
+        assertThat(synchronizer.getStore().getVersion("0x01")).isEqualTo(11L);
+    }
+
+    @Test
+    void testFailedCheckpointIsRetried() {
+        CheckpointSynchronizer synchronizer = synchronizer(fixture.snapshot());
+        synchronizer.poll();
+
+        latest = 104L;
+        failing.add(103L);
+        assertThatThrownBy(synchronizer::poll).isInstanceOf(AmmException.class);
+        assertThat(synchronizer.getStore().getCheckpoint()).isEqualTo(100L);
+        assertThat(synchronizer.getStore().getVersion("0x01")).isEqualTo(10L);
+
+        assertThat(synchronizer.poll()).isEqualTo(3);
+        assertThat(synchronizer.getStore().getCheckpoint()).isEqualTo(104L);
+        assertThat(synchronizer.getStore().getVersion("0x01")).isEqualTo(12L);
+    }
+
+    @Test
+    void testPrunedVersionIsReadFromCurrentAndMarkedInconsistent() {
+        // the second read returns the current states, the chain has moved on to 105 meanwhile
+        Iterator<Collection<Pool>> snapshots = List.<Collection<Pool>>of(fixture.snapshot(),
+                fixture.pools().subList(1, 4)).iterator();
+        CheckpointSynchronizer synchronizer = synchronizer(() -> {
+            Collection<Pool> snapshot = snapshots.next();
+            if (!snapshots.hasNext()) {
+                latest = 105L;
+            }
+            return snapshot;
+        });
+        synchronizer.poll();
+        assertThat(synchronizer.getStore().view().consistent()).isTrue();
+
+        latest = 104L;
+        pruned.add("0x01");
+        failing.add(105L);
+        assertThatThrownBy(synchronizer::poll).isInstanceOf(AmmException.class);
+
+        VersionedPoolStore.View view = synchronizer.getStore().view();
+        assertThat(view.checkpoint()).isEqualTo(104L);
+        assertThat(view.pools().get("0x01").getVersion()).isEqualTo(12L);
+        assertThat(view.pools().get("0x02").getVersion()).isEqualTo(21L);
+        assertThat(view.consistent()).isFalse();
+
+        // consistent again once the checkpoint latest after the read is committed
+        assertThat(synchronizer.poll()).isZero();
+        assertThat(synchronizer.getStore().getCheckpoint()).isEqualTo(105L);
+        assertThat(synchronizer.getStore().view().consistent()).isTrue();
+    }
+
+    @Test
+    void testViewIsNotModified() {
+        CheckpointSynchronizer synchronizer = synchronizer(fixture.snapshot());
+        synchronizer.poll();
+        VersionedPoolStore.View view = synchronizer.getStore().view();
+
+        latest = 104L;
+        synchronizer.poll();
+
+        assertThat(view.checkpoint()).isEqualTo(100L);
+        assertThat(view.pools().get("0x01").getVersion()).isEqualTo(10L);
+        assertThat(view.pools()).doesNotContainKey("0x03");
+    }
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.cache.CoinCache;
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.ObjectRef;
+import io.dipcoin.sui.amm.model.OwnedCoin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 11:30
+ * @Description : coin selection and lease bookkeeping, without RPC
+ */
+public class CoinCacheTest {
+
+    private static final String OWNER = "0xa11ce";
+    private static final String USDC = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::USDC";
+
+    private static final OwnedCoin C10 = coin("0x10", 10);
+    private static final OwnedCoin C40 = coin("0x40", 40);
+    private static final OwnedCoin C50 = coin("0x50", 50);
+    private static final OwnedCoin C100 = coin("0x100", 100);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private List<OwnedCoin> chain;
+
+    private CoinCache cache;
+
+    @BeforeEach
+    void setUp() {
+        chain = List.of(C10, C40, C50, C100);
+        cache = new CoinCache((owner, type) -> {
+            loads.incrementAndGet();
+            return chain;
+        });
+    }
+
+    @Test
+    void testSelectSmallestSufficientCoin() {
+        assertThat(CoinCache.select(chain, USDC, BigInteger.valueOf(45))).containsExactly(C50);
+        assertThat(CoinCache.select(chain, USDC, BigInteger.valueOf(100))).containsExactly(C100);
+    }
+
+    @Test
+    void testSelectFewestCoins() {
+        // 100 + 40 covers 130 with two inputs and keeps the 50 coin
+        assertThat(CoinCache.select(chain, USDC, BigInteger.valueOf(130))).containsExactly(C100, C40);
+        assertThat(CoinCache.select(chain, USDC, BigInteger.valueOf(200))).containsExactly(C100, C50, C40, C10);
+    }
+
+    @Test
+    void testSelectInsufficientBalance() {
+        assertThatThrownBy(() -> CoinCache.select(chain, USDC, BigInteger.valueOf(201)))
+                .isInstanceOf(AmmException.class)
+                .hasMessageContaining("current total balance: 200");
+        assertThatThrownBy(() -> CoinCache.select(List.of(), USDC, BigInteger.ONE))
+                .isInstanceOf(AmmException.class);
+    }
+
+    @Test
+    void testLeasedCoinsAreNotSelectedTwice() {
+        CoinCache.Lease first = cache.lease(OWNER, USDC, BigInteger.valueOf(90));
+        CoinCache.Lease second = cache.lease(OWNER, USDC, BigInteger.valueOf(90));
+
+        assertThat(first.coins()).containsExactly(C100);
+        assertThat(second.coins()).containsExactly(C50, C40);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testSettlePutsPrimaryBackAtNewVersion() {
+        CoinCache.Lease lease = cache.lease(OWNER, USDC, BigInteger.valueOf(130));
+        cache.settle(lease, new ObjectRef("0x100", 9, "digest9"), BigInteger.valueOf(130));
+
+        // 100 + 40 - 130 left in the merged coin
+        assertThat(cache.peek(OWNER, USDC, BigInteger.valueOf(10))).containsExactly(C10);
+        assertThat(cache.peek(OWNER, USDC, BigInteger.valueOf(60)))
+                .containsExactly(C50, new OwnedCoin("0x100", 9, "digest9", BigInteger.TEN));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testRestoreAfterFailedExecution() {
+        CoinCache.Lease lease = cache.lease(OWNER, USDC, BigInteger.valueOf(130));
+        Map<String, ObjectRef> refs = Map.of(
+                "0x100", new ObjectRef("0x100", 9, "digest9"),
+                "0x40", new ObjectRef("0x40", 9, "digest9"));
+        cache.restore(lease, refs::get);
+
+        // nothing was merged, both coins keep their balance at the new version
+        assertThat(cache.peek(OWNER, USDC, BigInteger.valueOf(130)))
+                .containsExactly(new OwnedCoin("0x100", 9, "digest9", BigInteger.valueOf(100)), new OwnedCoin("0x40", 9, "digest9", BigInteger.valueOf(40)));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void testStaleTypeIsListedOnlyWhenShort() {
+        cache.warm(OWNER, USDC);
+        cache.markStale(OWNER, USDC);
+
+        // known coins still cover it
+        assertThat(cache.peek(OWNER, USDC, BigInteger.valueOf(90))).containsExactly(C100);
+        assertThat(loads).hasValue(1);
+
+        CoinCache.Lease lease = cache.lease(OWNER, USDC, BigInteger.valueOf(100));
+        assertThat(cache.peek(OWNER, USDC, BigInteger.valueOf(100))).containsExactly(C50, C40, C10);
+        assertThatThrownBy(() -> cache.peek(OWNER, USDC, BigInteger.valueOf(101))).isInstanceOf(AmmException.class);
+        // listed again for the shortfall, the coin in flight is left out
+        assertThat(loads).hasValue(2);
+        cache.release(lease);
+    }
+
+    @Test
+    void testUnknownOutcomeMarksStale() {
+        CoinCache.Lease lease = cache.lease(OWNER, USDC, BigInteger.valueOf(100));
+        cache.settle(lease, null, BigInteger.valueOf(100));
+
+        // the coin is not put back until the type is listed again
+        assertThat(cache.peek(OWNER, USDC, BigInteger.valueOf(100))).containsExactly(C50, C40, C10);
+        assertThat(cache.peek(OWNER, USDC, BigInteger.valueOf(101))).containsExactly(C100, C10);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void testReleaseReturnsCoins() {
+        CoinCache.Lease lease = cache.lease(OWNER, USDC, BigInteger.valueOf(200));
+        assertThatThrownBy(() -> cache.lease(OWNER, USDC, BigInteger.ONE)).isInstanceOf(AmmException.class);
+
+        cache.release(lease);
+        assertThat(cache.lease(OWNER, USDC, BigInteger.valueOf(200)).coins()).hasSize(4);
+    }
+
+    private static OwnedCoin coin(String objectId, long balance) {
+        return new OwnedCoin(objectId, 1, "digest", BigInteger.valueOf(balance));
+    }
+
+}
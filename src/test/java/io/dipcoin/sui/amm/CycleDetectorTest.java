@@ -0,0 +1,118 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.constant.SwapConstant;
+import io.dipcoin.sui.amm.model.Arbitrage;
+import io.dipcoin.sui.amm.model.RouteHop;
+import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.router.CycleDetector;
+import io.dipcoin.sui.amm.utils.MathUtil;
+import io.dipcoin.sui.amm.utils.PackageUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static io.dipcoin.sui.amm.PoolFixtures.pool;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 11:30
+ * @Description : arbitrage cycles over a fixed pool snapshot
+ */
+public class CycleDetectorTest {
+
+    private static final String USDC = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::USDC";
+    private static final String USDT = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::USDT";
+    private static final String SUI = SwapConstant.COIN_TYPE_SUI;
+
+    private CycleDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new CycleDetector(SwapConstant.DEFAULT_MAX_HOPS);
+        // consistent prices: 1 SUI = 2 USDC = 2 USDT
+        detector.addPool(USDC, SUI, pool("usdc-sui", 1L, USDC, SUI, 1_000_000_000_000L, 500_000_000_000L));
+        detector.addPool(SUI, USDT, pool("sui-usdt", 1L, SUI, USDT, 500_000_000_000L, 1_000_000_000_000L));
+        detector.addPool(USDC, USDT, pool("usdc-usdt", 1L, USDC, USDT, 1_000_000_000_000L, 1_000_000_000_000L));
+    }
+
+    @Test
+    void testEnumeratesCyclesOnAdd() {
+        // the triangle in both directions
+        assertThat(detector.getCycleCount()).isEqualTo(2);
+        assertThat(detector.getCycleCount("usdc-sui")).isEqualTo(2);
+
+        // a second USDC/USDT pool closes two pairs with the first one and two triangles
+        detector.addPool(USDT, USDC, pool("usdc-usdt-2", 1L, USDC, USDT, 1_000_000L, 1_000_000L));
+        assertThat(detector.getCycleCount()).isEqualTo(6);
+        assertThat(detector.getCycleCount("usdc-usdt-2")).isEqualTo(4);
+        assertThat(detector.getCycleCount("usdc-sui")).isEqualTo(4);
+    }
+
+    @Test
+    void testConsistentPricesHaveNoArbitrage() {
+        assertThat(detector.findAll()).isEmpty();
+    }
+
+    @Test
+    void testUpdateFindsProfitMaximizingInput() {
+        // USDT is cheap on the direct pool
+        List<Arbitrage> found = detector.update(pool("usdc-usdt", 2L, USDC, USDT, 1_100_000_000_000L, 900_000_000_000L));
+
+        assertThat(found).hasSize(1);
+        Arbitrage arbitrage = found.getFirst();
+        List<RouteHop> hops = arbitrage.route().hops();
+        assertThat(arbitrage.coinType()).isEqualTo(USDT);
+        assertThat(arbitrage.route().typeOut()).isEqualTo(USDT);
+        assertThat(hops.getFirst().pool().getId()).isEqualTo("usdc-usdt");
+        assertThat(arbitrage.logGain()).isGreaterThan(0.0);
+        assertThat(arbitrage.profit()).isEqualTo(arbitrage.route().amountOut().subtract(arbitrage.route().amountIn()));
+        assertThat(arbitrage.profit()).isGreaterThan(BigInteger.ZERO);
+
+        // a bit less or a bit more earns less
+        BigInteger amountIn = arbitrage.route().amountIn();
+        BigInteger less = amountIn.multiply(BigInteger.valueOf(95)).divide(BigInteger.valueOf(100));
+        BigInteger more = amountIn.multiply(BigInteger.valueOf(105)).divide(BigInteger.valueOf(100));
+        assertThat(profit(hops, less)).isLessThan(arbitrage.profit());
+        assertThat(profit(hops, more)).isLessThan(arbitrage.profit());
+    }
+
+    @Test
+    void testStaleOrUnknownPoolIsIgnored() {
+        assertThat(detector.update(pool("usdc-usdt", 1L, USDC, USDT, 1_100_000_000_000L, 900_000_000_000L))).isEmpty();
+        assertThat(detector.update(pool("weth-sui", 5L, USDC, USDT, 1_100_000_000_000L, 900_000_000_000L))).isEmpty();
+        assertThat(detector.findAll()).isEmpty();
+    }
+
+    @Test
+    void testFeeRemovesThinEdge() {
+        // a 0.2% price gap does not cover three 0.3% fees
+        assertThat(detector.update(pool("usdc-usdt", 2L, USDC, USDT, 1_001_000_000_000L, 999_000_000_000L))).isEmpty();
+    }
+
+    private static BigInteger profit(List<RouteHop> hops, BigInteger amountIn) {
+        BigInteger amount = amountIn;
+        for (RouteHop hop : hops) {
+            Pool pool = hop.pool();
+            boolean xToY = !PackageUtil.getCoinPair(hop.typeIn(), hop.typeOut()).reversed();
+            amount = MathUtil.getAmountOut(pool.getFeeRate(), amount,
+                    xToY ? pool.getBalX() : pool.getBalY(), xToY ? pool.getBalY() : pool.getBalX());
+        }
+        return amount.subtract(amountIn);
+    }
+
+}
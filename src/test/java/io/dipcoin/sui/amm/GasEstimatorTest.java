@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.gas.GasEstimator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 11:40
+ * @Description : gas budget estimation per transaction shape, without RPC
+ */
+public class GasEstimatorTest {
+
+    private static final GasEstimator.Shape SWAP = new GasEstimator.Shape(List.of("swap_exact_x_to_y<0x2::sui::SUI, 0x5::usdc::USDC>"), 1);
+
+    private static final GasEstimator.Shape SWAP_TWO_COINS = new GasEstimator.Shape(List.of("swap_exact_x_to_y<0x2::sui::SUI, 0x5::usdc::USDC>"), 2);
+
+    // 1000 gas units at price 1000, 2 SUI storage
+    private static final GasEstimator.GasCost COST = new GasEstimator.GasCost(BigInteger.valueOf(1_000_000), BigInteger.valueOf(2_000_000));
+
+    private final AtomicInteger dryRuns = new AtomicInteger();
+
+    private GasEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        estimator = new GasEstimator(1.2, 16);
+    }
+
+    private GasEstimator.GasCost dryRun() {
+        dryRuns.incrementAndGet();
+        return COST;
+    }
+
+    @Test
+    void testOneDryRunPerShape() {
+        assertThat(estimator.estimate(SWAP, 1000, this::dryRun)).isEqualTo(BigInteger.valueOf(3_600_000));
+        assertThat(estimator.estimate(SWAP, 1000, this::dryRun)).isEqualTo(BigInteger.valueOf(3_600_000));
+        assertThat(dryRuns).hasValue(1);
+
+        estimator.estimate(SWAP_TWO_COINS, 1000, this::dryRun);
+        assertThat(dryRuns).hasValue(2);
+    }
+
+    @Test
+    void testBudgetFollowsGasPrice() {
+        estimator.estimate(SWAP, 1000, this::dryRun);
+
+        // computation doubles with the price, storage does not
+        assertThat(estimator.peek(SWAP, 2000)).isEqualTo(BigInteger.valueOf(4_800_000));
+        assertThat(dryRuns).hasValue(1);
+    }
+
+    @Test
+    void testObservedCostRaisesEstimate() {
+        estimator.estimate(SWAP, 1000, this::dryRun);
+
+        estimator.observe(SWAP, 1000, new GasEstimator.GasCost(BigInteger.valueOf(500_000), BigInteger.valueOf(3_000_000)));
+        assertThat(estimator.peek(SWAP, 1000)).isEqualTo(BigInteger.valueOf(4_800_000));
+
+        // unknown shapes are only learned from dry runs
+        estimator.observe(SWAP_TWO_COINS, 1000, COST);
+        assertThat(estimator.peek(SWAP_TWO_COINS, 1000)).isNull();
+    }
+
+    @Test
+    void testInvalidShapeDryRunsAgain() {
+        estimator.estimate(SWAP, 1000, this::dryRun);
+        estimator.invalidate(SWAP);
+        estimator.estimate(SWAP, 1000, this::dryRun);
+
+        assertThat(dryRuns).hasValue(2);
+    }
+
+    @Test
+    void testMargin() {
+        assertThat(GasEstimator.budget(COST, 1.0)).isEqualTo(BigInteger.valueOf(3_000_000));
+        assertThatThrownBy(() -> estimator.setMargin(0.5)).isInstanceOf(AmmException.class);
+    }
+
+}
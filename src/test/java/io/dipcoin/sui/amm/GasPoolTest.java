@@ -0,0 +1,97 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.gas.GasPool;
+import io.dipcoin.sui.amm.model.ObjectRef;
+import io.dipcoin.sui.amm.model.OwnedCoin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 16:10
+ * @Description : gas coin leasing per sender, without RPC
+ */
+public class GasPoolTest {
+
+    private static final String SENDER = "0xa11ce";
+
+    private static final OwnedCoin GAS_1 = gas("0x1", 1_000);
+    private static final OwnedCoin GAS_2 = gas("0x2", 2_000);
+
+    private GasPool gasPool;
+
+    @BeforeEach
+    void setUp() {
+        gasPool = new GasPool(Duration.ofMillis(50));
+        gasPool.add(SENDER, List.of(GAS_2, GAS_1));
+    }
+
+    @Test
+    void testUnknownSenderIsNotPooled() {
+        assertThat(gasPool.lease("0xb0b", BigInteger.ONE)).isNull();
+    }
+
+    @Test
+    void testEachLeaseGetsItsOwnCoin() {
+        GasPool.Lease first = gasPool.lease(SENDER, BigInteger.valueOf(500));
+        GasPool.Lease second = gasPool.lease(SENDER, BigInteger.valueOf(500));
+
+        assertThat(first.coin()).isEqualTo(GAS_1);
+        assertThat(second.coin()).isEqualTo(GAS_2);
+        assertThat(gasPool.idleCount(SENDER)).isZero();
+        assertThatThrownBy(() -> gasPool.lease(SENDER, BigInteger.valueOf(500)))
+                .isInstanceOf(AmmException.class)
+                .hasMessageContaining("Timed out");
+    }
+
+    @Test
+    void testLeaseWaitsForRecycledCoin() {
+        GasPool.Lease first = gasPool.lease(SENDER, BigInteger.valueOf(500));
+        GasPool.Lease second = gasPool.lease(SENDER, BigInteger.valueOf(500));
+        gasPool.setLeaseTimeout(Duration.ofSeconds(5));
+
+        CompletableFuture<GasPool.Lease> waiting = CompletableFuture.supplyAsync(() -> gasPool.lease(SENDER, BigInteger.valueOf(500)));
+        gasPool.recycle(first, new ObjectRef("0x1", 8, "digest8"), BigInteger.valueOf(300));
+
+        assertThat(waiting.join().coin()).isEqualTo(new OwnedCoin("0x1", 8, "digest8", BigInteger.valueOf(700)));
+        gasPool.release(second);
+        assertThat(gasPool.idleCount(SENDER)).isEqualTo(1);
+    }
+
+    @Test
+    void testUnknownOutcomeDropsCoin() {
+        GasPool.Lease lease = gasPool.lease(SENDER, BigInteger.valueOf(1_500));
+        assertThat(lease.coin()).isEqualTo(GAS_2);
+
+        gasPool.recycle(lease, null, BigInteger.ZERO);
+        assertThatThrownBy(() -> gasPool.lease(SENDER, BigInteger.valueOf(1_500)))
+                .isInstanceOf(AmmException.class)
+                .hasMessageContaining("covers");
+    }
+
+    private static OwnedCoin gas(String objectId, long balance) {
+        return new OwnedCoin(objectId, 1, "digest", BigInteger.valueOf(balance));
+    }
+
+}
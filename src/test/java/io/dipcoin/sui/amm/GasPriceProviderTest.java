@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.gas.GasPriceProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/18 15:20
+ * @Description : epoch gas price caching, without RPC
+ */
+public class GasPriceProviderTest {
+
+    private static final long HOUR_MS = 3_600_000L;
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    private GasPriceProvider provider(long epochEndMs) {
+        return new GasPriceProvider(() -> {
+            reads.incrementAndGet();
+            return new GasPriceProvider.EpochGasPrice(7, 750, epochEndMs);
+        }, Runnable::run);
+    }
+
+    @Test
+    void testPriceIsReadOncePerEpoch() {
+        GasPriceProvider provider = provider(System.currentTimeMillis() + HOUR_MS);
+
+        assertThat(provider.getGasPrice()).isEqualTo(750);
+        assertThat(provider.getGasPrice()).isEqualTo(750);
+        assertThat(provider.getGasPriceAsync().join()).isEqualTo(750);
+        assertThat(provider.getEpochGasPrice().epoch()).isEqualTo(7);
+        assertThat(reads).hasValue(1);
+    }
+
+    @Test
+    void testMultiplierRoundsUp() {
+        GasPriceProvider provider = provider(System.currentTimeMillis() + HOUR_MS);
+        provider.setMultiplier(1.5);
+
+        assertThat(provider.getGasPrice()).isEqualTo(1125);
+        provider.setMultiplier(1.001);
+        assertThat(provider.getGasPrice()).isEqualTo(751);
+        assertThatThrownBy(() -> provider.setMultiplier(0.9)).isInstanceOf(AmmException.class);
+    }
+
+    @Test
+    void testLoaderFailureIsWrapped() {
+        GasPriceProvider provider = new GasPriceProvider(() -> {
+            throw new IllegalStateException("rpc down");
+        }, Runnable::run);
+
+        assertThatThrownBy(provider::getGasPrice)
+                .isInstanceOf(AmmException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.utils.MathUtil;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/10 14:32
+ * @Description : long fast path must match the BigInteger formulas
+ */
+public class MathUtilTest {
+
+    private static final BigInteger FEE_SCALE = BigInteger.valueOf(10000L);
+
+    @Test
+    void testGetAmountOutMatchesBigInteger() {
+        Random random = new Random(7L);
+        for (int i = 0; i < 100_000; i++) {
+            long feeRate = random.nextInt(2000);
+            long amountIn = randomAmount(random);
+            long reserveIn = randomAmount(random);
+            long reserveOut = randomAmount(random);
+
+            BigInteger feeMultiplier = FEE_SCALE.subtract(BigInteger.valueOf(feeRate));
+            BigInteger afterFees = BigInteger.valueOf(amountIn).multiply(feeMultiplier);
+            BigInteger expected = afterFees.multiply(BigInteger.valueOf(reserveOut))
+                    .divide(BigInteger.valueOf(reserveIn).multiply(FEE_SCALE).add(afterFees));
+
+            assertThat(MathUtil.getAmountOut(feeRate, amountIn, reserveIn, reserveOut)).isEqualTo(expected.longValueExact());
+            assertThat(MathUtil.getAmountOut(BigInteger.valueOf(feeRate), BigInteger.valueOf(amountIn),
+                    BigInteger.valueOf(reserveIn), BigInteger.valueOf(reserveOut))).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testGetAmountInMatchesBigInteger() {
+        Random random = new Random(11L);
+        for (int i = 0; i < 100_000; i++) {
+            long feeRate = random.nextInt(2000);
+            long reserveIn = randomAmount(random);
+            long reserveOut = randomAmount(random);
+            long amountOut = 1 + Math.floorMod(random.nextLong(), reserveOut);
+            if (amountOut >= reserveOut) {
+                continue;
+            }
+
+            BigInteger expected = BigInteger.valueOf(reserveIn).multiply(BigInteger.valueOf(amountOut)).multiply(FEE_SCALE)
+                    .divide(BigInteger.valueOf(reserveOut - amountOut).multiply(FEE_SCALE.subtract(BigInteger.valueOf(feeRate))))
+                    .add(BigInteger.ONE);
+
+            // the long overloads stop at Long.MAX_VALUE, larger results are pinned in testLongPathRejectsAboveLongMax
+            if (expected.bitLength() < Long.SIZE) {
+                BigInteger actual = MathUtil.getAmountIn(BigInteger.valueOf(feeRate), BigInteger.valueOf(amountOut),
+                        BigInteger.valueOf(reserveIn), BigInteger.valueOf(reserveOut));
+                assertThat(actual).isEqualTo(expected);
+                assertThat(MathUtil.getAmountIn(feeRate, amountOut, reserveIn, reserveOut)).isEqualTo(expected.longValue());
+            }
+        }
+    }
+
+    @Test
+    void testMulDivAndSlippage() {
+        long x = Long.MAX_VALUE;
+        long y = 9_000_000_000_000_000_000L;
+        long z = Long.MAX_VALUE - 1;
+        BigInteger expected = BigInteger.valueOf(x).multiply(BigInteger.valueOf(y)).divide(BigInteger.valueOf(z));
+        assertThat(MathUtil.mulDiv(x, y, z)).isEqualTo(expected.longValueExact());
+        assertThat(MathUtil.mulDiv(BigInteger.valueOf(x), BigInteger.valueOf(y), BigInteger.valueOf(z))).isEqualTo(expected);
+
+        assertThat(MathUtil.getSlippageAmount(Long.MAX_VALUE, 100L))
+                .isEqualTo(BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(9900L)).divide(FEE_SCALE).longValueExact());
+
+        assertThat(MathUtil.getMaxAmountIn(BigInteger.valueOf(9900L), BigInteger.valueOf(100L))).isEqualTo(BigInteger.valueOf(10000L));
+        assertThatThrownBy(() -> MathUtil.getMaxAmountIn(new BigInteger("18446744073709551615"), BigInteger.valueOf(100L)))
+                .isInstanceOf(AmmException.class)
+                .hasMessage("U64 overflow");
+
+        assertThatThrownBy(() -> MathUtil.mulDiv(1L, 1L, 0L)).isInstanceOf(AmmException.class);
+        assertThatThrownBy(() -> MathUtil.mulDiv(Long.MAX_VALUE, Long.MAX_VALUE, 1L)).isInstanceOf(AmmException.class);
+    }
+
+    @Test
+    void testLongPathRejectsAboveLongMax() {
+        BigInteger twoTo63 = BigInteger.ONE.shiftLeft(63);
+
+        // reserveIn * 1 / (2 - 1) + 1 is exactly 2^63, a valid u64 for the BigInteger overload
+        assertThat(MathUtil.getAmountIn(BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(Long.MAX_VALUE), BigInteger.TWO))
+                .isEqualTo(twoTo63);
+        assertThatThrownBy(() -> MathUtil.getAmountIn(0L, 1L, Long.MAX_VALUE, 2L))
+                .isInstanceOf(AmmException.class)
+                .hasMessage("U64 overflow");
+
+        // 2^63 and U64_MAX - 1 both fit in a u64 but not in a long
+        assertThat(MathUtil.mulDiv(BigInteger.ONE.shiftLeft(62), BigInteger.TWO, BigInteger.ONE)).isEqualTo(twoTo63);
+        assertThatThrownBy(() -> MathUtil.mulDiv(1L << 62, 2L, 1L))
+                .isInstanceOf(AmmException.class)
+                .hasMessage("U64 overflow");
+        assertThat(MathUtil.mulDiv(BigInteger.valueOf(Long.MAX_VALUE), BigInteger.TWO, BigInteger.ONE))
+                .isEqualTo(twoTo63.shiftLeft(1).subtract(BigInteger.TWO));
+        assertThatThrownBy(() -> MathUtil.mulDiv(Long.MAX_VALUE, 2L, 1L))
+                .isInstanceOf(AmmException.class)
+                .hasMessage("U64 overflow");
+    }
+
+    private static long randomAmount(Random random) {
+        int bits = 1 + random.nextInt(63);
+        long value = random.nextLong() >>> (64 - bits);
+        return value == 0 ? 1 : value;
+    }
+
+}
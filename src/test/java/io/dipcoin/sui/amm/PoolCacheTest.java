@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.cache.PoolCache;
+import io.dipcoin.sui.amm.model.response.Pool;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/12 10:40
+ * @Description : pool cache invalidation against reads in flight
+ */
+public class PoolCacheTest {
+
+    private final PoolCache cache = new PoolCache(Duration.ofMinutes(1));
+
+    private static Pool pool(String id, long version) {
+        Pool pool = new Pool();
+        pool.setId(id);
+        pool.setVersion(version);
+        return pool;
+    }
+
+    @Test
+    void testReadBeforeInvalidateOfUncachedPoolIsIgnored() {
+        long requestedAt = System.nanoTime();
+        cache.invalidate("0xpool");
+        cache.put(pool("0xpool", 5L), requestedAt);
+        assertThat(cache.get("0xpool")).isNull();
+
+        cache.put(pool("0xpool", 6L), System.nanoTime());
+        assertThat(cache.get("0xpool").getVersion()).isEqualTo(6L);
+    }
+
+    @Test
+    void testReadBeforeInvalidateOfSameVersionIsIgnored() {
+        cache.put(pool("0xpool", 5L), System.nanoTime());
+        long requestedAt = System.nanoTime();
+        cache.invalidate("0xpool");
+        cache.put(pool("0xpool", 5L), requestedAt);
+        assertThat(cache.get("0xpool")).isNull();
+
+        cache.put(pool("0xpool", 7L), System.nanoTime());
+        assertThat(cache.get("0xpool").getVersion()).isEqualTo(7L);
+    }
+
+    @Test
+    void testReadOlderThanOurTransactionIsIgnored() {
+        cache.put(pool("0xpool", 10L), System.nanoTime());
+        long requestedAt = System.nanoTime();
+        // our transaction left the pool at v12
+        cache.invalidate("0xpool", 12L);
+
+        // a third-party change from before our transaction, read concurrently
+        cache.put(pool("0xpool", 11L), requestedAt);
+        assertThat(cache.get("0xpool")).isNull();
+        // the same version from a lagging node, read after the invalidation
+        cache.put(pool("0xpool", 11L), System.nanoTime());
+        assertThat(cache.get("0xpool")).isNull();
+
+        cache.put(pool("0xpool", 12L), System.nanoTime());
+        assertThat(cache.get("0xpool").getVersion()).isEqualTo(12L);
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.model.PoolDelta;
+import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.sync.CursorStore;
+import io.dipcoin.sui.amm.sync.PoolEventFollower;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 14:10
+ * @Description : pool table kept current from a scripted event stream, without RPC
+ */
+public class PoolEventFollowerTest {
+
+    private final List<PoolDelta> stream = new ArrayList<>();
+
+    private final Map<String, Pool> chain = new HashMap<>();
+
+    private final CursorStore cursors = CursorStore.inMemory();
+
+    private int reads;
+
+    @BeforeEach
+    void setUp() {
+        chain.put("0xp1", pool("0xp1", 1_000, 2_000, 100));
+        chain.put("0xp2", pool("0xp2", 5_000, 5_000, 500));
+    }
+
+    /** Pages of two events, the cursor is the index of the next event */
+    private PoolEventFollower.EventPage next(String cursor, int limit) {
+        int from = cursor == null ? 0 : Integer.parseInt(cursor);
+        int to = Math.min(from + 2, stream.size());
+        return new PoolEventFollower.EventPage(List.copyOf(stream.subList(from, to)),
+                to == from ? null : String.valueOf(to), to < stream.size());
+    }
+
+    private Map<String, Pool> read(Collection<String> poolIds) {
+        reads++;
+        Map<String, Pool> pools = new HashMap<>();
+        for (String poolId : poolIds) {
+            pools.put(poolId, chain.get(poolId));
+        }
+        return pools;
+    }
+
+    private PoolEventFollower follower(Duration reconcileInterval) {
+        return new PoolEventFollower(List.of("0xp1", "0xp2"), this::next, this::read, cursors, reconcileInterval);
+    }
+
+    @Test
+    void testFirstPollReadsPools() {
+        PoolEventFollower follower = follower(Duration.ofHours(1));
+
+        assertThat(follower.poll()).isZero();
+        assertThat(reads).isEqualTo(1);
+        assertThat(follower.getTable().get("0xp1").getBalX()).isEqualTo(BigInteger.valueOf(1_000));
+    }
+
+    @Test
+    void testDeltasAreAppliedAcrossPages() {
+        PoolEventFollower follower = follower(Duration.ofHours(1));
+        follower.poll();
+
+        stream.add(delta("0xp1", 100, -150, 0));
+        stream.add(delta("0xp2", 50, 50, 5));
+        stream.add(delta("0xp1", -10, -20, -1));
+        stream.add(delta("0xother", 1, 1, 0));
+
+        assertThat(follower.poll()).isEqualTo(3);
+        Pool p1 = follower.getTable().get("0xp1");
+        assertThat(p1.getBalX()).isEqualTo(BigInteger.valueOf(1_090));
+        assertThat(p1.getBalY()).isEqualTo(BigInteger.valueOf(1_830));
+        assertThat(p1.getLpSupply()).isEqualTo(BigInteger.valueOf(99));
+        assertThat(follower.getTable().get("0xother")).isNull();
+        assertThat(cursors.load()).isEqualTo("4");
+        // within the reconcile interval the pools are not read again
+        assertThat(reads).isEqualTo(1);
+    }
+
+    @Test
+    void testEventsAreAppliedOnce() {
+        PoolEventFollower follower = follower(Duration.ofHours(1));
+        stream.add(delta("0xp1", 100, -150, 0));
+        follower.poll();
+
+        assertThat(follower.poll()).isZero();
+        assertThat(follower.getTable().get("0xp1").getBalX()).isEqualTo(BigInteger.valueOf(1_000));
+    }
+
+    @Test
+    void testReconcileReplacesDriftedState() {
+        PoolEventFollower follower = follower(Duration.ZERO);
+        follower.poll();
+        stream.add(delta("0xp1", 100, -150, 0));
+        // the chain kept part of the input as protocol fee
+        chain.put("0xp1", pool("0xp1", 1_099, 1_850, 100));
+
+        follower.poll();
+
+        assertThat(reads).isEqualTo(2);
+        assertThat(follower.getTable().get("0xp1").getBalX()).isEqualTo(BigInteger.valueOf(1_099));
+    }
+
+    @Test
+    void testHandedOutPoolIsNotModified() {
+        PoolEventFollower follower = follower(Duration.ofHours(1));
+        follower.poll();
+        Pool before = follower.getTable().get("0xp1");
+
+        stream.add(delta("0xp1", 100, -150, 0));
+        follower.poll();
+
+        assertThat(before.getBalX()).isEqualTo(BigInteger.valueOf(1_000));
+    }
+
+    private static PoolDelta delta(String poolId, long balX, long balY, long lpSupply) {
+        return new PoolDelta(poolId, BigInteger.valueOf(balX), BigInteger.valueOf(balY), BigInteger.valueOf(lpSupply));
+    }
+
+    private static Pool pool(String id, long balX, long balY, long lpSupply) {
+        Pool pool = new Pool();
+        pool.setId(id);
+        pool.setBalX(BigInteger.valueOf(balX));
+        pool.setBalY(BigInteger.valueOf(balY));
+        pool.setLpSupply(BigInteger.valueOf(lpSupply));
+        pool.setFeeRate(BigInteger.valueOf(30L));
+        return pool;
+    }
+
+}
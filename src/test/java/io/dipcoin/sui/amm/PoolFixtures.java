@@ -0,0 +1,64 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.utils.PackageUtil;
+
+import java.math.BigInteger;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 10:15
+ * @Description : pool states for tests over a fixed pool snapshot, 0.3% fee
+ */
+public final class PoolFixtures {
+
+    private PoolFixtures() {
+    }
+
+    /**
+     * @param id pool ID
+     * @param typeA coin type of balA
+     * @param typeB coin type of balB
+     * @param balA reserve of typeA
+     * @param balB reserve of typeB
+     * @returns pool with the reserves in BCS-sorted coin order
+     */
+    public static Pool pool(String id, String typeA, String typeB, long balA, long balB) {
+        boolean sorted = !PackageUtil.getCoinPair(typeA, typeB).reversed();
+        Pool pool = new Pool();
+        pool.setId(id);
+        pool.setBalX(BigInteger.valueOf(sorted ? balA : balB));
+        pool.setBalY(BigInteger.valueOf(sorted ? balB : balA));
+        pool.setFeeRate(BigInteger.valueOf(30L));
+        return pool;
+    }
+
+    /**
+     * @param id pool ID
+     * @param version object version
+     * @param typeA coin type of balA
+     * @param typeB coin type of balB
+     * @param balA reserve of typeA
+     * @param balB reserve of typeB
+     * @returns pool at the version with the reserves in BCS-sorted coin order
+     */
+    public static Pool pool(String id, long version, String typeA, String typeB, long balA, long balB) {
+        Pool pool = pool(id, typeA, typeB, balA, balB);
+        pool.setVersion(version);
+        return pool;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.constant.SwapConstant;
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.Quote;
+import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.router.Quoter;
+import io.dipcoin.sui.amm.utils.MathUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static io.dipcoin.sui.amm.PoolFixtures.pool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 16:20
+ * @Description : single and batch quotes over a fixed pool snapshot
+ */
+public class QuoterTest {
+
+    private static final String USDC = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::USDC";
+    private static final String SUI = SwapConstant.COIN_TYPE_SUI;
+
+    private static final Pool USDC_SUI = pool("usdc-sui", USDC, SUI, 1_000_000_000_000L, 500_000_000_000L);
+    private static final Pool USDC_SUI_THIN = pool("usdc-sui-thin", USDC, SUI, 10_000_000L, 5_000_000L);
+
+    private Quoter quoter;
+
+    @BeforeEach
+    void setUp() {
+        quoter = new Quoter();
+        quoter.add(USDC, SUI, USDC_SUI);
+        quoter.add(SUI, USDC, USDC_SUI);
+        quoter.add(USDC, SUI, USDC_SUI_THIN);
+    }
+
+    @Test
+    void testExactInQuote() {
+        BigInteger amountIn = BigInteger.valueOf(10_000_000_000L);
+        Quote quote = Quoter.quoteExactIn(USDC_SUI, USDC, SUI, amountIn, SwapConstant.DEFAULT_SLIPPAGE);
+
+        BigInteger reserveIn = BigInteger.valueOf(1_000_000_000_000L);
+        BigInteger reserveOut = BigInteger.valueOf(500_000_000_000L);
+        assertThat(quote.amountOut()).isEqualTo(MathUtil.getAmountOut(BigInteger.valueOf(30L), amountIn, reserveIn, reserveOut));
+        assertThat(quote.fee()).isEqualTo(BigInteger.valueOf(30_000_000L));
+        assertThat(quote.minAmountOut()).isEqualTo(MathUtil.getSlippageAmount(quote.amountOut(), SwapConstant.DEFAULT_SLIPPAGE));
+        assertThat(quote.maxAmountIn()).isEqualTo(amountIn);
+        // 1% of the reserve after fees moves the price by just under 1%
+        assertThat(quote.priceImpact()).isBetween(0.0098, 0.0099);
+    }
+
+    @Test
+    void testExactOutQuote() {
+        BigInteger amountOut = BigInteger.valueOf(1_000_000_000L);
+        Quote quote = Quoter.quoteExactOut(USDC_SUI, SUI, USDC, amountOut, BigInteger.valueOf(100L));
+
+        assertThat(quote.exactIn()).isFalse();
+        assertThat(quote.amountOut()).isEqualTo(amountOut);
+        assertThat(quote.minAmountOut()).isEqualTo(amountOut);
+        assertThat(quote.maxAmountIn()).isGreaterThan(quote.amountIn());
+        assertThat(Quoter.quoteExactIn(USDC_SUI, SUI, USDC, quote.amountIn(), BigInteger.ZERO).amountOut()).isGreaterThanOrEqualTo(amountOut);
+
+        assertThatThrownBy(() -> Quoter.quoteExactOut(USDC_SUI_THIN, SUI, USDC, BigInteger.valueOf(10_000_000L), BigInteger.ZERO))
+                .isInstanceOf(AmmException.class);
+    }
+
+    @Test
+    void testBatchMatchesSingleQuotes() {
+        long[] sizes = {1L, 1_000_000L, 1_000_000_000L, 0L};
+        long[][] amountsOut = new long[quoter.getRowCount()][sizes.length];
+        quoter.quoteExactIn(sizes, amountsOut);
+
+        assertThat(amountsOut[0][2]).isEqualTo(Quoter.quoteExactIn(USDC_SUI, USDC, SUI, BigInteger.valueOf(1_000_000_000L), BigInteger.ZERO).amountOut().longValue());
+        assertThat(amountsOut[1][2]).isEqualTo(Quoter.quoteExactIn(USDC_SUI, SUI, USDC, BigInteger.valueOf(1_000_000_000L), BigInteger.ZERO).amountOut().longValue());
+        // the thin pool returns less for the same size
+        assertThat(amountsOut[2][1]).isLessThan(amountsOut[0][1]);
+        assertThat(amountsOut[0][0]).isZero();
+        assertThat(amountsOut[0][3]).isZero();
+        assertThat(quoter.quoteExactIn(0, 1_000_000L)).isEqualTo(amountsOut[0][1]);
+    }
+
+    @Test
+    void testBatchExactOutMarksUnfillable() {
+        long[] sizes = {1_000_000L, 5_000_000L};
+        long[][] amountsIn = new long[quoter.getRowCount()][sizes.length];
+        quoter.quoteExactOut(sizes, amountsIn);
+
+        assertThat(amountsIn[0][0]).isEqualTo(Quoter.quoteExactOut(USDC_SUI, USDC, SUI, BigInteger.valueOf(1_000_000L), BigInteger.ZERO).amountIn().longValue());
+        // the thin pool holds exactly 5_000_000 SUI
+        assertThat(amountsIn[2][1]).isZero();
+        assertThat(quoter.getPoolId(2)).isEqualTo("usdc-sui-thin");
+    }
+
+    @Test
+    void testResultsMustFitRows() {
+        assertThatThrownBy(() -> quoter.quoteExactIn(new long[]{1L}, new long[1][1])).isInstanceOf(AmmException.class);
+    }
+
+}
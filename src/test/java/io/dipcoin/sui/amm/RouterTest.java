@@ -0,0 +1,108 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.constant.SwapConstant;
+import io.dipcoin.sui.amm.exception.AmmException;
+import io.dipcoin.sui.amm.model.CoinPair;
+import io.dipcoin.sui.amm.model.Route;
+import io.dipcoin.sui.amm.model.RouteHop;
+import io.dipcoin.sui.amm.router.Router;
+import io.dipcoin.sui.amm.utils.MathUtil;
+import io.dipcoin.sui.amm.utils.PackageUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static io.dipcoin.sui.amm.PoolFixtures.pool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 11:05
+ * @Description : path search over a fixed pool snapshot
+ */
+public class RouterTest {
+
+    private static final String USDC = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::USDC";
+    private static final String USDT = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::USDT";
+    private static final String WETH = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::WETH";
+    private static final String SUI = SwapConstant.COIN_TYPE_SUI;
+
+    private Router router;
+
+    @BeforeEach
+    void setUp() {
+        router = new Router();
+        // deep USDC/SUI and SUI/USDT pools, thin direct USDC/USDT pool
+        router.addPool(USDC, SUI, pool("usdc-sui", USDC, SUI, 1_000_000_000_000L, 500_000_000_000L));
+        router.addPool(SUI, USDT, pool("sui-usdt", SUI, USDT, 500_000_000_000L, 1_000_000_000_000L));
+        router.addPool(USDC, USDT, pool("usdc-usdt", USDC, USDT, 10_000_000L, 10_000_000L));
+    }
+
+    @Test
+    void testExactInPrefersDeeperTwoHopPath() {
+        BigInteger amountIn = BigInteger.valueOf(5_000_000L);
+        Route route = router.findBestExactIn(USDC, USDT, amountIn, SwapConstant.DEFAULT_MAX_HOPS);
+
+        assertThat(route.exactIn()).isTrue();
+        assertThat(route.hops()).extracting(hop -> hop.pool().getId()).containsExactly("usdc-sui", "sui-usdt");
+        assertThat(route.typeIn()).isEqualTo(USDC);
+        assertThat(route.typeOut()).isEqualTo(USDT);
+        assertThat(route.amountIn()).isEqualTo(amountIn);
+        assertThat(route.hops().get(1).amountIn()).isEqualTo(route.hops().get(0).amountOut());
+    }
+
+    @Test
+    void testExactInSingleHopWhenLimited() {
+        Route route = router.findBestExactIn(USDC, USDT, BigInteger.valueOf(5_000_000L), 1);
+
+        assertThat(route.hops()).extracting(hop -> hop.pool().getId()).containsExactly("usdc-usdt");
+    }
+
+    @Test
+    void testExactOutChainsRequiredInputs() {
+        BigInteger amountOut = BigInteger.valueOf(5_000_000L);
+        Route route = router.findBestExactOut(USDC, USDT, amountOut, SwapConstant.DEFAULT_MAX_HOPS);
+
+        assertThat(route.exactIn()).isFalse();
+        assertThat(route.hops()).extracting(RouteHop::typeIn).containsExactly(USDC, SUI);
+        assertThat(route.amountOut()).isEqualTo(amountOut);
+        assertThat(route.hops().get(0).amountOut()).isEqualTo(route.hops().get(1).amountIn());
+
+        // the last hop is quoted against the SUI/USDT reserves
+        RouteHop last = route.hops().getLast();
+        assertThat(last.amountIn()).isEqualTo(MathUtil.getAmountIn(last.pool().getFeeRate(), amountOut,
+                BigInteger.valueOf(500_000_000_000L), BigInteger.valueOf(1_000_000_000_000L)));
+    }
+
+    @Test
+    void testNoRoute() {
+        assertThatThrownBy(() -> router.findBestExactIn(USDC, WETH, BigInteger.TEN, SwapConstant.DEFAULT_MAX_HOPS))
+                .isInstanceOf(AmmException.class);
+        assertThatThrownBy(() -> router.findBestExactOut(USDC, USDT, BigInteger.valueOf(2_000_000_000_000L), SwapConstant.DEFAULT_MAX_HOPS))
+                .isInstanceOf(AmmException.class);
+    }
+
+    @Test
+    void testParseLpName() {
+        String[] types = PackageUtil.parseLpName(PackageUtil.getLpName(USDC, SUI));
+        CoinPair pair = PackageUtil.getCoinPair(USDC, SUI);
+
+        assertThat(types).containsExactly(pair.typeX(), pair.typeY());
+        assertThat(PackageUtil.parseLpName("pool")).isNull();
+    }
+
+}
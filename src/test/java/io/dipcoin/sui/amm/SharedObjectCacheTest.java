@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm;
+
+import io.dipcoin.sui.amm.cache.SharedObjectCache;
+import io.dipcoin.sui.amm.constant.AmmNetwork;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.arg.object.ObjectArgSharedObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/22 16:30
+ * @Description : shared object arguments per network and mutability, without RPC
+ */
+public class SharedObjectCacheTest {
+
+    private static final String POOL = "0xf2cddb6036ffc128430fefab738a34d0ecb147ac28f25c64cfd9039a945e904e";
+
+    private final List<String> resolved = new ArrayList<>();
+
+    private SharedObjectCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SharedObjectCache(16);
+    }
+
+    private Function<String, CallArgObjectArg> resolver(boolean mutable) {
+        return objectId -> {
+            resolved.add(objectId + ":" + mutable);
+            return new CallArgObjectArg(new ObjectArgSharedObject(objectId, 7L, mutable));
+        };
+    }
+
+    @Test
+    void testMutabilityIsPartOfTheKey() {
+        CallArgObjectArg immutable = cache.get(AmmNetwork.TESTNET, POOL, false, resolver(false));
+        CallArgObjectArg mutable = cache.get(AmmNetwork.TESTNET, POOL, true, resolver(true));
+
+        // an immutable lookup no longer fixes the mutability of later ones
+        assertThat(mutable).isNotSameAs(immutable);
+        assertThat(cache.get(AmmNetwork.TESTNET, POOL, true, resolver(true))).isSameAs(mutable);
+        assertThat(cache.get(AmmNetwork.TESTNET, POOL, false, resolver(false))).isSameAs(immutable);
+        assertThat(resolved).containsExactly(POOL + ":false", POOL + ":true");
+    }
+
+    @Test
+    void testNetworksAreSeparate() {
+        CallArgObjectArg testnet = cache.get(AmmNetwork.TESTNET, POOL, true, resolver(true));
+        CallArgObjectArg mainnet = cache.get(AmmNetwork.MAINNET, POOL, true, resolver(true));
+
+        assertThat(mainnet).isNotSameAs(testnet);
+        assertThat(resolved).hasSize(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testKnownInitialVersionSkipsTheResolver() {
+        cache.putInitialVersion(AmmNetwork.TESTNET, POOL, 42L);
+
+        assertThat(cache.getInitialVersion(AmmNetwork.TESTNET, POOL)).isEqualTo(42L);
+        assertThat(cache.getInitialVersion(AmmNetwork.MAINNET, POOL)).isNull();
+        assertThat(cache.get(AmmNetwork.TESTNET, POOL, true, resolver(true))).isNotNull();
+        assertThat(cache.get(AmmNetwork.TESTNET, POOL, false, resolver(false))).isNotNull();
+        assertThat(resolved).isEmpty();
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        for (int i = 0; i < 40; i++) {
+            cache.get(AmmNetwork.TESTNET, "0x" + i, true, resolver(true));
+            cache.putInitialVersion(AmmNetwork.TESTNET, "0x" + i, i);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(16);
+    }
+
+}
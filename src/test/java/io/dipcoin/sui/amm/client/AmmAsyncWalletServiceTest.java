@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.client;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 17:45
+ * @Description : async wallet contract and the adapter over blocking wallet services, without RPC
+ */
+public class AmmAsyncWalletServiceTest {
+
+    @Test
+    void testAdapterSignsOnTheExecutor() {
+        AtomicInteger executed = new AtomicInteger();
+        Executor executor = task -> {
+            executed.incrementAndGet();
+            Thread.ofVirtual().start(task);
+        };
+        AmmAsyncWalletService wallet = AmmAsyncWalletService.of((address, txData) -> {
+            sleep(50);
+            return address + ":" + new String(txData, StandardCharsets.UTF_8);
+        }, executor);
+
+        long start = System.nanoTime();
+        CompletableFuture<String> signature = wallet.signAsync("0xa", bytes("tx"));
+
+        // the caller is not held for the signing round-trip
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(50L);
+        assertThat(signature.join()).isEqualTo("0xa:tx");
+        assertThat(executed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testAdapterSignsBatchInOneCall() {
+        AtomicInteger batches = new AtomicInteger();
+        AmmWalletService blocking = new AmmWalletService() {
+
+            @Override
+            public String sign(String address, byte[] txData) {
+                throw new AmmException("unexpected single signature");
+            }
+
+            @Override
+            public List<String> signBatch(String address, List<byte[]> txData) {
+                batches.incrementAndGet();
+                return txData.stream().map(data -> new String(data, StandardCharsets.UTF_8)).toList();
+            }
+        };
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            AmmAsyncWalletService wallet = AmmAsyncWalletService.of(blocking, executor);
+
+            assertThat(wallet.signBatchAsync("0xa", List.of(bytes("1"), bytes("2"), bytes("3"))).join())
+                    .containsExactly("1", "2", "3");
+            assertThat(batches.get()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testDefaultBatchKeepsOrderAndFailsTogether() {
+        AmmAsyncWalletService wallet = (address, txData) -> {
+            String tx = new String(txData, StandardCharsets.UTF_8);
+            if (tx.endsWith("!")) {
+                return CompletableFuture.failedFuture(new AmmException("rejected by signer"));
+            }
+            // later transactions are signed first
+            long delay = 60L - 20L * Long.parseLong(tx);
+            return CompletableFuture.supplyAsync(() -> {
+                sleep(delay);
+                return "sig" + tx;
+            });
+        };
+
+        assertThat(wallet.signBatchAsync("0xa", List.of(bytes("1"), bytes("2"), bytes("3"))).join())
+                .containsExactly("sig1", "sig2", "sig3");
+        assertThatThrownBy(() -> wallet.signBatchAsync("0xa", List.of(bytes("1"), bytes("2!"))).join())
+                .hasCauseInstanceOf(AmmException.class);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.amm.client;
+
+import io.dipcoin.sui.amm.constant.AmmNetwork;
+import io.dipcoin.sui.amm.model.OwnedCoin;
+import io.dipcoin.sui.amm.model.request.BatchIntent;
+import io.dipcoin.sui.amm.model.request.SwapParams;
+import io.dipcoin.sui.amm.model.response.Pool;
+import io.dipcoin.sui.amm.utils.MathUtil;
+import io.dipcoin.sui.amm.utils.PackageUtil;
+import io.dipcoin.sui.protocol.SuiClient;
+import io.dipcoin.sui.protocol.http.HttpService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 17:20
+ * @Description : batch intents on one pool are quoted in sequence, without RPC
+ */
+public class AppendBatchTest {
+
+    private static final String POOL_ID = "0xf2cddb6036ffc128430fefab738a34d0ecb147ac28f25c64cfd9039a945e904e";
+    private static final String USDC = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::USDC";
+    private static final String SUI = "0x0000000000000000000000000000000000000000000000000000000000000002::sui::SUI";
+    private static final String SENDER = "0x7d20dcdb2bca4f508ea9613994683eb4e76e9c4ed371169677c1be02aaf0b58e";
+    private static final String DIGEST = "4foJEuozTbtezmYgpBo6YEUmNHidRhWJFRqdAdJspj43";
+
+    /** client with canned coins that records the pool state every exact-in swap is quoted against */
+    private static class RecordingClient extends AmmClient {
+
+        private final List<Pool> quotedAgainst = new ArrayList<>();
+
+        RecordingClient() {
+            super(AmmNetwork.TESTNET, SuiClient.build(new HttpService("http://localhost")));
+            sharedObjects.putInitialVersion(ammNetwork, ammConfig.globalId(), 256L);
+            sharedObjects.putInitialVersion(ammNetwork, POOL_ID, 512L);
+        }
+
+        @Override
+        protected List<OwnedCoin> loadCoins(String owner, String type) {
+            return List.of(new OwnedCoin("0x1111111111111111111111111111111111111111111111111111111111111111", 77L, DIGEST,
+                    BigInteger.TEN.pow(15)));
+        }
+
+        @Override
+        int appendSwapExactXToY(TransactionContext context, SwapParams params, Pool pool) {
+            quotedAgainst.add(pool);
+            return super.appendSwapExactXToY(context, params, pool);
+        }
+    }
+
+    @Test
+    void testSecondSwapOnPoolIsQuotedAfterTheFirst() {
+        boolean sorted = !PackageUtil.getCoinPair(USDC, SUI).reversed();
+        Pool pool = new Pool();
+        pool.setId(POOL_ID);
+        pool.setBalX(BigInteger.valueOf(sorted ? 1_000_000_000L : 2_000_000_000L));
+        pool.setBalY(BigInteger.valueOf(sorted ? 2_000_000_000L : 1_000_000_000L));
+        pool.setFeeRate(BigInteger.valueOf(30L));
+        pool.setLpSupply(BigInteger.valueOf(1_000_000_000L));
+
+        BigInteger amountIn = BigInteger.valueOf(100_000_000L);
+        RecordingClient client = new RecordingClient();
+        TransactionContext context = client.appendBatch(List.of(swap(amountIn), swap(amountIn)), SENDER, Map.of(POOL_ID, pool));
+        context.release();
+
+        // plan pass and build pass quote the same sequence
+        assertThat(client.quotedAgainst).hasSize(4);
+        assertThat(client.quotedAgainst.get(0)).isSameAs(pool);
+        assertThat(client.quotedAgainst.get(2)).isSameAs(pool);
+
+        BigInteger reserveIn = BigInteger.valueOf(1_000_000_000L);
+        BigInteger reserveOut = BigInteger.valueOf(2_000_000_000L);
+        BigInteger firstOut = MathUtil.getAmountOut(pool.getFeeRate(), amountIn, reserveIn, reserveOut);
+        for (Pool second : List.of(client.quotedAgainst.get(1), client.quotedAgainst.get(3))) {
+            assertThat(sorted ? second.getBalX() : second.getBalY()).isEqualTo(reserveIn.add(amountIn));
+            assertThat(sorted ? second.getBalY() : second.getBalX()).isEqualTo(reserveOut.subtract(firstOut));
+            assertThat(second.getLpSupply()).isEqualTo(pool.getLpSupply());
+        }
+        // the caller's snapshot is left as it was
+        assertThat(sorted ? pool.getBalX() : pool.getBalY()).isEqualTo(reserveIn);
+    }
+
+    private static BatchIntent swap(BigInteger amountIn) {
+        SwapParams params = new SwapParams();
+        params.setPoolId(POOL_ID);
+        params.setTypeX(USDC);
+        params.setTypeY(SUI);
+        params.setAmountIn(amountIn);
+        params.setSlippage(BigInteger.valueOf(100L));
+        return new BatchIntent.SwapExactIn(params);
+    }
+
+}
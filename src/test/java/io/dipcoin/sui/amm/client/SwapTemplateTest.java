@@ -0,0 +1,88 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.amm.client;
+
+import io.dipcoin.sui.amm.constant.AmmNetwork;
+import io.dipcoin.sui.amm.constant.SwapConstant;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.protocol.SuiClient;
+import io.dipcoin.sui.protocol.http.HttpService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/22 11:30
+ * @Description : swap templates are built without I/O and take their shared inputs from the shared object cache
+ */
+public class SwapTemplateTest {
+
+    private static final String POOL_ID = "0xf2cddb6036ffc128430fefab738a34d0ecb147ac28f25c64cfd9039a945e904e";
+    private static final String USDC = "0x5c68f3d2ebfd711454da300d6abf3c7254dc9333cd138cdc68e158ebffd24483::coins::USDC";
+    private static final String SENDER = "0x7d20dcdb2bca4f508ea9613994683eb4e76e9c4ed371169677c1be02aaf0b58e";
+
+    /** client with known initial shared versions that records every shared object lookup */
+    private static class RecordingClient extends AmmClient {
+
+        private final List<String> lookups = new ArrayList<>();
+
+        RecordingClient() {
+            super(AmmNetwork.TESTNET, SuiClient.build(new HttpService("http://localhost")));
+            sharedObjects.putInitialVersion(ammNetwork, ammConfig.globalId(), 256L);
+            sharedObjects.putInitialVersion(ammNetwork, POOL_ID, 512L);
+        }
+
+        @Override
+        protected CallArgObjectArg getSharedObject(String objectId, boolean mutable) {
+            lookups.add(objectId + ":" + mutable);
+            return super.getSharedObject(objectId, mutable);
+        }
+    }
+
+    @Test
+    void testTemplateIsBuiltOnceWithoutLookups() {
+        RecordingClient client = new RecordingClient();
+
+        SwapTemplate template = client.getSwapTemplate(POOL_ID, SwapConstant.COIN_TYPE_SUI, USDC, true);
+
+        assertThat(client.getSwapTemplate(POOL_ID, SwapConstant.COIN_TYPE_SUI, USDC, true)).isSameAs(template);
+        assertThat(client.getSwapTemplate(POOL_ID, SwapConstant.COIN_TYPE_SUI, USDC, false)).isNotSameAs(template);
+        assertThat(client.lookups).isEmpty();
+    }
+
+    @Test
+    void testSharedInputsComeFromTheCache() {
+        RecordingClient client = new RecordingClient();
+        SwapTemplate template = client.getSwapTemplate(POOL_ID, SwapConstant.COIN_TYPE_SUI, USDC, true);
+
+        TransactionContext context = TransactionContext.direct(client, SENDER);
+        template.append(context, BigInteger.valueOf(1_000_000L), BigInteger.ONE);
+        template.append(context, BigInteger.valueOf(2_000_000L), BigInteger.ONE);
+        context.release();
+
+        // the global object is read by immutable reference, the pool by mutable reference, once per transaction
+        String globalId = client.ammConfig.globalId();
+        assertThat(client.lookups).containsExactly(globalId + ":false", POOL_ID + ":true");
+        // built from the initial versions, the resolver never ran
+        assertThat(client.sharedObjects.size()).isEqualTo(2);
+        assertThat(client.sharedObjects.get(AmmNetwork.TESTNET, POOL_ID, true, id -> null)).isNotNull();
+        assertThat(client.sharedObjects.get(AmmNetwork.TESTNET, globalId, false, id -> null)).isNotNull();
+    }
+
+}
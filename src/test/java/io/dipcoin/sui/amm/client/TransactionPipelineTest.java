@@ -0,0 +1,213 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.client;
+
+import io.dipcoin.sui.amm.exception.AmmException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 16:30
+ * @Description : build / sign / submit stages with a scripted signer and submitter, without RPC
+ */
+public class TransactionPipelineTest {
+
+    private static final Executor COMPLETIONS = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<String, List<String>> sent = new ConcurrentHashMap<>();
+
+    private final List<String> released = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<Integer> signCalls = Collections.synchronizedList(new ArrayList<>());
+
+    private TransactionPipeline<String> pipeline;
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    private TransactionPipeline<String> pipeline(int parallelism, long signMillis, int signBatchSize) {
+        return new TransactionPipeline<>(parallelism, parallelism, parallelism, 16, signBatchSize,
+                (sender, prepared) -> {
+                    signCalls.add(prepared.size());
+                    if (prepared.stream().anyMatch(p -> p.endsWith("!"))) {
+                        throw new AmmException("rejected by signer");
+                    }
+                    sleep(signMillis == 0 ? ThreadLocalRandom.current().nextLong(3) : signMillis);
+                    return prepared.stream().map(p -> "sig(" + p + ")").toList();
+                },
+                (prepared, signature) -> {
+                    sent.computeIfAbsent(prepared.substring(0, prepared.indexOf(':')), k -> Collections.synchronizedList(new ArrayList<>()))
+                            .add(prepared);
+                    return null;
+                },
+                released::add, COMPLETIONS);
+    }
+
+    @Test
+    void testOrderIsPreservedPerSender() {
+        pipeline = pipeline(3, 0, 4);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            for (String sender : List.of("0xa", "0xb", "0xc", "0xd")) {
+                String prepared = sender + ":" + i;
+                futures.add(pipeline.submit(sender, () -> prepared, (p, response) -> p));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        for (String sender : List.of("0xa", "0xb", "0xc", "0xd")) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                expected.add(sender + ":" + i);
+            }
+            assertThat(sent.get(sender)).isEqualTo(expected);
+        }
+        // a job leaves the count before its future completes
+        assertThat(pipeline.getInFlight()).isZero();
+    }
+
+    @Test
+    void testSigningOverlapsAcrossSenders() {
+        pipeline = pipeline(4, 100, 4);
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (String sender : List.of("0xa", "0xb", "0xc", "0xd")) {
+            futures.add(pipeline.submit(sender, () -> sender + ":0", (p, response) -> p));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // four signatures of 100ms each, well below 400ms when they overlap
+        assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(350L);
+    }
+
+    @Test
+    void testFailedStageFailsOnlyItsTransaction() {
+        pipeline = pipeline(2, 0, 1);
+        CompletableFuture<String> built = pipeline.submit("0xa", () -> {
+            throw new AmmException("pool not found");
+        }, (p, response) -> p);
+        CompletableFuture<String> rejected = pipeline.submit("0xa", () -> "0xa:1!", (p, response) -> p);
+        CompletableFuture<String> next = pipeline.submit("0xa", () -> "0xa:2", (p, response) -> p);
+
+        assertThatThrownBy(built::join).hasCauseInstanceOf(AmmException.class);
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(AmmException.class);
+        assertThat(next.join()).isEqualTo("0xa:2");
+        assertThat(sent.get("0xa")).containsExactly("0xa:2");
+        assertThat(released).containsExactly("0xa:1!");
+    }
+
+    @Test
+    void testQueuedTransactionsAreSignedTogether() {
+        pipeline = pipeline(1, 50, 16);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String prepared = "0xa:" + i;
+            futures.add(pipeline.submit("0xa", () -> prepared, (p, response) -> p));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        // the first signature is slow, everything queued behind it goes in one call
+        assertThat(signCalls.size()).isLessThanOrEqualTo(3);
+        assertThat(signCalls.stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+        assertThat(sent.get("0xa")).hasSize(10);
+        assertThat(sent.get("0xa").getLast()).isEqualTo("0xa:9");
+    }
+
+    @Test
+    void testCloseWaitsForQueuedTransactions() {
+        pipeline = pipeline(1, 20, 1);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String prepared = "0xa:" + i;
+            futures.add(pipeline.submit("0xa", () -> prepared, (p, response) -> p));
+        }
+        pipeline.close();
+
+        assertThat(sent.get("0xa")).hasSize(5);
+        assertThat(pipeline.getInFlight()).isZero();
+        assertThat(CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))).succeedsWithin(Duration.ofSeconds(5));
+        assertThatThrownBy(() -> pipeline.submit("0xa", () -> "0xa:5", (p, response) -> p).join())
+                .hasCauseInstanceOf(AmmException.class);
+        assertThat(released).isEmpty();
+    }
+
+    @Test
+    void testCallbackMayClosePipeline() {
+        pipeline = pipeline(1, 0, 1);
+        CountDownLatch chained = new CountDownLatch(1);
+        CompletableFuture<Void> closed = pipeline.submit("0xa", () -> {
+            await(chained);
+            return "0xa:0";
+        }, (p, response) -> p).thenRun(pipeline::close);
+        chained.countDown();
+
+        assertThat(closed).succeedsWithin(Duration.ofSeconds(5));
+        assertThatThrownBy(() -> pipeline.submit("0xa", () -> "0xa:1", (p, response) -> p).join())
+                .hasCauseInstanceOf(AmmException.class);
+    }
+
+    @Test
+    void testSlowCallbackDoesNotHoldUpTheLane() {
+        pipeline = pipeline(1, 0, 1);
+        CountDownLatch chained = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<Void> slow = pipeline.submit("0xa", () -> {
+            await(chained);
+            return "0xa:0";
+        }, (p, response) -> p).thenRun(() -> await(finish));
+        chained.countDown();
+        CompletableFuture<String> next = pipeline.submit("0xa", () -> "0xa:1", (p, response) -> p);
+
+        assertThat(next).succeedsWithin(Duration.ofSeconds(5));
+        assertThat(slow).isNotDone();
+        finish.countDown();
+        assertThat(slow).succeedsWithin(Duration.ofSeconds(5));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package io.dipcoin.sui.amm.client;
+
+import org.bouncycastle.util.encoders.Base64;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/22 14:30
+ * @Description : pooled transaction byte buffers and the ByteBuffer signing default
+ */
+public class TxBufferTest {
+
+    @Test
+    void testDecodesIntoReusedBuffer() throws IOException {
+        byte[] small = randomBytes(300);
+        byte[] large = randomBytes(5000);
+
+        TxBuffer buffer = TxBuffer.acquire();
+        Base64.decode(Base64.toBase64String(large), buffer);
+        assertThat(buffer.size()).isEqualTo(large.length);
+        assertThat(bytes(buffer.view())).isEqualTo(large);
+        buffer.release();
+
+        // a released buffer comes back empty
+        TxBuffer reused = TxBuffer.acquire();
+        assertThat(reused.size()).isZero();
+        Base64.decode(Base64.toBase64String(small), reused);
+        assertThat(bytes(reused.view())).isEqualTo(small);
+        reused.release();
+    }
+
+    @Test
+    void testViewIsReadOnly() {
+        TxBuffer buffer = TxBuffer.acquire();
+        buffer.write(new byte[]{1, 2, 3}, 0, 3);
+        ByteBuffer view = buffer.view();
+
+        assertThat(view.remaining()).isEqualTo(3);
+        assertThatThrownBy(() -> view.put(0, (byte) 9)).isInstanceOf(java.nio.ReadOnlyBufferException.class);
+        buffer.release();
+    }
+
+    @Test
+    void testDefaultSignCopiesTheRemainingBytes() {
+        AmmWalletService wallet = (address, txData) -> address + ":" + txData.length + ":" + txData[0];
+        ByteBuffer txData = ByteBuffer.wrap(new byte[]{7, 8, 9, 10}, 1, 3);
+
+        assertThat(wallet.sign("0xa", txData)).isEqualTo("0xa:3:8");
+        // the caller's view is not consumed
+        assertThat(txData.position()).isEqualTo(1);
+        // a wallet without its own buffer signing is handed arrays
+        assertThat(wallet.signsFromBuffer()).isFalse();
+    }
+
+    private static byte[] bytes(ByteBuffer view) {
+        byte[] data = new byte[view.remaining()];
+        view.get(data);
+        return data;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        ThreadLocalRandom.current().nextBytes(data);
+        return data;
+    }
+
+}